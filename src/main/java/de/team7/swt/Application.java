@@ -2,12 +2,14 @@ package de.team7.swt;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Application class that contains the main-method and thus akts as the entrypoint into the application.
  *
  * @author Vincent Nadoll
  */
+@EnableScheduling
 @SpringBootApplication
 public class Application {
 
@@ -0,0 +1,250 @@
+package de.team7.swt.checkout.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.infrastructure.retry.ConcurrencyRetry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Places concurrent checkouts using group commits. Checkouts arriving within a short window are gathered into a batch
+ * whose orders are completed and saved within a single transaction. Thus, the stock of all orders is verified and
+ * decreased at once and the orders' rows are inserted using JDBC batching. Each caller waits for its own order only.
+ * <p>
+ * If a batch fails, e.g. because a single order could not be completed, its checkouts are placed one by one, so each
+ * caller gets its own order or failure. Callers wait for a bounded time only. A checkout which hasn't been dispatched
+ * until then is cancelled, whereas a dispatched checkout is still placed and its caller keeps waiting for it. Whether a
+ * checkout is dispatched or cancelled is decided atomically, so a cancelled checkout is never placed.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "dyob.checkout.group-commit.enabled", havingValue = "true")
+public class CheckoutCoordinator {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final BlockingQueue<Checkout> queue = new LinkedBlockingQueue<>();
+
+    private final OrderRepository repository;
+    private final ConcurrencyRetry retry;
+    private final TransactionTemplate transactionTemplate;
+    private final long window;
+    private final int maxBatchSize;
+    private final long timeout;
+    private final Thread dispatcher = new Thread(this::dispatch, "checkout-coordinator");
+
+    private volatile boolean running = true;
+
+    public CheckoutCoordinator(OrderRepository repository, ConcurrencyRetry retry,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${dyob.checkout.group-commit.window:5ms}") Duration window,
+                               @Value("${dyob.checkout.group-commit.max-batch-size:50}") int maxBatchSize,
+                               @Value("${dyob.checkout.group-commit.timeout:30s}") Duration timeout) {
+        Assert.isTrue(!window.isNegative(), "Window must not be negative");
+        Assert.isTrue(maxBatchSize > 0, "Maximum batch size must be positive");
+        Assert.isTrue(!timeout.isNegative(), "Timeout must not be negative");
+
+        this.repository = repository;
+        this.retry = retry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.window = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.timeout = timeout.toNanos();
+        this.dispatcher.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher.start();
+    }
+
+    /**
+     * Places a new order filled with items by the given consumer and waits until it has been completed and saved. The
+     * consumer may be called more than once, each time with a new order.
+     *
+     * @param items must not be {@literal null}
+     * @return the saved order
+     * @throws de.team7.swt.checkout.model.OrderCompletionFailure in case the order could not be completed successfully
+     * @throws IllegalStateException                              in case the order hasn't been dispatched within the
+     *                                                            timeout or before the waiting thread has been
+     *                                                            interrupted, or the coordinator has been shut down
+     */
+    public Order place(Consumer<Order> items) {
+        Assert.notNull(items, "Items must not be null");
+        Assert.state(running, "Checkout coordinator has been shut down");
+
+        Checkout checkout = new Checkout(items);
+        queue.add(checkout);
+        return checkout.await(timeout);
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                Checkout first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (null != first) {
+                    commit(gather(first));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<Checkout> gather(Checkout first) throws InterruptedException {
+        List<Checkout> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + window;
+        while (batch.size() < maxBatchSize) {
+            Checkout next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (null == next) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void commit(List<Checkout> batch) {
+        batch.removeIf(checkout -> !checkout.dispatch());
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Order> orders;
+        try {
+            orders = transactionTemplate.execute(status -> repository.saveAll(batch.stream()
+                .map(Checkout::createOrder)
+                .collect(Collectors.toList())));
+        } catch (RuntimeException e) {
+            log.debug("Failed to commit batch of {} checkouts, placing them one by one", batch.size(), e);
+            batch.forEach(this::commit);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).complete(orders.get(i));
+        }
+    }
+
+    private void commit(Checkout checkout) {
+        try {
+            checkout.complete(retry.execute("checkout",
+                () -> transactionTemplate.execute(status -> repository.save(checkout.createOrder()))));
+        } catch (RuntimeException e) {
+            checkout.fail(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        dispatcher.join(TimeUnit.SECONDS.toMillis(30));
+        for (Checkout checkout = queue.poll(); null != checkout; checkout = queue.poll()) {
+            checkout.fail(new IllegalStateException("Checkout coordinator has been shut down"));
+        }
+    }
+
+    /**
+     * A single caller's pending checkout.
+     */
+    @RequiredArgsConstructor
+    private static final class Checkout {
+
+        private final Consumer<Order> items;
+        private final CompletableFuture<Order> result = new CompletableFuture<>();
+        private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+
+        Order createOrder() {
+            Order order = new Order();
+            items.accept(order);
+            order.complete();
+            return order;
+        }
+
+        void complete(Order order) {
+            result.complete(order);
+        }
+
+        void fail(RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+
+        /**
+         * Marks this checkout as dispatched, unless it has been cancelled.
+         *
+         * @return {@literal true} if this checkout is to be placed; {@literal false} if it has been cancelled
+         */
+        boolean dispatch() {
+            return state.compareAndSet(State.PENDING, State.DISPATCHED);
+        }
+
+        private boolean cancel() {
+            return state.compareAndSet(State.PENDING, State.CANCELLED);
+        }
+
+        /**
+         * Waits for the order for the given number of nanoseconds. If the checkout hasn't been dispatched until then,
+         * it's cancelled. Otherwise, the order is going to be placed, so its caller keeps waiting for it.
+         */
+        Order await(long timeout) {
+            try {
+                return result.get(timeout, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (cancel()) {
+                    throw new IllegalStateException("Interrupted while awaiting checkout", e);
+                }
+            } catch (TimeoutException e) {
+                if (cancel()) {
+                    throw new IllegalStateException("Checkout has not been placed in time", e);
+                }
+            }
+
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw unwrap(e.getCause());
+            }
+        }
+
+        private static RuntimeException unwrap(Throwable cause) {
+            return cause instanceof RuntimeException
+                ? (RuntimeException) cause
+                : new IllegalStateException("Checkout failed", cause);
+        }
+    }
+
+    private enum State {
+        PENDING,
+        DISPATCHED,
+        CANCELLED,
+    }
+}
@@ -0,0 +1,66 @@
+package de.team7.swt.checkout.application;
+
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.CategoryMask;
+import de.team7.swt.domain.catalog.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+/**
+ * Provides the categories a cart must contain products of to be checked out, i.e. all categories of the products
+ * assigned to the unique descriptor. The categories are computed once per {@link Catalog#getVersion() catalog
+ * version} and kept as an immutable {@link CategoryMask}, thus verifying a checkout doesn't read the catalog at all.
+ *
+ * @author Vincent Nadoll
+ */
+@Service
+public class MandatoryCategories {
+
+    static final String REQUESTS = "dyob.checkout.mandatory-categories.requests";
+
+    private final Catalog<Product> catalog;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile Snapshot snapshot;
+
+    MandatoryCategories(Catalog<Product> catalog, MeterRegistry meterRegistry) {
+        this.catalog = catalog;
+        this.hits = meterRegistry.counter(REQUESTS, "result", "hit");
+        this.misses = meterRegistry.counter(REQUESTS, "result", "miss");
+    }
+
+    /**
+     * Returns the mandatory categories, i.e. all categories of the products assigned to the given unique descriptor.
+     *
+     * @param uniqueDescriptor must not be {@literal null} or empty
+     * @return the mandatory categories' mask; never {@literal null}
+     */
+    public CategoryMask get(String uniqueDescriptor) {
+        Assert.hasText(uniqueDescriptor, "Unique descriptor must not be empty");
+
+        long version = catalog.getVersion();
+        Snapshot cached = snapshot;
+        if (null != cached && cached.version == version && cached.uniqueDescriptor.equals(uniqueDescriptor)) {
+            hits.increment();
+            return cached.categories;
+        }
+
+        misses.increment();
+        CategoryMask categories = catalog.findByCategory(uniqueDescriptor).stream()
+            .map(Product::getCategoryMask)
+            .reduce(CategoryMask.EMPTY, CategoryMask::or);
+        snapshot = new Snapshot(version, uniqueDescriptor, categories);
+        return categories;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Snapshot {
+        private final long version;
+        private final String uniqueDescriptor;
+        private final CategoryMask categories;
+    }
+}
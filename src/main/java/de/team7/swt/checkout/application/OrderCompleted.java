@@ -1,19 +1,21 @@
 package de.team7.swt.checkout.application;
 
 import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.shared.DurableEvent;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.util.Assert;
 
 /**
- * {@link ApplicationEvent} being emitted if the given order was completed.
+ * {@link ApplicationEvent} being emitted if the given order was completed. The event is durable, so it's relayed via
+ * the outbox if that is enabled.
  *
  * @author Vincent Nadoll
  */
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class OrderCompleted extends ApplicationEvent {
+public class OrderCompleted extends ApplicationEvent implements DurableEvent {
 
     Order order;
 
@@ -32,4 +34,9 @@ public class OrderCompleted extends ApplicationEvent {
         Assert.notNull(order, "Order must not be null");
         return new OrderCompleted(order);
     }
+
+    @Override
+    public String getAggregateId() {
+        return String.valueOf(order.getId());
+    }
 }
@@ -0,0 +1,179 @@
+package de.team7.swt.checkout.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderCompletionFailure;
+import de.team7.swt.checkout.model.Reservations;
+import de.team7.swt.domain.infrastructure.retry.ConcurrencyRetry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.annotation.PreDestroy;
+
+/**
+ * Completes submitted orders asynchronously. Open orders are put into a bounded queue which is drained by a dedicated
+ * pool of workers. Each worker completes an order within its own transaction, so the {@link OrderCompleted} event is
+ * handled off the request thread. An order which cannot be completed is marked as failed.
+ * <p>
+ * Once the queue is full, further submissions are rejected, so request threads never complete orders themselves.
+ * Callers should check whether the pipeline {@link #isSaturated() is saturated} before saving a new order, so orders
+ * are turned away instead of piling up. Since submitted orders have already been saved, an order rejected nonetheless
+ * is left open and submitted again when the open orders are resumed. Open orders are resumed once the application is
+ * ready and periodically afterwards, which also covers orders left open by a shutdown.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "dyob.checkout.async.enabled", havingValue = "true")
+public class OrderCompletionPipeline {
+
+    private final OrderRepository repository;
+    private final Reservations reservations;
+    private final ConcurrencyRetry retry;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final Set<Order.Id> pending = ConcurrentHashMap.newKeySet();
+    private final Duration resumeInterval;
+    private final int capacity;
+
+    OrderCompletionPipeline(OrderRepository repository, Reservations reservations, ConcurrencyRetry retry,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${dyob.checkout.async.workers:4}") int workers,
+                            @Value("${dyob.checkout.async.queue-capacity:100}") int queueCapacity,
+                            @Value("${dyob.checkout.async.resume-interval:5000}") long resumeInterval) {
+        this.repository = repository;
+        this.reservations = reservations;
+        this.retry = retry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resumeInterval = Duration.ofMillis(resumeInterval);
+        this.capacity = workers + queueCapacity;
+
+        executor.setThreadNamePrefix("order-completion-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    /**
+     * Submits all open orders which aren't pending already, e.g. those left open by a previous shutdown or rejected
+     * because the queue was full. Stops once the queue is full again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${dyob.checkout.async.resume-interval:5000}",
+        fixedDelayString = "${dyob.checkout.async.resume-interval:5000}")
+    void resume() {
+        try {
+            repository.findIdsByStatus(Order.Status.OPEN).forEach(this::submit);
+        } catch (TaskRejectedException e) {
+            log.debug("Queue is full, remaining open orders are resumed within {}", resumeInterval);
+        }
+    }
+
+    /**
+     * Submits the open order of the given ID for completion, unless it is pending already.
+     *
+     * @param orderId must not be {@literal null}
+     * @throws TaskRejectedException in case the queue is full; the order is left open and resumed later
+     */
+    public void submit(Order.Id orderId) {
+        Assert.notNull(orderId, "Order ID must not be null");
+        if (!pending.add(orderId)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> process(orderId));
+        } catch (TaskRejectedException e) {
+            pending.remove(orderId);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns whether as many orders are pending as the workers and the queue can take, thus a new order would most
+     * likely be rejected.
+     *
+     * @return {@literal true} if the pipeline is saturated; {@literal false} otherwise
+     */
+    public boolean isSaturated() {
+        return pending.size() >= capacity;
+    }
+
+    /**
+     * Returns the interval in which open orders are resumed, i.e. after which a rejected order is submitted again.
+     *
+     * @return the resume interval; never {@literal null}
+     */
+    public Duration getResumeInterval() {
+        return resumeInterval;
+    }
+
+    private void process(Order.Id orderId) {
+        try {
+            completeOrFail(orderId);
+        } finally {
+            pending.remove(orderId);
+        }
+    }
+
+    private void completeOrFail(Order.Id orderId) {
+        try {
+            retry.execute("order-completion", () -> transactionTemplate.execute(status -> complete(orderId)));
+        } catch (OrderCompletionFailure e) {
+            log.debug("Order {} could not be completed", orderId);
+            fail(orderId);
+        } catch (RuntimeException e) {
+            log.error("Failed to complete order {}", orderId, e);
+            fail(orderId);
+        }
+    }
+
+    private Order complete(Order.Id orderId) {
+        Order order = repository.findById(orderId)
+            .orElseThrow(() -> new IllegalStateException(String.format("Order %s does not exist", orderId)));
+        if (!order.isOpen()) {
+            return order;
+        }
+
+        order.complete();
+        return repository.save(order);
+    }
+
+    /*
+     * The cart the order has been placed from continues under a new ID once checked out, thus the holds handed over to
+     * the order are released, since they would block the stock until they expire otherwise.
+     */
+    private void fail(Order.Id orderId) {
+        transactionTemplate.executeWithoutResult(status -> repository.findById(orderId)
+            .filter(Order::isOpen)
+            .ifPresent(order -> {
+                order.fail();
+                repository.save(order);
+                order.getCartId().ifPresent(reservations::release);
+            }));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,38 @@
+package de.team7.swt.checkout.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.OrderLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Exports all orders line by line. Lines are read from a database cursor and passed on one at a time, thus the memory
+ * needed doesn't depend on the number of orders.
+ *
+ * @author Vincent Nadoll
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExporter {
+
+    private final OrderRepository repository;
+
+    /**
+     * Passes the lines of all orders to the given consumer, one at a time.
+     *
+     * @param lines must not be {@literal null}
+     */
+    @Transactional(readOnly = true)
+    public void export(Consumer<OrderLine> lines) {
+        Assert.notNull(lines, "Lines must not be null");
+
+        try (Stream<OrderLine> stream = repository.streamLines()) {
+            stream.forEach(lines);
+        }
+    }
+}
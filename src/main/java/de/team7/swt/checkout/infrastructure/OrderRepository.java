@@ -1,12 +1,106 @@
 package de.team7.swt.checkout.infrastructure;
 
 import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderLine;
+import de.team7.swt.checkout.model.OrderedAmount;
+import de.team7.swt.domain.catalog.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.util.Streamable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
 
 /**
  * An JPA-{@link org.springframework.data.repository.Repository} for managing {@link Order} instances.
  *
  * @author Vincent Nadoll
  */
-public interface OrderRepository extends JpaRepository<Order, Order.Id> {
+public interface OrderRepository extends JpaRepository<Order, Order.Id>, OrderSummaries {
+
+    /**
+     * Returns the IDs of all orders of the given status.
+     *
+     * @param status must not be {@literal null}
+     * @return all found order IDs; never {@literal null}
+     * @implNote Query methods must not return orders themselves, because Spring Data unwraps {@link Streamable}s like
+     *     {@link Order} and tries to convert them into line items.
+     */
+    @Query("select o.id from Order o where o.status = :status")
+    Streamable<Order.Id> findIdsByStatus(@Param("status") Order.Status status);
+
+    /**
+     * Streams a line of every line item of all orders, ordered by their creation timestamp. Orders without line items
+     * are streamed as a single line. The lines are fetched from a cursor while the stream is consumed, thus the stream
+     * must be consumed within a transaction and closed afterwards.
+     *
+     * @return a stream of all order lines; never {@literal null}
+     */
+    @QueryHints({@QueryHint(name = FETCH_SIZE, value = "500"), @QueryHint(name = READ_ONLY, value = "true")})
+    @Query("select new de.team7.swt.checkout.model.OrderLine(o.id, o.status, o.createdAt, "
+        + "i.productId, i.productName, i.price, i.quantity.amount, i.quantity.metric) "
+        + "from Order o left join o.lineItems i "
+        + "order by o.createdAt, o.id.id")
+    Stream<OrderLine> streamLines();
+
+    /**
+     * Returns the creation timestamp of the oldest order of the given status.
+     *
+     * @param status must not be {@literal null}
+     * @return the oldest creation timestamp or {@literal Optional.empty()} if there are no such orders
+     */
+    @Query("select min(o.createdAt) from Order o where o.status = :status")
+    Optional<Instant> findOldestCreatedAt(@Param("status") Order.Status status);
+
+    /**
+     * Returns the creation timestamp of the newest order of the given status.
+     *
+     * @param status must not be {@literal null}
+     * @return the newest creation timestamp or {@literal Optional.empty()} if there are no such orders
+     */
+    @Query("select max(o.createdAt) from Order o where o.status = :status")
+    Optional<Instant> findNewestCreatedAt(@Param("status") Order.Status status);
+
+    /**
+     * Sums up the positive amounts of all line items per product of the orders of the given status created within the
+     * given range. The line items are summed up by the database, thus they are never loaded.
+     *
+     * @param status must not be {@literal null}
+     * @param from   the inclusive lower bound of the order's creation timestamp, must not be {@literal null}
+     * @param to     the exclusive upper bound of the order's creation timestamp, must not be {@literal null}
+     * @return the summed up amount of each ordered product; never {@literal null}
+     */
+    @Query("select new de.team7.swt.checkout.model.OrderedAmount(i.productId, sum(i.quantity.amount)) "
+        + "from Order o join o.lineItems i "
+        + "where o.status = :status and o.createdAt >= :from and o.createdAt < :to and i.quantity.amount > 0 "
+        + "group by i.productId")
+    List<OrderedAmount> sumAmountsByProduct(@Param("status") Order.Status status, @Param("from") Instant from,
+                                            @Param("to") Instant to);
+
+    /**
+     * Sums up the positive amounts of the line items referring to any of the given {@link Product.Id}s per product of
+     * the orders of the given status created before the given instant using a single query.
+     *
+     * @param status     must not be {@literal null}
+     * @param productIds must not be {@literal null} or empty
+     * @param before     the exclusive upper bound of the order's creation timestamp, must not be {@literal null}
+     * @return the summed up amount of each ordered product; never {@literal null}
+     */
+    @Query("select new de.team7.swt.checkout.model.OrderedAmount(i.productId, sum(i.quantity.amount)) "
+        + "from Order o join o.lineItems i "
+        + "where o.status = :status and i.productId in :productIds and o.createdAt < :before "
+        + "and i.quantity.amount > 0 "
+        + "group by i.productId")
+    List<OrderedAmount> sumAmountsByProductIdIn(@Param("status") Order.Status status,
+                                                @Param("productIds") Collection<Product.Id> productIds,
+                                                @Param("before") Instant before);
 }
@@ -0,0 +1,36 @@
+package de.team7.swt.checkout.infrastructure;
+
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderSummary;
+import de.team7.swt.domain.catalog.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository fragment of the {@link OrderRepository} querying {@link OrderSummary}s by a variable set of filters.
+ *
+ * @author Vincent Nadoll
+ */
+public interface OrderSummaries {
+
+    /**
+     * Returns summaries of the newest orders matching the given filters, optionally continuing after the given key. The
+     * summaries are ordered by their creation timestamp and ID descending, which is the key to continue after. Thus,
+     * following pages are found using the index instead of skipping all previous rows.
+     *
+     * @param productId      the product ID one of the order's line items must refer to, can be {@literal null}
+     * @param from           the inclusive lower bound of the order's creation timestamp, can be {@literal null}
+     * @param to             the exclusive upper bound of the order's creation timestamp, can be {@literal null}
+     * @param afterCreatedAt the creation timestamp of the last order of the previous page, can be {@literal null}
+     * @param afterId        the ID of the last order of the previous page, must not be {@literal null} if
+     *                       {@code afterCreatedAt} is given
+     * @param pageable       must not be {@literal null}
+     * @return all found summaries; never {@literal null}
+     */
+    List<OrderSummary> findSummaries(@Nullable Product.Id productId, @Nullable Instant from, @Nullable Instant to,
+                                     @Nullable Instant afterCreatedAt, @Nullable Order.Id afterId,
+                                     Pageable pageable);
+}
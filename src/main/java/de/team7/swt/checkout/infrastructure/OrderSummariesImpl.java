@@ -0,0 +1,79 @@
+package de.team7.swt.checkout.infrastructure;
+
+import de.team7.swt.checkout.model.LineItem;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderSummary;
+import de.team7.swt.domain.catalog.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+/**
+ * {@link OrderSummaries} implementation building its query from the given filters only, so the database never has to
+ * evaluate predicates of absent filters. The key to continue after is compared as a row value. Since Hibernate's H2
+ * dialect doesn't support row value syntax, the comparison is expanded, but led by a bound on the creation timestamp
+ * alone, thus the {@literal (createdAt, id)} index is scanned from the key onwards.
+ *
+ * @author Vincent Nadoll
+ */
+@RequiredArgsConstructor
+class OrderSummariesImpl implements OrderSummaries {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<OrderSummary> findSummaries(@Nullable Product.Id productId, @Nullable Instant from,
+                                            @Nullable Instant to, @Nullable Instant afterCreatedAt,
+                                            @Nullable Order.Id afterId, Pageable pageable) {
+        Assert.isTrue(null == afterCreatedAt || null != afterId, "ID to continue after must not be null");
+        Assert.notNull(pageable, "Pageable must not be null");
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummary> query = builder.createQuery(OrderSummary.class);
+        Root<Order> order = query.from(Order.class);
+        Path<Instant> createdAt = order.get("createdAt");
+        Path<Order.Id> id = order.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (null != from) {
+            predicates.add(builder.greaterThanOrEqualTo(createdAt, from));
+        }
+        if (null != to) {
+            predicates.add(builder.lessThan(createdAt, to));
+        }
+        if (null != productId) {
+            Subquery<LineItem> lineItems = query.subquery(LineItem.class);
+            Join<Order, LineItem> lineItem = lineItems.correlate(order).join("lineItems");
+            lineItems.select(lineItem).where(builder.equal(lineItem.get("productId"), productId));
+            predicates.add(builder.exists(lineItems));
+        }
+        if (null != afterCreatedAt) {
+            predicates.add(builder.lessThanOrEqualTo(createdAt, afterCreatedAt));
+            predicates.add(builder.or(
+                builder.lessThan(createdAt, afterCreatedAt),
+                builder.lessThan(id, afterId)));
+        }
+
+        query.select(builder.construct(OrderSummary.class, order.get("id"), order.get("status"), createdAt,
+                builder.size(order.<List<LineItem>>get("lineItems"))))
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(builder.desc(createdAt), builder.desc(id));
+        return entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+    }
+}
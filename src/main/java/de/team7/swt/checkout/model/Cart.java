@@ -1,36 +1,62 @@
 package de.team7.swt.checkout.model;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.team7.swt.domain.catalog.CategoryMask;
 import de.team7.swt.domain.catalog.Product;
 import de.team7.swt.domain.quantity.Quantity;
-import org.springframework.data.util.Streamable;
+import de.team7.swt.domain.shared.Identifier;
+import lombok.Getter;
 import org.springframework.util.Assert;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.BiConsumer;
+import java.util.UUID;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
+import javax.persistence.Embeddable;
 
 /**
- * Abstraction of a shopping cart.
+ * Abstraction of a shopping cart. Each product put into the cart is reserved using the cart's {@link Reservations},
+ * so a shortage is detected as soon as the product is added instead of at checkout. Once checked out, the reservations
+ * are handed over to the order placed from the cart, which consumes them.
  *
  * @author Julian Albrecht
  * @author Vincent Nadoll
  */
 public class Cart implements Totalable<CartItem> {
 
+    @Getter
+    @JsonIgnore
+    private Cart.Id id = new Cart.Id();
+
     private final Map<Product, CartItem> items = new LinkedHashMap<>();
+    private final transient Reservations reservations;
+
+    private CategoryMask categories = CategoryMask.EMPTY;
+
+    /**
+     * Creates a new cart which doesn't reserve any products.
+     */
+    public Cart() {
+        this(Reservations.NONE);
+    }
+
+    /**
+     * Creates a new cart which reserves its products using the given {@link Reservations}.
+     *
+     * @param reservations must not be {@literal null}
+     */
+    public Cart(Reservations reservations) {
+        Assert.notNull(reservations, "Reservations must not be null");
+        this.reservations = reservations;
+    }
 
     @JsonGetter
     private Collection<CartItem> getItems() {
@@ -43,11 +69,18 @@ public class Cart implements Totalable<CartItem> {
      * @param product  must not be {@literal null}
      * @param quantity must not be {@literal null}
      * @return saved {@link CartItem}
+     * @throws ReservationFailure in case the resulting quantity is not available
      */
     public CartItem add(Product product, Quantity quantity) {
         Assert.notNull(product, "Product must not be null");
         Assert.notNull(quantity, "Quantity must not be null");
 
+        Quantity reserved = Optional.ofNullable(items.get(product))
+            .map(CartItem::getQuantity)
+            .map(quantity::add)
+            .orElse(quantity);
+        reserve(product, reserved);
+        include(product);
         return items.compute(product, saveWith(quantity, add(quantity)));
     }
 
@@ -61,16 +94,29 @@ public class Cart implements Totalable<CartItem> {
      * @param product  must not be {@literal null}
      * @param quantity must not be {@literal null}
      * @return overridden {@link CartItem}
+     * @throws ReservationFailure in case the quantity is not available
      */
     public CartItem set(Product product, Quantity quantity) {
         Assert.notNull(product, "Product must not be null");
         Assert.notNull(quantity, "Quantity must not be null");
 
+        reserve(product, quantity);
+        include(product);
         return items.compute(product, saveWith(quantity, override(quantity)));
     }
 
-    private BiConsumer<Product, CartItem> set(int amount) {
-        return (product, cartItem) -> set(product, product.from(amount));
+    private void include(Product product) {
+        CategoryMask mask = product.getCategoryMask();
+        if (!categories.containsAll(mask)) {
+            categories = categories.or(mask);
+        }
+    }
+
+    private void reserve(Product product, Quantity quantity) {
+        product.verify(quantity);
+        if (!reservations.reserve(id, product.getId(), quantity)) {
+            throw new ReservationFailure(product);
+        }
     }
 
     private static BiFunction<Product, CartItem, CartItem> saveWith(Quantity quantity,
@@ -110,11 +156,20 @@ public class Cart implements Totalable<CartItem> {
         Assert.notNull(id, "Cart item ID must not be null");
         retrieve(id)
             .map(CartItem::getProduct)
-            .ifPresent(items::remove);
+            .ifPresent(this::remove);
+    }
+
+    private void remove(Product product) {
+        items.remove(product);
+        categories = items.keySet().stream()
+            .map(Product::getCategoryMask)
+            .reduce(CategoryMask.EMPTY, CategoryMask::or);
+        reservations.release(this.id, product.getId());
     }
 
     /**
-     * Places all {@link CartItem}s with given amount into the given {@link Order}.
+     * Places all {@link CartItem}s with given amount into the given {@link Order}. The items' reservations are left
+     * as they are, since the order's stock is verified once it is completed anyway.
      *
      * @param order  must not be {@literal null}
      * @param amount must not be zero or negative
@@ -122,18 +177,19 @@ public class Cart implements Totalable<CartItem> {
     public void addItemsTo(Order order, int amount) {
         Assert.isTrue(amount > 0, "Amount must not be zero or negative");
 
-        items.forEach(set(amount));
+        items.replaceAll((product, cartItem) -> cartItem.create(product.from(amount)));
         addItemsTo(order);
     }
 
     /**
-     * Places all {@link CartItem}s into the given {@link Order}.
+     * Places all {@link CartItem}s into the given {@link Order}, which consumes this cart's reservations.
      *
      * @param order must not be {@literal null}
      */
     public void addItemsTo(Order order) {
         Assert.notNull(order, "Order must not be null");
 
+        order.placedFrom(id);
         forEach(addTo(order));
     }
 
@@ -160,12 +216,19 @@ public class Cart implements Totalable<CartItem> {
      *     otherwise
      */
     public boolean containsAny(String... categories) {
-        return items.keySet().stream()
-            .anyMatch(subsetOf(categories));
+        return containsAny(CategoryMask.of(categories));
     }
 
-    private Predicate<Product> subsetOf(String[] categories) {
-        return product -> !Collections.disjoint(product.getCategories().toSet(), Arrays.asList(categories));
+    /**
+     * Indicates whether this cart's products are assigned to any of the given categories. The categories of all
+     * products are kept as a single mask, thus checking doesn't depend on the number of products.
+     *
+     * @param categories must not be {@literal null}
+     * @return {@literal true} if this cart contains products assigned to any given categories; {@literal false}
+     *     otherwise
+     */
+    public boolean containsAny(CategoryMask categories) {
+        return this.categories.intersects(categories);
     }
 
     /**
@@ -175,24 +238,60 @@ public class Cart implements Totalable<CartItem> {
      * @return {@literal true} if this cart all products assigned to all given categories; {@literal false} otherwise
      */
     public boolean containsAll(String... categories) {
-        List<String> categoryList = Arrays.asList(categories);
-        return items.keySet()
-            .stream()
-            .map(Product::getCategories)
-            .flatMap(Streamable::stream)
-            .collect(Collectors.toSet())
-            .containsAll(categoryList);
+        return containsAll(CategoryMask.of(categories));
     }
 
     /**
-     * Clears this cart.
+     * Indicates whether this cart's products are assigned to all of the given categories. The categories of all
+     * products are kept as a single mask, thus checking doesn't depend on the number of products.
+     *
+     * @param categories must not be {@literal null};
+     * @return {@literal true} if this cart all products assigned to all given categories; {@literal false} otherwise
+     */
+    public boolean containsAll(CategoryMask categories) {
+        return this.categories.containsAll(categories);
+    }
+
+    /**
+     * Clears this cart and releases all its reservations.
      */
     public void clear() {
         items.clear();
+        categories = CategoryMask.EMPTY;
+        reservations.release(id);
+    }
+
+    /**
+     * Clears this cart once its items have been ordered. Its reservations are kept for the order, which consumes them
+     * once its stock has been verified, thus the cart continues under a new ID.
+     */
+    public void checkOut() {
+        items.clear();
+        categories = CategoryMask.EMPTY;
+        id = new Cart.Id();
+    }
+
+    /**
+     * Extends all reservations of this cart, e.g. because its session is still in use.
+     */
+    public void renew() {
+        reservations.renew(id);
     }
 
     @Override
     public Iterator<CartItem> iterator() {
         return items.values().iterator();
     }
+
+    /**
+     * Value object representing a cart's identifier.
+     *
+     * @author Vincent Nadoll
+     */
+    @Embeddable
+    public static final class Id extends Identifier {
+        public Id() {
+            super(UUID.randomUUID());
+        }
+    }
 }
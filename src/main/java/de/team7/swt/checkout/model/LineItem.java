@@ -10,7 +10,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.hibernate.annotations.GenericGenerator;
 import org.springframework.format.annotation.NumberFormat;
 import org.springframework.util.Assert;
 
@@ -23,7 +22,6 @@ import javax.persistence.Embeddable;
 import javax.persistence.Embedded;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
 
 /**
  * An {@link de.team7.swt.domain.shared.Entity} representing {@link Product} and {@link Quantity} that is intended to be
@@ -37,8 +35,6 @@ import javax.persistence.GeneratedValue;
 public class LineItem extends de.team7.swt.domain.shared.Entity<LineItem.Id> implements Priced {
 
     @EmbeddedId
-    @GeneratedValue(generator = "lineItem-id")
-    @GenericGenerator(name = "lineItem-id", strategy = "dyob-id")
     @JsonUnwrapped
     private final LineItem.Id id;
 
@@ -69,7 +65,7 @@ public class LineItem extends de.team7.swt.domain.shared.Entity<LineItem.Id> imp
     /**
      * Creates a new {@link LineItem} with given ID, product and quantity.
      *
-     * @param id       can be {@literal null}
+     * @param id       can be {@literal null}, a new ID is assigned then
      * @param product  must not be {@literal null}
      * @param quantity must not be {@literal null}
      */
@@ -78,7 +74,7 @@ public class LineItem extends de.team7.swt.domain.shared.Entity<LineItem.Id> imp
         Assert.notNull(quantity, "Quantity must not be null");
         product.verify(quantity);
 
-        this.id = id;
+        this.id = null != id ? id : new LineItem.Id(UUID.randomUUID());
         this.productId = product.getId();
         this.productName = product.getName();
         this.price = product.getPrice().multiply(quantity.getAmount());
@@ -1,5 +1,7 @@
 package de.team7.swt.checkout.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import de.team7.swt.checkout.application.OrderCompleted;
 import de.team7.swt.domain.catalog.Product;
@@ -11,41 +13,71 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.util.Assert;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import javax.persistence.AttributeOverride;
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
 /**
- * An {@link AggregateRoot} representing an identifiable collection of items.
+ * An {@link AggregateRoot} representing an identifiable collection of items. Its ID is assigned on creation and its
+ * line items reference it by a foreign key column, so saving an order is a single insert for the order and one batch
+ * of inserts for its line items.
  *
  * @author Vincent Nadoll
  */
 @Entity
-@Table(name = "_order") // 'order' is reserved keyword in SQL
+@Table(name = "_order", // 'order' is reserved keyword in SQL
+    indexes = @Index(columnList = "createdAt, id"))
 @NoArgsConstructor(access = AccessLevel.PUBLIC, force = true)
 public class Order extends AggregateRoot<Order.Id> implements Totalable<LineItem> {
 
     @Getter
     @EmbeddedId
-    @GeneratedValue(generator = "order-id")
-    @GenericGenerator(name = "order-id", strategy = "dyob-id")
     @JsonUnwrapped
-    private final Order.Id id;
+    private final Order.Id id = new Order.Id(UUID.randomUUID());
 
     @OneToMany(cascade = CascadeType.ALL)
+    @BatchSize(size = 100) // initializes the line items of many orders at once
+    @JoinColumn(name = "order_id", nullable = false, updatable = false)
     private final List<LineItem> lineItems = new ArrayList<>();
 
+    @Getter
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.OPEN;
+
+    @Getter
+    @JsonProperty("created_at")
+    private final Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS); // the database's precision
+
+    @Embedded
+    @AttributeOverride(name = "id", column = @Column(name = "cart_id"))
+    private Cart.Id cartId;
+
+    @Transient
+    private transient boolean persisted;
+
     /**
      * Adds a new item from given {@link Product} and {@link Quantity} to this order.
      *
@@ -59,6 +91,20 @@ public class Order extends AggregateRoot<Order.Id> implements Totalable<LineItem
         return item;
     }
 
+    /**
+     * Returns the ID of the cart this order has been placed from, whose reservations are consumed by this order.
+     *
+     * @return the cart's ID or {@literal Optional.empty()} if this order hasn't been placed from a cart
+     */
+    @JsonIgnore
+    public Optional<Cart.Id> getCartId() {
+        return Optional.ofNullable(cartId);
+    }
+
+    void placedFrom(Cart.Id cartId) {
+        this.cartId = cartId;
+    }
+
     /**
      * Removes the given item from this order.
      *
@@ -72,12 +118,50 @@ public class Order extends AggregateRoot<Order.Id> implements Totalable<LineItem
     /**
      * Completes this order.
      *
+     * @throws IllegalStateException in case this order is not open
      * @see OrderCompleted
      */
     public void complete() {
+        Assert.state(isOpen(), "Order must be open");
+        this.status = Status.COMPLETED;
         register(OrderCompleted.of(this));
     }
 
+    /**
+     * Marks this order as failed, e.g. because it could not be completed or its completion couldn't be processed.
+     *
+     * @throws IllegalStateException in case this order has already failed
+     */
+    public void fail() {
+        Assert.state(Status.FAILED != status, "Order must not have failed already");
+        this.status = Status.FAILED;
+    }
+
+    /**
+     * Indicates whether this order has neither been completed nor failed yet.
+     *
+     * @return {@literal true} if this order is open; {@literal false} otherwise
+     */
+    @JsonIgnore
+    public boolean isOpen() {
+        return Status.OPEN == status;
+    }
+
+    /**
+     * {@inheritDoc} As its ID is assigned on creation, an order is new until it has been persisted or loaded.
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    @SuppressWarnings("unused")
+    void markPersisted() {
+        this.persisted = true;
+    }
+
     @Override
     public Iterator<LineItem> iterator() {
         return lineItems.iterator();
@@ -88,9 +172,23 @@ public class Order extends AggregateRoot<Order.Id> implements Totalable<LineItem
         return new ToStringBuilder(this)
             .append("id", id)
             .append("orderLine", lineItems)
+            .append("status", status)
+            .append("createdAt", createdAt)
             .toString();
     }
 
+    /**
+     * Enumeration of an order's processing states.
+     *
+     * @author Vincent Nadoll
+     */
+    public enum Status {
+        OPEN,
+        COMPLETED,
+        FAILED,
+        ;
+    }
+
     /**
      * Value object representing a order's primary identifier.
      *
@@ -0,0 +1,49 @@
+package de.team7.swt.checkout.model;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Metric;
+import de.team7.swt.domain.quantity.Quantity;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import javax.money.MonetaryAmount;
+
+/**
+ * Flat projection of an {@link Order} and one of its {@link LineItem}s, as exported for reconciliation. The line item's
+ * attributes are {@literal null} if the order doesn't have any line items.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+public class OrderLine {
+
+    Order.Id orderId;
+    Order.Status status;
+    Instant createdAt;
+
+    @Nullable
+    Product.Id productId;
+
+    @Nullable
+    String productName;
+
+    @Nullable
+    MonetaryAmount price;
+
+    @Nullable
+    Quantity quantity;
+
+    public OrderLine(Order.Id orderId, Order.Status status, Instant createdAt, @Nullable Product.Id productId,
+                     @Nullable String productName, @Nullable MonetaryAmount price, @Nullable BigDecimal amount,
+                     @Nullable Metric metric) {
+        this.orderId = orderId;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.productId = productId;
+        this.productName = productName;
+        this.price = price;
+        this.quantity = null == amount ? null : Quantity.of(amount, metric);
+    }
+}
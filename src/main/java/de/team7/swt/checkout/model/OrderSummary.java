@@ -0,0 +1,55 @@
+package de.team7.swt.checkout.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Lightweight projection of an {@link Order} which is read without hydrating its {@link LineItem}s, unless they are
+ * added explicitly.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class OrderSummary {
+
+    @JsonUnwrapped
+    Order.Id id;
+
+    Order.Status status;
+
+    @JsonProperty("created_at")
+    Instant createdAt;
+
+    @JsonProperty("line_item_count")
+    int lineItemCount;
+
+    @Nullable
+    @JsonProperty("line_items")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    List<LineItem> lineItems;
+
+    public OrderSummary(Order.Id id, Order.Status status, Instant createdAt, int lineItemCount) {
+        this(id, status, createdAt, lineItemCount, null);
+    }
+
+    /**
+     * Creates a copy of this summary including the given line items.
+     *
+     * @param lineItems must not be {@literal null}
+     * @return a new summary instance
+     */
+    public OrderSummary withLineItems(List<LineItem> lineItems) {
+        Assert.notNull(lineItems, "Line items must not be null");
+        return new OrderSummary(id, status, createdAt, lineItemCount, List.copyOf(lineItems));
+    }
+}
@@ -0,0 +1,18 @@
+package de.team7.swt.checkout.model;
+
+import de.team7.swt.domain.catalog.Product;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the amount of a {@link Product} summed up over the {@link LineItem}s of many orders.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+public class OrderedAmount {
+
+    Product.Id productId;
+    BigDecimal amount;
+}
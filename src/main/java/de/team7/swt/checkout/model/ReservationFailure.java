@@ -0,0 +1,34 @@
+package de.team7.swt.checkout.model;
+
+import de.team7.swt.domain.catalog.Product;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.Assert;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * This unchecked {@link RuntimeException} is thrown in case a {@link Cart} could not reserve a product because the
+ * requested quantity is not available to promise.
+ *
+ * @author Vincent Nadoll
+ * @see Reservations
+ */
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ReservationFailure extends RuntimeException {
+
+    private final transient Product product;
+
+    /**
+     * Creates a new instance with given product.
+     *
+     * @param product must not be {@literal null}
+     */
+    public ReservationFailure(Product product) {
+        super("Requested quantity of the product is not available");
+
+        Assert.notNull(product, "Product must not be null");
+
+        this.product = product;
+    }
+}
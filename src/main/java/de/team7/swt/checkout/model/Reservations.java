@@ -0,0 +1,84 @@
+package de.team7.swt.checkout.model;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+
+import java.util.Optional;
+
+/**
+ * Soft reservations of products in stock placed by a {@link Cart}. A reservation holds the reserved quantity back from
+ * other carts until it is released, consumed by a checkout or expires.
+ *
+ * @author Vincent Nadoll
+ */
+public interface Reservations {
+
+    /**
+     * {@link Reservations} implementation which accepts every reservation without holding anything back.
+     */
+    Reservations NONE = new Reservations() {
+        @Override
+        public boolean reserve(Cart.Id cartId, Product.Id productId, Quantity quantity) {
+            return true;
+        }
+
+        @Override
+        public void release(Cart.Id cartId, Product.Id productId) {
+        }
+
+        @Override
+        public void release(Cart.Id cartId) {
+        }
+
+        @Override
+        public void renew(Cart.Id cartId) {
+        }
+
+        @Override
+        public Optional<Quantity> getAvailableToPromise(Product.Id productId) {
+            return Optional.empty();
+        }
+    };
+
+    /**
+     * Places or replaces the given cart's reservation of the given product, but only if the quantity is available to
+     * promise, i.e. in stock and not reserved by any other cart.
+     *
+     * @param cartId    must not be {@literal null}
+     * @param productId must not be {@literal null}
+     * @param quantity  must not be {@literal null}
+     * @return {@literal true} if the quantity has been reserved; {@literal false} otherwise
+     */
+    boolean reserve(Cart.Id cartId, Product.Id productId, Quantity quantity);
+
+    /**
+     * Releases the given cart's reservation of the given product, if any.
+     *
+     * @param cartId    must not be {@literal null}
+     * @param productId must not be {@literal null}
+     */
+    void release(Cart.Id cartId, Product.Id productId);
+
+    /**
+     * Releases all reservations of the given cart.
+     *
+     * @param cartId must not be {@literal null}
+     */
+    void release(Cart.Id cartId);
+
+    /**
+     * Extends all reservations of the given cart by their time to live, e.g. because the cart's session is still in
+     * use.
+     *
+     * @param cartId must not be {@literal null}
+     */
+    void renew(Cart.Id cartId);
+
+    /**
+     * Returns the quantity of the given product which is in stock and not reserved by any cart.
+     *
+     * @param productId must not be {@literal null}
+     * @return the available-to-promise quantity or {@literal Optional.empty()} if the product is not in stock
+     */
+    Optional<Quantity> getAvailableToPromise(Product.Id productId);
+}
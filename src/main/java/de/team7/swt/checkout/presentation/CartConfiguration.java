@@ -1,24 +1,51 @@
 package de.team7.swt.checkout.presentation;
 
 import de.team7.swt.checkout.model.Cart;
+import de.team7.swt.checkout.model.Reservations;
+import org.springframework.aop.scope.ScopedProxyUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 
 /**
  * Configure {@link Cart} to be controlled by the IoC container. Once the servlet container creates a new session a new
- * cart instance is created and bound.
+ * cart instance is created and bound. The cart's reservations are renewed on each request of its session and released
+ * once the session is destroyed. Requests of sessions which haven't used their cart yet don't create one.
  *
  * @author Vincent Nadoll
  */
 @Configuration
-class CartConfiguration {
+class CartConfiguration implements WebMvcConfigurer {
+
+    private static final String CART_ATTRIBUTE = ScopedProxyUtils.getTargetBeanName("cart");
 
-    @Bean
+    @Bean(destroyMethod = "clear")
     @Scope(value = WebApplicationContext.SCOPE_SESSION, proxyMode = ScopedProxyMode.TARGET_CLASS)
-    public Cart cart() {
-        return new Cart();
+    public Cart cart(Reservations reservations) {
+        return new Cart(reservations);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                HttpSession session = request.getSession(false);
+                Object cart = null == session ? null : session.getAttribute(CART_ATTRIBUTE);
+                if (cart instanceof Cart) {
+                    ((Cart) cart).renew();
+                }
+                return true;
+            }
+        });
     }
 }
@@ -1,17 +1,24 @@
 package de.team7.swt.checkout.presentation;
 
+import de.team7.swt.checkout.application.CheckoutCoordinator;
+import de.team7.swt.checkout.application.MandatoryCategories;
+import de.team7.swt.checkout.application.OrderCompletionPipeline;
 import de.team7.swt.checkout.application.OrderCompletionReport;
 import de.team7.swt.checkout.infrastructure.OrderRepository;
 import de.team7.swt.checkout.model.Cart;
 import de.team7.swt.checkout.model.Order;
-import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.CategoryMask;
 import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.infrastructure.retry.ConcurrencyRetry;
 import de.team7.swt.domain.web.ValidationException;
-import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.framework.Advised;
 import org.springframework.aop.support.AopUtils;
-import org.springframework.data.util.Streamable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,15 +26,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.Objects;
-import java.util.Set;
-import java.util.function.Predicate;
+import java.net.URI;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.function.Predicate.not;
-
 /**
  * Stateful controller which handles requests and responses regarding checkout. Each new HTTP session gets its own
  * {@link Cart} instance which times out after 30 minutes (by default).
@@ -35,16 +40,34 @@ import static java.util.function.Predicate.not;
  * @author Vincent Nadoll
  * @see org.springframework.boot.web.servlet.server.Session
  */
+@Slf4j
 @Controller
 @RequestMapping("/api/v1/cart")
-@RequiredArgsConstructor
 class CartController {
 
     public static final String UNIQUE_DESCRIPTOR = "Komponente";
 
+    private static final CategoryMask UNIQUE_DESCRIPTOR_MASK = CategoryMask.of(UNIQUE_DESCRIPTOR);
+
     private final Cart cart;
     private final OrderRepository repository;
-    private final Catalog<Product> productCatalog;
+    private final MandatoryCategories mandatoryCategories;
+    private final ConcurrencyRetry retry;
+    private final Optional<OrderCompletionPipeline> pipeline;
+    private final Optional<CheckoutCoordinator> coordinator;
+    private final boolean outbox;
+
+    CartController(Cart cart, OrderRepository repository, MandatoryCategories mandatoryCategories,
+                   ConcurrencyRetry retry, Optional<OrderCompletionPipeline> pipeline,
+                   Optional<CheckoutCoordinator> coordinator, @Value("${dyob.outbox.enabled:false}") boolean outbox) {
+        this.cart = cart;
+        this.repository = repository;
+        this.mandatoryCategories = mandatoryCategories;
+        this.retry = retry;
+        this.pipeline = pipeline;
+        this.coordinator = coordinator;
+        this.outbox = outbox;
+    }
 
     /**
      * Retrieves the session bound cart instance.
@@ -81,20 +104,14 @@ class CartController {
     }
 
     private boolean cartContainsCategoriesFrom(Product product) {
-        String[] categories = streamCategories(product)
-            .filter(not(categoryEquals(UNIQUE_DESCRIPTOR)))
-            .toArray(String[]::new);
-        return product.contains(UNIQUE_DESCRIPTOR) && cart.containsAny(categories);
+        return product.contains(UNIQUE_DESCRIPTOR)
+            && cart.containsAny(product.getCategoryMask().andNot(UNIQUE_DESCRIPTOR_MASK));
     }
 
     private Stream<String> streamCategories(Product product) {
         return product.getCategories().stream();
     }
 
-    private Predicate<String> categoryEquals(String other) {
-        return category -> Objects.equals(category, other);
-    }
-
     /*
      * Cart is managed by the IoC-Container. Thus, the cart instance is actually a proxy reflection containing some ugly
      * properties that are not desirable in a JSON document.
@@ -111,44 +128,94 @@ class CartController {
     }
 
     /**
-     * Creates and completes a new Order and generates a completion report afterwards.
+     * Creates and completes a new Order and generates a completion report afterwards. The order is placed again in
+     * case a concurrent checkout conflicted with its stock verification.
+     * <p>
+     * If asynchronous checkout is enabled, the order is only submitted to the {@link OrderCompletionPipeline} instead.
+     * Its status can be polled from the returned location. If group commits are enabled, the order is placed together
+     * with concurrent checkouts by the {@link CheckoutCoordinator}. If the outbox is enabled, the order's stock is
+     * verified once its event has been relayed, thus the order may still fail and its status has to be polled as well.
      *
      * @param amount multiplier for each item in the cart
-     * @return 200 - order completion report
+     * @return 200 - order completion report; 202 - submitted or not yet verified order; 503 - the completion queue is
+     *     full, no order has been placed and the cart is kept, thus the checkout may be retried after the given delay
      */
     @PostMapping("/checkout")
-    ResponseEntity<OrderCompletionReport> checkout(@RequestParam int amount,
-                                                   @RequestParam("crate_size") CrateSize crateSize) {
+    ResponseEntity<?> checkout(@RequestParam int amount, @RequestParam("crate_size") CrateSize crateSize) {
         verify(cart);
 
-        Order order = new Order();
-        transferItems(cart, order, Long.valueOf(crateSize.times(amount)).intValue());
-        order.complete();
-        repository.save(order);
-        cart.clear();
+        int multiplier = Long.valueOf(crateSize.times(amount)).intValue();
+        if (multiplier <= 0) {
+            throw new ValidationException("Parameter \"amount\" must not be negative or zero");
+        }
+        if (pipeline.isPresent()) {
+            return submitOrder(pipeline.get(), multiplier);
+        }
 
+        Order order = coordinator
+            .map(checkoutCoordinator -> placeOrder(checkoutCoordinator, multiplier))
+            .orElseGet(() -> retry.execute("checkout", () -> placeOrder(cart, multiplier)));
+        cart.checkOut();
+
+        if (outbox) {
+            return ResponseEntity.accepted().location(locate(order)).body(order);
+        }
         return ResponseEntity.ok(OrderCompletionReport.success(order));
     }
 
-    private void verify(Cart cart) {
-        Set<String> categories = getMandatoryCategories();
-        if (!cart.containsAll(categories.toArray(String[]::new))) {
-            throw new ValidationException(String.format("Cart must contain products of all categories %s", categories));
+    /*
+     * A saturated pipeline turns the checkout away before an order is saved. If the queue fills up concurrently, the
+     * saved order is left open and completed once the open orders are resumed, thus it's accepted as well.
+     */
+    private ResponseEntity<Order> submitOrder(OrderCompletionPipeline pipeline, int amount) {
+        if (pipeline.isSaturated()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, pipeline.getResumeInterval().toSeconds())))
+                .build();
         }
+
+        Order order = new Order();
+        cart.addItemsTo(order, amount);
+        order = repository.save(order);
+        cart.checkOut();
+
+        try {
+            pipeline.submit(order.getId());
+        } catch (TaskRejectedException e) {
+            log.debug("Completion queue is full, order {} is resumed within {}", order.getId(),
+                pipeline.getResumeInterval());
+        }
+        return ResponseEntity.accepted().location(locate(order)).body(order);
     }
 
-    private Set<String> getMandatoryCategories() {
-        return productCatalog.findByCategory(UNIQUE_DESCRIPTOR)
-            .map(Product::getCategories)
-            .flatMap(Streamable::stream)
-            .toSet();
+    private static URI locate(Order order) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/api/v1/orders/{id}")
+            .buildAndExpand(order.getId())
+            .toUri();
     }
 
-    private void transferItems(Cart cart, Order order, int amount) {
-        try {
-            cart.addItemsTo(order, amount);
-        } catch (IllegalArgumentException e) {
-            throw new ValidationException("Parameter \"amount\" must not be negative or zero");
+    private void verify(Cart cart) {
+        CategoryMask categories = mandatoryCategories.get(UNIQUE_DESCRIPTOR);
+        if (!cart.containsAll(categories)) {
+            throw new ValidationException(String.format("Cart must contain products of all categories %s",
+                categories.getCategories()));
         }
     }
+
+    private Order placeOrder(Cart cart, int amount) {
+        Order order = new Order();
+        cart.addItemsTo(order, amount);
+        order.complete();
+        return repository.save(order);
+    }
+
+    /*
+     * The coordinator fills the order on its own thread, which isn't bound to the session, thus the cart's target is
+     * passed instead of its proxy.
+     */
+    private Order placeOrder(CheckoutCoordinator coordinator, int amount) {
+        Cart target = unwrapProxy(cart);
+        return coordinator.place(order -> target.addItemsTo(order, amount));
+    }
 }
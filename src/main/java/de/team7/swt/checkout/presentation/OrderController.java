@@ -0,0 +1,185 @@
+package de.team7.swt.checkout.presentation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.team7.swt.checkout.application.OrderExporter;
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderLine;
+import de.team7.swt.checkout.model.OrderSummary;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.domain.web.RowWriter;
+import de.team7.swt.domain.web.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpHeaders.ACCEPT;
+
+/**
+ * REST request handler for answering requests related to placed orders.
+ *
+ * @author Vincent Nadoll
+ */
+@RestController
+@RequestMapping("/api/v1/orders")
+@RequiredArgsConstructor
+class OrderController {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    static final List<RowWriter.Column<OrderLine>> EXPORT_COLUMNS = List.of(
+        RowWriter.Column.of("order_id", line -> line.getOrderId().toString()),
+        RowWriter.Column.of("status", OrderLine::getStatus),
+        RowWriter.Column.of("created_at", OrderLine::getCreatedAt),
+        RowWriter.Column.of("product_id", line -> Objects.toString(line.getProductId(), null)),
+        RowWriter.Column.of("product_name", OrderLine::getProductName),
+        RowWriter.Column.of("price", line -> Optional.ofNullable(line.getPrice())
+            .map(price -> price.getNumber().numberValue(BigDecimal.class))
+            .orElse(null)),
+        RowWriter.Column.of("currency", line -> Optional.ofNullable(line.getPrice())
+            .map(price -> price.getCurrency().getCurrencyCode())
+            .orElse(null)),
+        RowWriter.Column.of("quantity", line -> Optional.ofNullable(line.getQuantity())
+            .map(Quantity::getAmount)
+            .orElse(null)),
+        RowWriter.Column.of("metric", line -> Optional.ofNullable(line.getQuantity())
+            .map(Quantity::getMetric)
+            .orElse(null)));
+
+    private final OrderRepository repository;
+    private final OrderExporter exporter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Retrieves a page of order summaries, newest first. Following pages are retrieved using the cursor linked by the
+     * previous page. Line items are only included if requested explicitly.
+     *
+     * @param productId  the product ID one of the order's line items must refer to, can be {@literal null}
+     * @param from       the inclusive lower bound of the order's creation timestamp, can be {@literal null}
+     * @param to         the exclusive upper bound of the order's creation timestamp, can be {@literal null}
+     * @param cursor     the cursor to continue after, can be {@literal null}
+     * @param size       the maximum number of orders per page
+     * @param lineItems  whether to include the order's line items
+     * @return 200 - a page of order summaries; 400 - if the cursor or size is invalid
+     */
+    @GetMapping
+    ResponseEntity<OrderPage> list(@RequestParam(value = "product_id", required = false) Product.Id productId,
+                                   @RequestParam(required = false) Instant from,
+                                   @RequestParam(required = false) Instant to,
+                                   @RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "20") int size,
+                                   @RequestParam(value = "line_items", defaultValue = "false") boolean lineItems) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException(String.format("Size must be between 1 and %d", MAX_PAGE_SIZE));
+        }
+
+        Optional<OrderCursor> after = Optional.ofNullable(cursor).map(OrderCursor::parse);
+        List<OrderSummary> summaries = repository.findSummaries(
+            productId, from, to,
+            after.map(OrderCursor::getCreatedAt).orElse(null),
+            after.map(OrderCursor::getId).orElse(null),
+            PageRequest.of(0, size + 1));
+
+        URI next = null;
+        if (summaries.size() > size) {
+            summaries = summaries.subList(0, size);
+            next = createLinkTo(OrderCursor.of(summaries.get(size - 1)));
+        }
+        if (lineItems) {
+            summaries = withLineItems(summaries);
+        }
+        return ResponseEntity.ok(new OrderPage(summaries, next));
+    }
+
+    private List<OrderSummary> withLineItems(List<OrderSummary> summaries) {
+        Map<Order.Id, Order> orders = repository.findAllById(summaries.stream()
+                .map(OrderSummary::getId)
+                .collect(Collectors.toList())).stream()
+            .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return summaries.stream()
+            .map(summary -> summary.withLineItems(orders.get(summary.getId()).toList()))
+            .collect(Collectors.toList());
+    }
+
+    private static URI createLinkTo(OrderCursor cursor) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+            .replaceQueryParam("cursor", cursor.encode())
+            .build().toUri();
+    }
+
+    /**
+     * Exports a line of every line item of all orders either as NDJSON or as CSV, depending on the {@literal Accept}
+     * header. The export is streamed line by line, thus it is never held in memory as a whole.
+     *
+     * @param accept the acceptable media types, NDJSON is preferred
+     * @return 200 - a stream of order lines; 406 - if neither NDJSON nor CSV is acceptable
+     * @throws HttpMediaTypeNotAcceptableException if neither NDJSON nor CSV is acceptable
+     */
+    @GetMapping("/export")
+    ResponseEntity<StreamingResponseBody> export(@RequestHeader(value = ACCEPT, defaultValue = MediaType.ALL_VALUE)
+                                                     String accept) throws HttpMediaTypeNotAcceptableException {
+        RowWriter.Format format = RowWriter.Format.negotiate(accept);
+        StreamingResponseBody body = output -> {
+            RowWriter<OrderLine> writer = RowWriter.create(format, EXPORT_COLUMNS, output, objectMapper);
+            exporter.export(writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .body(body);
+    }
+
+    /**
+     * Retrieves a single order including its status for the given ID.
+     *
+     * @param id must not be {@literal null}
+     * @return 200 - the order; 404 - if the order could not be found
+     */
+    @GetMapping("/{id}")
+    ResponseEntity<Order> retrieve(@PathVariable Order.Id id) {
+        return repository.findById(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * A page of order summaries linking to the following page, if there is any.
+     *
+     * @author Vincent Nadoll
+     */
+    @Value
+    static class OrderPage {
+
+        @JsonProperty("_embedded")
+        List<OrderSummary> content;
+
+        @Nullable
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        URI next;
+    }
+}
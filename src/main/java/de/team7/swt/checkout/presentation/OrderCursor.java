@@ -0,0 +1,70 @@
+package de.team7.swt.checkout.presentation;
+
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderSummary;
+import de.team7.swt.domain.web.ValidationException;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque key of the last order of a page, which the following page continues after.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+class OrderCursor {
+
+    private static final String SEPARATOR = "_";
+
+    Instant createdAt;
+    Order.Id id;
+
+    /**
+     * Creates a new cursor pointing at the given order.
+     *
+     * @param summary must not be {@literal null}
+     * @return a new cursor instance
+     */
+    static OrderCursor of(OrderSummary summary) {
+        Assert.notNull(summary, "Summary must not be null");
+        return new OrderCursor(summary.getCreatedAt(), summary.getId());
+    }
+
+    /**
+     * Parses the given encoded cursor.
+     *
+     * @param encoded must not be {@literal null}
+     * @return the parsed cursor
+     * @throws ValidationException in case the given cursor is invalid
+     */
+    static OrderCursor parse(String encoded) throws ValidationException {
+        Assert.notNull(encoded, "Encoded cursor must not be null");
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new OrderCursor(Instant.parse(decoded.substring(0, separator)),
+                new Order.Id(UUID.fromString(decoded.substring(separator + 1))));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Returns this cursor's URL-safe encoded representation.
+     *
+     * @return the encoded cursor
+     */
+    String encode() {
+        String decoded = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
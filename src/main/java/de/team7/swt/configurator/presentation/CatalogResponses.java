@@ -0,0 +1,121 @@
+package de.team7.swt.configurator.presentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Holds the JSON responses of the catalog rendered once per {@link Catalog#getVersion() catalog version}, both as is
+ * and gzip-compressed. Each response carries a strong ETag, so conditional requests are answered with
+ * {@literal 304 Not Modified} without reading the catalog or serializing any product.
+ *
+ * @author Vincent Nadoll
+ */
+@Component
+@RequiredArgsConstructor
+class CatalogResponses {
+
+    private static final int MAX_CACHED_RESPONSES = 256;
+    private static final String GZIP = "gzip";
+
+    private final ConcurrentMap<String, Rendered> responses = new ConcurrentHashMap<>();
+
+    private final Catalog<Product> catalog;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Returns the response of the given key, rendering the body supplied if the catalog has changed since it has been
+     * rendered the last time.
+     *
+     * @param key            the response's key, must not be {@literal null}
+     * @param acceptEncoding the request's {@literal Accept-Encoding} header, can be {@literal null}
+     * @param body           supplies the body to render, must not be {@literal null}
+     * @return a response containing the rendered body
+     */
+    ResponseEntity<byte[]> get(String key, @Nullable String acceptEncoding, Supplier<?> body) {
+        Assert.notNull(key, "Key must not be null");
+        Assert.notNull(body, "Body must not be null");
+
+        long version = catalog.getVersion();
+        Rendered rendered = responses.get(key);
+        if (null == rendered || rendered.version != version) {
+            if (responses.size() >= MAX_CACHED_RESPONSES) {
+                responses.clear();
+            }
+            rendered = render(version, body.get());
+            responses.put(key, rendered);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(APPLICATION_JSON)
+            .varyBy(ACCEPT_ENCODING);
+        return acceptsGzip(acceptEncoding)
+            ? response.eTag(rendered.gzipETag).header(CONTENT_ENCODING, GZIP).body(rendered.gzip)
+            : response.eTag(rendered.eTag).body(rendered.json);
+    }
+
+    private Rendered render(long version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream output = new GZIPOutputStream(gzip)) {
+                output.write(json);
+            }
+            return new Rendered(version, json, gzip.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (null == acceptEncoding) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            if (GZIP.equalsIgnoreCase(parameters[0].trim())) {
+                return parameters.length < 2 || !parameters[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A response body rendered from a certain catalog version.
+     */
+    private static final class Rendered {
+
+        private final long version;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String eTag;
+        private final String gzipETag;
+
+        Rendered(long version, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+            this.eTag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            this.gzipETag = "\"" + DigestUtils.md5DigestAsHex(json) + "-gzip\"";
+        }
+    }
+}
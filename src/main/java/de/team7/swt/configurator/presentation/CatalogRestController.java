@@ -1,24 +1,33 @@
 package de.team7.swt.configurator.presentation;
 
+import de.team7.swt.checkout.model.Reservations;
 import de.team7.swt.domain.catalog.Catalog;
 import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
 import de.team7.swt.domain.web.CollectionModel;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
-import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+
 /**
- * REST request handler for answering requests related to the catalog domain.
+ * REST request handler for answering requests related to the catalog domain. Collection responses are rendered once
+ * per catalog version by the {@link CatalogResponses} and answered with {@literal 304 Not Modified} if the client's
+ * ETag is still current.
  *
  * @author Vincent Nadoll
  */
@@ -27,23 +36,31 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CatalogRestController {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final Catalog<Product> catalog;
+    private final Reservations reservations;
+    private final CatalogResponses responses;
 
     /**
      * Retrieves an index of all products and a link to where the actual product catalog is found.
      *
-     * @return 200 - index of all products and their catalog link
+     * @param acceptEncoding the acceptable content codings, gzip is supported
+     * @return 200 - index of all products and their catalog link; 304 - if the index hasn't changed
      */
     @RequestMapping("/index")
-    public ResponseEntity<Map<String, URI>> index() {
-        Map<String, URI> name = catalog.findAllCategories().get()
-            .collect(Collectors.toMap(Function.identity(), this::createLinkTo));
-        return ResponseEntity.ok(name);
+    public ResponseEntity<byte[]> index(@RequestHeader(value = ACCEPT_ENCODING, required = false)
+                                            String acceptEncoding) {
+        String baseUri = ServletUriComponentsBuilder.fromCurrentRequestUri()
+            .replacePath("/api/v1/catalog")
+            .replaceQuery(null)
+            .toUriString();
+        return responses.get("index " + baseUri, acceptEncoding, () -> catalog.findAllCategories().get()
+            .collect(Collectors.toMap(Function.identity(), category -> createLinkTo(baseUri, category))));
     }
 
-    private URI createLinkTo(String entityName) {
-        return ServletUriComponentsBuilder.fromCurrentRequestUri()
-            .replacePath("/api/v1/catalog")
+    private static URI createLinkTo(String baseUri, String entityName) {
+        return UriComponentsBuilder.fromUriString(baseUri)
             .queryParam("category", entityName)
             .build().toUri();
     }
@@ -51,24 +68,47 @@ public class CatalogRestController {
     /**
      * Retrieves all products.
      *
-     * @return 200 - an embedded product list
+     * @param acceptEncoding the acceptable content codings, gzip is supported
+     * @return 200 - an embedded product list; 304 - if the list hasn't changed
      */
     @RequestMapping
-    public ResponseEntity<CollectionModel<Product>> listAll() {
-        CollectionModel<Product> body = CollectionModel.of(catalog.findAll());
-        return ResponseEntity.ok(body);
+    public ResponseEntity<byte[]> listAll(@RequestHeader(value = ACCEPT_ENCODING, required = false)
+                                              String acceptEncoding) {
+        return responses.get("all", acceptEncoding, () -> CollectionModel.of(catalog.findAll()));
     }
 
     /**
-     * Retrieves all products of the given category.
+     * Retrieves all products of the given categories. If multiple categories are given, only the products assigned to
+     * each of them are retrieved.
      *
-     * @param category must not be {@literal null}
-     * @return an embedded product list
+     * @param categories     must not be {@literal null} or empty
+     * @param acceptEncoding the acceptable content codings, gzip is supported
+     * @return 200 - an embedded product list; 304 - if the list hasn't changed
      */
     @RequestMapping(params = "category")
-    public ResponseEntity<CollectionModel<Product>> listBy(@RequestParam String category) {
-        List<Product> products = catalog.findByCategory(category).toList();
-        return ResponseEntity.ok(CollectionModel.of(products));
+    public ResponseEntity<byte[]> listBy(@RequestParam("category") List<String> categories,
+                                         @RequestHeader(value = ACCEPT_ENCODING, required = false)
+                                             String acceptEncoding) {
+        SortedSet<String> distinct = new TreeSet<>(categories);
+        return responses.get("category " + distinct, acceptEncoding, () -> CollectionModel.of(distinct.size() > 1
+            ? catalog.findByCategories(distinct)
+            : catalog.findByCategory(distinct.isEmpty() ? "" : distinct.first())));
+    }
+
+    /**
+     * Searches products by name and category. Each token of the query must match a token of the product's name or
+     * categories, either as a whole or by prefix, regardless of case and diacritics.
+     *
+     * @param query must not be {@literal null}
+     * @param limit the maximum number of products to retrieve, at most 100
+     * @return 200 - an embedded product list, ranked by relevance
+     */
+    @RequestMapping("/search")
+    public ResponseEntity<CollectionModel<Product>> search(@RequestParam("q") String query,
+                                                           @RequestParam(value = "limit", defaultValue = "20")
+                                                               int limit) {
+        return ResponseEntity.ok(CollectionModel.of(
+            catalog.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)))));
     }
 
     /**
@@ -83,4 +123,18 @@ public class CatalogRestController {
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Retrieves the available-to-promise quantity of a single product, i.e. its stock which is not reserved by any
+     * cart.
+     *
+     * @param id must not be {@literal null}
+     * @return 200 - the available quantity; 404 - if the product is not in stock
+     */
+    @RequestMapping("/{id}/available")
+    public ResponseEntity<Quantity> retrieveAvailable(@PathVariable Product.Id id) {
+        return reservations.getAvailableToPromise(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
 }
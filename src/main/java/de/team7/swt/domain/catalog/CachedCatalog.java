@@ -0,0 +1,93 @@
+package de.team7.swt.domain.catalog;
+
+import org.springframework.data.util.Streamable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository fragment of the {@link Catalog} serving reads from an in-memory snapshot of all products. The snapshot is
+ * loaded on the first read and replaced once a write through the catalog has been committed, thus warm reads never hit
+ * the database.
+ *
+ * @param <T>  the type of products
+ * @param <ID> the type of the products' identifiers
+ * @author Vincent Nadoll
+ */
+public interface CachedCatalog<T, ID> {
+
+    /**
+     * Returns the product of the given ID.
+     *
+     * @param id must not be {@literal null}
+     * @return the product or {@literal Optional.empty()} if it could not be found
+     */
+    Optional<T> findById(ID id);
+
+    /**
+     * Returns all products.
+     *
+     * @return an unmodifiable list of all products; never {@literal null}
+     */
+    List<T> findAll();
+
+    /**
+     * Returns all products assigned to the given category.
+     *
+     * @param category must not be {@literal null}
+     * @return the products of the category; never {@literal null}
+     */
+    Streamable<T> findByCategory(String category);
+
+    /**
+     * Returns all products assigned to each of the given categories.
+     *
+     * @param categories must not be {@literal null} or empty
+     * @return the products of the categories' intersection; never {@literal null}
+     */
+    Streamable<T> findByCategories(Collection<String> categories);
+
+    /**
+     * Returns the products whose name or categories match each token of the given query, either as a whole or by
+     * prefix. Tokens are matched regardless of case and diacritics.
+     *
+     * @param query must not be {@literal null}
+     * @param limit the maximum number of products to return, must be positive
+     * @return the best matching products, ranked by relevance; never {@literal null}
+     */
+    List<T> search(String query, int limit);
+
+    /**
+     * Returns the categories of all products.
+     *
+     * @return all categories in alphabetical order; never {@literal null}
+     */
+    Streamable<String> findAllCategories();
+
+    /**
+     * Returns the catalog's version, which is incremented whenever a write through the catalog has been completed.
+     * Responses rendered from the catalog's products may therefore be reused as long as its version doesn't change.
+     *
+     * @return the current version
+     */
+    long getVersion();
+
+    <S extends T> S save(S product);
+
+    <S extends T> List<S> saveAll(Iterable<S> products);
+
+    <S extends T> S saveAndFlush(S product);
+
+    void delete(T product);
+
+    void deleteById(ID id);
+
+    void deleteAll(Iterable<? extends T> products);
+
+    void deleteAll();
+
+    void deleteInBatch(Iterable<T> products);
+
+    void deleteAllInBatch();
+}
@@ -0,0 +1,469 @@
+package de.team7.swt.domain.catalog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.util.Streamable;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * {@link CachedCatalog} implementation holding an immutable snapshot of all products, whose categories are held by a
+ * {@link CategoryIndex} and whose names are searched by a {@link SearchIndex}. Reads are served from the snapshot
+ * without any lock, while writes are delegated to a {@link SimpleJpaRepository}. Once a transaction having saved a few
+ * products has been committed, only these products are loaded and replaced in a copy of the snapshot, whose indexes
+ * are updated instead of being rebuilt. Otherwise, e.g. once products have been deleted, the snapshot is evicted and
+ * loaded anew by the next read. A snapshot loaded or updated concurrently to a write is discarded, so it never
+ * replaces a newer one.
+ * <p>
+ * Within a transaction that has written to the catalog, reads bypass the snapshot, so the transaction sees its own
+ * writes. The snapshot is loaded using an entity manager of its own and its products are never handed out. Reads
+ * return detached copies instead, so modifying a product affects neither the snapshot nor other callers until the
+ * product is saved.
+ *
+ * @param <T> the type of products
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@SuppressWarnings("unchecked")
+class CachedCatalogImpl<T extends Product> implements CachedCatalog<T, Product.Id> {
+
+    static final String REQUESTS = "dyob.catalog.cache.requests";
+    static final String FIND_ALL = "select distinct p from Product p left join fetch p.categories";
+    private static final String FIND_BY_CATEGORY = "select p from Product p where :category member of p.categories";
+    private static final String FIND_ALL_CATEGORIES = "select distinct c from Product p join p.categories c order by c";
+    private static final String FIND_ALL_BY_ID = "select distinct p from Product p left join fetch p.categories "
+        + "where p.id in :ids";
+    private static final int MAX_REFRESHED = 100;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final SimpleJpaRepository<Product, Product.Id> delegate;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile Snapshot snapshot;
+    private volatile long version;
+
+    CachedCatalogImpl(EntityManagerFactory entityManagerFactory, EntityManager entityManager,
+                      MeterRegistry meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = entityManager;
+        this.delegate = new SimpleJpaRepository<>(Product.class, entityManager);
+        this.hits = meterRegistry.counter(REQUESTS, "result", "hit");
+        this.misses = meterRegistry.counter(REQUESTS, "result", "miss");
+    }
+
+    @Override
+    public Optional<T> findById(Product.Id id) {
+        Assert.notNull(id, "ID must not be null");
+
+        return Optional.ofNullable(isWritten()
+            ? (T) delegate.findById(id).orElse(null)
+            : copy(getSnapshot().get(id)));
+    }
+
+    @Override
+    public List<T> findAll() {
+        return isWritten()
+            ? (List<T>) delegate.findAll()
+            : copyAll(getSnapshot().all);
+    }
+
+    @Override
+    public Streamable<T> findByCategory(String category) {
+        Assert.notNull(category, "Category must not be null");
+
+        return isWritten()
+            ? Streamable.of((List<T>) entityManager.createQuery(FIND_BY_CATEGORY, Product.class)
+            .setParameter("category", category)
+            .getResultList())
+            : Streamable.of(copyAll(getSnapshot().categories.findByCategories(List.of(category))));
+    }
+
+    @Override
+    public Streamable<T> findByCategories(Collection<String> categories) {
+        Assert.notEmpty(categories, "Categories must not be empty");
+
+        return isWritten()
+            ? Streamable.of((List<T>) delegate.findAll())
+            .filter(product -> categories.stream().allMatch(product::contains))
+            : Streamable.of(copyAll(getSnapshot().categories.findByCategories(categories)));
+    }
+
+    @Override
+    public List<T> search(String query, int limit) {
+        Assert.notNull(query, "Query must not be null");
+        Assert.isTrue(limit > 0, "Limit must be positive");
+
+        return isWritten()
+            ? (List<T>) new SearchIndex(delegate.findAll()).search(query, limit)
+            : copyAll(getSnapshot().search.search(query, limit));
+    }
+
+    @Override
+    public Streamable<String> findAllCategories() {
+        return isWritten()
+            ? Streamable.of(entityManager.createQuery(FIND_ALL_CATEGORIES, String.class).getResultList())
+            : Streamable.of(getSnapshot().categories.getCategories());
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> S save(S product) {
+        List<S> saved = null;
+        try {
+            saved = List.of(delegate.save(product));
+            return saved.get(0);
+        } finally {
+            refreshOnCommit(saved);
+        }
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> List<S> saveAll(Iterable<S> products) {
+        List<S> saved = null;
+        try {
+            saved = delegate.saveAll(products);
+            return saved;
+        } finally {
+            refreshOnCommit(saved);
+        }
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> S saveAndFlush(S product) {
+        List<S> saved = null;
+        try {
+            saved = List.of(delegate.saveAndFlush(product));
+            return saved.get(0);
+        } finally {
+            refreshOnCommit(saved);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void delete(T product) {
+        try {
+            delegate.delete(product);
+        } finally {
+            evictOnCommit();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Product.Id id) {
+        try {
+            delegate.deleteById(id);
+        } finally {
+            evictOnCommit();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll(Iterable<? extends T> products) {
+        try {
+            delegate.deleteAll(products);
+        } finally {
+            evictOnCommit();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll() {
+        try {
+            delegate.deleteAll();
+        } finally {
+            evictOnCommit();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteInBatch(Iterable<T> products) {
+        try {
+            delegate.deleteInBatch((Iterable<Product>) (Iterable<?>) products);
+        } finally {
+            evictOnCommit();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch() {
+        try {
+            delegate.deleteAllInBatch();
+        } finally {
+            evictOnCommit();
+        }
+    }
+
+    /**
+     * Returns whether the current transaction has written to the catalog.
+     */
+    private boolean isWritten() {
+        boolean written = TransactionSynchronizationManager.hasResource(this);
+        if (written) {
+            misses.increment();
+        }
+        return written;
+    }
+
+    @Nullable
+    private T copy(@Nullable Product product) {
+        return null == product ? null : (T) product.copy();
+    }
+
+    private List<T> copyAll(List<Product> products) {
+        List<T> copies = new ArrayList<>(products.size());
+        products.forEach(product -> copies.add((T) product.copy()));
+        return Collections.unmodifiableList(copies);
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot cached = snapshot;
+        if (null != cached) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        long loadedVersion = version;
+        Snapshot loaded = load();
+        synchronized (this) {
+            if (version == loadedVersion) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private Snapshot load() {
+        EntityManager loader = entityManagerFactory.createEntityManager();
+        try {
+            List<Product> products = loader.createQuery(FIND_ALL, Product.class).getResultList();
+            log.debug("Loaded catalog snapshot of {} products", products.size());
+            return new Snapshot(products);
+        } finally {
+            loader.close();
+        }
+    }
+
+    private List<Product> load(Set<Product.Id> ids) {
+        EntityManager loader = entityManagerFactory.createEntityManager();
+        try {
+            return loader.createQuery(FIND_ALL_BY_ID, Product.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        } finally {
+            loader.close();
+        }
+    }
+
+    /**
+     * Replaces the given products in the snapshot once the current transaction has been committed, or at once if there
+     * is none. Until then, the transaction's reads bypass the snapshot.
+     *
+     * @param saved the saved products, or {@literal null} if saving them has failed
+     */
+    private void refreshOnCommit(@Nullable List<? extends Product> saved) {
+        Writes writes = getWrites();
+        if (null == saved) {
+            writes.evict();
+        } else {
+            writes.saved(saved);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writes.complete(true);
+        }
+    }
+
+    /**
+     * Evicts the snapshot once the current transaction has been completed, or at once if there is none. Until then,
+     * the transaction's reads bypass the snapshot.
+     */
+    private void evictOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict();
+            return;
+        }
+
+        getWrites().evict();
+    }
+
+    /**
+     * Returns the writes of the current transaction, which are bound to it on first access.
+     */
+    private Writes getWrites() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Writes();
+        }
+
+        Writes writes = (Writes) TransactionSynchronizationManager.getResource(this);
+        if (null == writes) {
+            Writes bound = new Writes();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CachedCatalogImpl.this);
+                    bound.complete(STATUS_COMMITTED == status);
+                }
+            });
+            writes = bound;
+        }
+        return writes;
+    }
+
+    /**
+     * Evicts the snapshot and replaces it by a copy, in which the products of the given IDs have been loaded anew. If
+     * there is no snapshot or any of the products could not be found, the snapshot is loaded anew by the next read.
+     */
+    private void refresh(Set<Product.Id> ids) {
+        Snapshot cached;
+        long refreshedVersion;
+        synchronized (this) {
+            cached = snapshot;
+            evict();
+            refreshedVersion = version;
+        }
+        if (null == cached) {
+            return;
+        }
+
+        List<Product> products = load(ids);
+        if (products.size() != ids.size()) {
+            return;
+        }
+
+        Snapshot refreshed = cached.with(products);
+        synchronized (this) {
+            if (version == refreshedVersion) {
+                snapshot = refreshed;
+            }
+        }
+        log.debug("Refreshed {} products of catalog snapshot", products.size());
+    }
+
+    private synchronized void evict() {
+        version++;
+        snapshot = null;
+    }
+
+    /**
+     * Writes of a single transaction, which are either replaced in the snapshot or evict it once completed.
+     */
+    private final class Writes {
+
+        @Nullable
+        private Set<Product.Id> saved = new LinkedHashSet<>();
+
+        void saved(List<? extends Product> products) {
+            if (null != saved) {
+                products.forEach(product -> saved.add(product.getId()));
+                if (saved.size() > MAX_REFRESHED) {
+                    saved = null;
+                }
+            }
+        }
+
+        void evict() {
+            saved = null;
+        }
+
+        void complete(boolean committed) {
+            if (!committed || null == saved) {
+                CachedCatalogImpl.this.evict();
+            } else if (!saved.isEmpty()) {
+                refresh(saved);
+            }
+        }
+    }
+
+    /**
+     * Immutable snapshot of all products, indexed by ID, category and search tokens.
+     */
+    private static final class Snapshot {
+
+        private final List<Product> all;
+        private final Map<Product.Id, Integer> positions;
+        private final CategoryIndex categories;
+        private final SearchIndex search;
+
+        Snapshot(List<Product> products) {
+            this.all = List.copyOf(products);
+            Map<Product.Id, Integer> positions = new HashMap<>();
+            for (int position = 0; position < all.size(); position++) {
+                positions.put(all.get(position).getId(), position);
+            }
+            this.positions = Collections.unmodifiableMap(positions);
+            this.categories = new CategoryIndex(all);
+            this.search = new SearchIndex(all);
+        }
+
+        private Snapshot(List<Product> all, Map<Product.Id, Integer> positions, CategoryIndex categories,
+                         SearchIndex search) {
+            this.all = all;
+            this.positions = positions;
+            this.categories = categories;
+            this.search = search;
+        }
+
+        @Nullable
+        Product get(Product.Id id) {
+            Integer position = positions.get(id);
+            return null == position ? null : all.get(position);
+        }
+
+        /**
+         * Returns a copy of this snapshot, in which products of the same ID are replaced by the given ones and all
+         * others are appended.
+         */
+        Snapshot with(List<Product> products) {
+            List<Product> all = new ArrayList<>(this.all);
+            Map<Product.Id, Integer> positions = new HashMap<>(this.positions);
+            List<Integer> changed = new ArrayList<>(products.size());
+            for (Product product : products) {
+                Integer position = positions.get(product.getId());
+                if (null == position) {
+                    position = all.size();
+                    all.add(product);
+                    positions.put(product.getId(), position);
+                } else {
+                    all.set(position, product);
+                }
+                changed.add(position);
+            }
+            return new Snapshot(Collections.unmodifiableList(all), Collections.unmodifiableMap(positions),
+                categories.with(all, changed), search.with(products));
+        }
+    }
+}
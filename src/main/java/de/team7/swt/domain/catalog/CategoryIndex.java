@@ -0,0 +1,165 @@
+package de.team7.swt.domain.catalog;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable inverted index of the categories of a list of products. Each category is interned as an ID, i.e. its
+ * position in alphabetical order, which is mapped to a {@link BitSet} of the positions of the products assigned to it.
+ * Thus, filtering products by one or more categories is answered by set operations instead of joining the categories'
+ * table. Replacing a few products by {@link #with(List, Collection)} updates the sets of their categories only.
+ *
+ * @author Vincent Nadoll
+ */
+final class CategoryIndex {
+
+    private final List<? extends Product> products;
+    private final List<String> categories;
+    private final Map<String, Integer> ids;
+    private final BitSet[] members;
+    private final int[][] productCategories;
+
+    /**
+     * Creates a new index of the given products' categories.
+     *
+     * @param products must not be {@literal null}
+     */
+    CategoryIndex(List<? extends Product> products) {
+        Assert.notNull(products, "Products must not be null");
+
+        this.products = List.copyOf(products);
+        this.categories = List.copyOf(this.products.stream()
+            .flatMap(product -> product.getCategories().stream())
+            .collect(Collectors.toCollection(TreeSet::new)));
+
+        Map<String, Integer> ids = new HashMap<>();
+        for (int id = 0; id < categories.size(); id++) {
+            ids.put(categories.get(id), id);
+        }
+        this.ids = Map.copyOf(ids);
+
+        this.members = new BitSet[categories.size()];
+        for (int id = 0; id < members.length; id++) {
+            members[id] = new BitSet(this.products.size());
+        }
+        this.productCategories = new int[this.products.size()][];
+        for (int position = 0; position < this.products.size(); position++) {
+            productCategories[position] = toIds(this.products.get(position));
+            for (int id : productCategories[position]) {
+                members[id].set(position);
+            }
+        }
+    }
+
+    private CategoryIndex(List<? extends Product> products, CategoryIndex index, BitSet[] members,
+                          int[][] productCategories) {
+        this.products = products;
+        this.categories = index.categories;
+        this.ids = index.ids;
+        this.members = members;
+        this.productCategories = productCategories;
+    }
+
+    /**
+     * Returns the IDs of the given product's categories, of which those that aren't indexed are {@literal -1}.
+     */
+    private int[] toIds(Product product) {
+        return product.getCategories().stream()
+            .map(ids::get)
+            .mapToInt(id -> null == id ? -1 : id)
+            .toArray();
+    }
+
+    /**
+     * Returns an index of the given products, which differ from the indexed products only at the given positions or
+     * extend them. The sets of unaffected categories are shared with this index. A replaced product is removed from
+     * the categories it has been indexed with, regardless of whether it has been modified since. If a category is
+     * added or no longer used, all products are indexed anew.
+     *
+     * @param products must not be {@literal null}
+     * @param changed  the positions of the products which have been replaced or added, must not be {@literal null}
+     * @return a new index; never {@literal null}
+     */
+    CategoryIndex with(List<? extends Product> products, Collection<Integer> changed) {
+        Assert.notNull(products, "Products must not be null");
+        Assert.notNull(changed, "Changed positions must not be null");
+        Assert.isTrue(products.size() >= this.products.size(), "Products must not be removed");
+
+        BitSet[] members = this.members.clone();
+        int[][] productCategories = Arrays.copyOf(this.productCategories, products.size());
+        BitSet copied = new BitSet(members.length);
+        for (int position : changed) {
+            if (position < this.productCategories.length) {
+                for (int id : this.productCategories[position]) {
+                    copy(members, copied, id).clear(position);
+                }
+            }
+            productCategories[position] = toIds(products.get(position));
+            for (int id : productCategories[position]) {
+                if (id < 0) {
+                    return new CategoryIndex(products);
+                }
+                copy(members, copied, id).set(position);
+            }
+        }
+
+        boolean unused = copied.stream().anyMatch(id -> members[id].isEmpty());
+        return unused
+            ? new CategoryIndex(products)
+            : new CategoryIndex(List.copyOf(products), this, members, productCategories);
+    }
+
+    /**
+     * Returns the set of the given category, which is copied once before it's modified.
+     */
+    private static BitSet copy(BitSet[] members, BitSet copied, int id) {
+        if (!copied.get(id)) {
+            members[id] = (BitSet) members[id].clone();
+            copied.set(id);
+        }
+        return members[id];
+    }
+
+    /**
+     * Returns all indexed categories.
+     *
+     * @return an unmodifiable list of all categories in alphabetical order; never {@literal null}
+     */
+    List<String> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Returns the products assigned to all of the given categories. Products are returned in the order they have been
+     * indexed.
+     *
+     * @param categories must not be {@literal null} or empty
+     * @return an unmodifiable list of matching products; never {@literal null}
+     */
+    List<Product> findByCategories(Collection<String> categories) {
+        Assert.notEmpty(categories, "Categories must not be empty");
+
+        BitSet matches = null;
+        for (String category : categories) {
+            Integer id = ids.get(category);
+            if (null == id) {
+                return List.of();
+            } else if (null == matches) {
+                matches = (BitSet) members[id].clone();
+            } else {
+                matches.and(members[id]);
+            }
+        }
+        return matches.stream()
+            .mapToObj(products::get)
+            .collect(Collectors.toUnmodifiableList());
+    }
+}
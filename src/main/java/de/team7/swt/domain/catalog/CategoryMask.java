@@ -0,0 +1,191 @@
+package de.team7.swt.domain.catalog;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Immutable bitmask of categories. Each category is interned as a small integer ID once it is used the first time, so
+ * testing whether masks intersect or contain each other takes a few bit operations on one or two words and doesn't
+ * allocate any memory.
+ *
+ * @author Vincent Nadoll
+ */
+public final class CategoryMask {
+
+    public static final CategoryMask EMPTY = new CategoryMask(new long[0]);
+
+    private static final ConcurrentMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final List<String> NAMES = new CopyOnWriteArrayList<>();
+
+    private final long[] words;
+
+    private CategoryMask(long[] words) {
+        int length = words.length;
+        while (length > 0 && 0 == words[length - 1]) {
+            length--;
+        }
+        this.words = length == words.length ? words : Arrays.copyOf(words, length);
+    }
+
+    /**
+     * Creates a new mask of the given categories.
+     *
+     * @param categories must not be {@literal null}
+     * @return a new mask
+     */
+    public static CategoryMask of(Iterable<String> categories) {
+        Assert.notNull(categories, "Categories must not be null");
+
+        long[] words = new long[0];
+        for (String category : categories) {
+            int id = idOf(category);
+            if (id >> 6 >= words.length) {
+                words = Arrays.copyOf(words, (id >> 6) + 1);
+            }
+            words[id >> 6] |= 1L << id;
+        }
+        return new CategoryMask(words);
+    }
+
+    /**
+     * Creates a new mask of the given categories.
+     *
+     * @param categories must not be {@literal null}
+     * @return a new mask
+     */
+    public static CategoryMask of(String... categories) {
+        Assert.notNull(categories, "Categories must not be null");
+        return of(Arrays.asList(categories));
+    }
+
+    private static int idOf(String category) {
+        Assert.hasText(category, "Category must not be empty");
+        return IDS.computeIfAbsent(category, name -> {
+            synchronized (NAMES) {
+                NAMES.add(name);
+                return NAMES.size() - 1;
+            }
+        });
+    }
+
+    /**
+     * Returns the union of this mask and the given one.
+     *
+     * @param other must not be {@literal null}
+     * @return a mask containing the categories of both masks
+     */
+    public CategoryMask or(CategoryMask other) {
+        Assert.notNull(other, "Other must not be null");
+
+        long[] union = Arrays.copyOf(words, Math.max(words.length, other.words.length));
+        for (int i = 0; i < other.words.length; i++) {
+            union[i] |= other.words[i];
+        }
+        return new CategoryMask(union);
+    }
+
+    /**
+     * Returns this mask without the categories of the given one.
+     *
+     * @param other must not be {@literal null}
+     * @return a mask containing the categories of this mask which aren't contained by the given one
+     */
+    public CategoryMask andNot(CategoryMask other) {
+        Assert.notNull(other, "Other must not be null");
+
+        long[] difference = words.clone();
+        for (int i = 0; i < Math.min(difference.length, other.words.length); i++) {
+            difference[i] &= ~other.words[i];
+        }
+        return new CategoryMask(difference);
+    }
+
+    /**
+     * Indicates whether this mask shares any category with the given one.
+     *
+     * @param other must not be {@literal null}
+     * @return {@literal true} if both masks contain a common category; {@literal false} otherwise
+     */
+    public boolean intersects(CategoryMask other) {
+        Assert.notNull(other, "Other must not be null");
+
+        for (int i = 0; i < Math.min(words.length, other.words.length); i++) {
+            if (0 != (words[i] & other.words[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indicates whether this mask contains all categories of the given one.
+     *
+     * @param other must not be {@literal null}
+     * @return {@literal true} if the given mask is a subset of this mask; {@literal false} otherwise
+     */
+    public boolean containsAll(CategoryMask other) {
+        Assert.notNull(other, "Other must not be null");
+
+        if (other.words.length > words.length) {
+            return false;
+        }
+        for (int i = 0; i < other.words.length; i++) {
+            if (other.words[i] != (words[i] & other.words[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indicates whether this mask doesn't contain any category.
+     *
+     * @return {@literal true} if this mask is empty; {@literal false} otherwise
+     */
+    public boolean isEmpty() {
+        return 0 == words.length;
+    }
+
+    /**
+     * Returns the names of the categories this mask contains.
+     *
+     * @return the categories in alphabetical order; never {@literal null}
+     */
+    public Set<String> getCategories() {
+        Set<String> categories = new TreeSet<>();
+        for (int i = 0; i < words.length; i++) {
+            for (long word = words[i]; 0 != word; word &= word - 1) {
+                categories.add(NAMES.get((i << 6) + Long.numberOfTrailingZeros(word)));
+            }
+        }
+        return categories;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof CategoryMask)) {
+            return false;
+        } else {
+            return Arrays.equals(words, ((CategoryMask) o).words);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return getCategories().toString();
+    }
+}
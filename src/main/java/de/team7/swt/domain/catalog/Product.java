@@ -6,8 +6,8 @@ import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import de.team7.swt.domain.quantity.Metric;
 import de.team7.swt.domain.quantity.MetricMismatchException;
 import de.team7.swt.domain.quantity.Quantity;
-import de.team7.swt.domain.shared.AggregateRoot;
 import de.team7.swt.domain.shared.Identifier;
+import de.team7.swt.domain.shared.VersionedAggregateRoot;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,7 +18,10 @@ import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.util.Streamable;
 import org.springframework.format.annotation.NumberFormat;
 import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
 
+import java.lang.reflect.Modifier;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
@@ -35,6 +38,7 @@ import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.PrePersist;
+import javax.persistence.Transient;
 
 /**
  * Base class for a product.
@@ -43,7 +47,7 @@ import javax.persistence.PrePersist;
  * @author Vincent Nadoll
  */
 @Entity
-public class Product extends AggregateRoot<Product.Id> implements Comparable<Product> {
+public class Product extends VersionedAggregateRoot<Product.Id> implements Comparable<Product> {
 
     @Getter
     @EmbeddedId
@@ -72,6 +76,10 @@ public class Product extends AggregateRoot<Product.Id> implements Comparable<Pro
     @ElementCollection(fetch = FetchType.EAGER)
     private final Set<String> categories = new HashSet<>();
 
+    @JsonIgnore
+    @Transient
+    private volatile CategoryMask categoryMask;
+
     /**
      * Creates a new product with given ID, name and price.
      *
@@ -133,6 +141,22 @@ public class Product extends AggregateRoot<Product.Id> implements Comparable<Pro
         return Streamable.of(Collections.unmodifiableSet(categories));
     }
 
+    /**
+     * Returns the mask of the categories this product is assigned to. The mask is computed once and kept until the
+     * product's categories change.
+     *
+     * @return the categories' mask; never {@literal null}
+     */
+    @JsonIgnore
+    public CategoryMask getCategoryMask() {
+        CategoryMask mask = categoryMask;
+        if (null == mask) {
+            mask = CategoryMask.of(categories);
+            categoryMask = mask;
+        }
+        return mask;
+    }
+
     /**
      * Adds this product to the given category.
      *
@@ -141,7 +165,9 @@ public class Product extends AggregateRoot<Product.Id> implements Comparable<Pro
      */
     public final boolean add(String category) {
         Assert.hasText(category, "Category must not be null");
-        return categories.add(category);
+        boolean changed = categories.add(category);
+        categoryMask = null;
+        return changed;
     }
 
     /**
@@ -152,7 +178,9 @@ public class Product extends AggregateRoot<Product.Id> implements Comparable<Pro
      */
     public final boolean remove(String category) {
         Assert.hasText(category, "Category must not be null");
-        return categories.remove(category);
+        boolean changed = categories.remove(category);
+        categoryMask = null;
+        return changed;
     }
 
     /**
@@ -228,6 +256,27 @@ public class Product extends AggregateRoot<Product.Id> implements Comparable<Pro
             .toString();
     }
 
+    /**
+     * Returns a detached copy of this product, which may be modified without affecting this product. All fields of the
+     * product's class are copied, except for collections, of which the categories are copied into the copy's own set.
+     *
+     * @return a new instance of this product's class; never {@literal null}
+     */
+    Product copy() {
+        try {
+            Product copy = ReflectionUtils.accessibleConstructor(getClass()).newInstance();
+            ReflectionUtils.doWithFields(getClass(), field -> {
+                ReflectionUtils.makeAccessible(field);
+                field.set(copy, field.get(this));
+            }, field -> !Modifier.isStatic(field.getModifiers())
+                && !Collection.class.isAssignableFrom(field.getType()));
+            copy.categories.addAll(categories);
+            return copy;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Product " + id + " could not be copied", e);
+        }
+    }
+
     @PrePersist
     void prePersist() {
         Assert.notNull(metric,
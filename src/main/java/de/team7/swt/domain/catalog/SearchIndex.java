@@ -0,0 +1,433 @@
+package de.team7.swt.domain.catalog;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable full-text index of the names and categories of a list of products. Names and categories are split into
+ * tokens, which are folded to lower case without diacritics, e.g. {@literal "Würzig/Kräuteraroma"} is indexed as
+ * {@literal "wurzig"} and {@literal "krauteraroma"}. German transliterations are folded alike, so {@literal "Maerzen"}
+ * finds {@literal "Märzen"}.
+ * <p>
+ * The tokens are held in alphabetical order, thus all tokens starting with a prefix are found by binary search. Each
+ * token is mapped to the positions of the products containing it, and each product to the tokens it contains, along
+ * with the token's weight. Matches of the name weigh more than matches of a category, and whole tokens weigh more than
+ * prefixes. A query is answered by collecting the products matching its most selective token, which are then checked
+ * against the query's remaining tokens. Products are indexed in alphabetical order, so ranking matches of equal weight
+ * doesn't need to compare products.
+ * <p>
+ * Products saved after the index has been built are indexed separately by {@link #with(Collection)}, while their
+ * previous versions are skipped. Matches of both indexes are merged by rank, thus a single saved product doesn't
+ * require indexing all products anew. Once the separately indexed products make up a considerable part of all
+ * products, the index is rebuilt entirely.
+ *
+ * @author Vincent Nadoll
+ */
+final class SearchIndex {
+
+    private static final int NAME_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 1;
+    private static final int EXACT_FACTOR = 2;
+    private static final int MIN_REBUILD_SIZE = 16;
+    private static final int REBUILD_RATIO = 64;
+
+    private final List<Product> products;
+    private final String[] tokens;
+    private final long[] offsets;
+    private final int[][] positions;
+    private final int[][] weights;
+    private final int[][] productTokens;
+    private final int[][] productWeights;
+    private final Set<Product.Id> superseded;
+    @Nullable
+    private final SearchIndex saved;
+
+    /**
+     * Creates a new index of the given products' names and categories.
+     *
+     * @param products must not be {@literal null}
+     */
+    SearchIndex(List<? extends Product> products) {
+        Assert.notNull(products, "Products must not be null");
+
+        this.products = products.stream()
+            .sorted()
+            .collect(Collectors.toUnmodifiableList());
+
+        Map<String, Posting> postings = new HashMap<>();
+        for (int position = 0; position < this.products.size(); position++) {
+            Product product = this.products.get(position);
+            index(postings, position, product.getName(), NAME_WEIGHT);
+            for (String category : product.getCategories()) {
+                index(postings, position, category, CATEGORY_WEIGHT);
+            }
+        }
+
+        this.tokens = postings.keySet().toArray(String[]::new);
+        Arrays.sort(tokens);
+        this.offsets = new long[tokens.length + 1];
+        this.positions = new int[tokens.length][];
+        this.weights = new int[tokens.length][];
+        int[] sizes = new int[this.products.size()];
+        for (int id = 0; id < tokens.length; id++) {
+            Posting posting = postings.get(tokens[id]);
+            positions[id] = Arrays.copyOf(posting.positions, posting.size);
+            weights[id] = Arrays.copyOf(posting.weights, posting.size);
+            offsets[id + 1] = offsets[id] + posting.size;
+            for (int position : positions[id]) {
+                sizes[position]++;
+            }
+        }
+
+        this.productTokens = new int[sizes.length][];
+        this.productWeights = new int[sizes.length][];
+        for (int position = 0; position < sizes.length; position++) {
+            productTokens[position] = new int[sizes[position]];
+            productWeights[position] = new int[sizes[position]];
+            sizes[position] = 0;
+        }
+        for (int id = 0; id < tokens.length; id++) {
+            for (int i = 0; i < positions[id].length; i++) {
+                int position = positions[id][i];
+                productTokens[position][sizes[position]] = id;
+                productWeights[position][sizes[position]++] = weights[id][i];
+            }
+        }
+        this.superseded = Set.of();
+        this.saved = null;
+    }
+
+    private SearchIndex(SearchIndex index, Set<Product.Id> superseded, SearchIndex saved) {
+        this.products = index.products;
+        this.tokens = index.tokens;
+        this.offsets = index.offsets;
+        this.positions = index.positions;
+        this.weights = index.weights;
+        this.productTokens = index.productTokens;
+        this.productWeights = index.productWeights;
+        this.superseded = superseded;
+        this.saved = saved;
+    }
+
+    /**
+     * Returns an index of the indexed products, of which those having the same ID as any of the given products are
+     * replaced by them, and of the given products which haven't been indexed yet. Only the products saved since this
+     * index has been built are indexed anew, unless they exceed a 64th of all products, in which case all products
+     * are.
+     *
+     * @param products must not be {@literal null}
+     * @return a new index; never {@literal null}
+     */
+    SearchIndex with(Collection<? extends Product> products) {
+        Assert.notNull(products, "Products must not be null");
+
+        Map<Product.Id, Product> changed = new LinkedHashMap<>();
+        if (null != saved) {
+            saved.products.forEach(product -> changed.put(product.getId(), product));
+        }
+        products.forEach(product -> changed.put(product.getId(), product));
+        if (changed.size() <= Math.max(MIN_REBUILD_SIZE, this.products.size() / REBUILD_RATIO)) {
+            return new SearchIndex(this, Set.copyOf(changed.keySet()), new SearchIndex(List.copyOf(changed.values())));
+        }
+
+        List<Product> all = new ArrayList<>(this.products.size() + changed.size());
+        for (Product product : this.products) {
+            if (!changed.containsKey(product.getId())) {
+                all.add(product);
+            }
+        }
+        all.addAll(changed.values());
+        return new SearchIndex(all);
+    }
+
+    private static void index(Map<String, Posting> postings, int position, String text, int weight) {
+        for (String token : tokenize(text)) {
+            postings.computeIfAbsent(token, key -> new Posting()).add(position, weight);
+        }
+    }
+
+    /**
+     * Splits the given text into distinct folded tokens.
+     *
+     * @param text can be {@literal null}
+     * @return the tokens in the order they appear in the text; never {@literal null}
+     */
+    static Set<String> tokenize(String text) {
+        if (null == text) {
+            return Set.of();
+        }
+
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            } else if (!Character.isLetterOrDigit(c)) {
+                if (token.length() > 0) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+            } else if ('ß' == c) {
+                token.append("ss");
+            } else if ('e' == c && token.length() > 0 && isTransliterated(token.charAt(token.length() - 1))) {
+                continue;
+            } else {
+                token.append(c < 0x80 ? c : Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns whether an {@literal e} following the given character transliterates an umlaut, e.g. {@literal "ae"}.
+     */
+    private static boolean isTransliterated(char c) {
+        return 'a' == c || 'o' == c || 'u' == c;
+    }
+
+    /**
+     * Returns the products matching each token of the given query, either as a whole or by prefix. Products are
+     * ranked by the summed weights of their best matches; products of equal rank are returned in alphabetical order.
+     *
+     * @param query must not be {@literal null}
+     * @param limit the maximum number of products to return, must be positive
+     * @return an unmodifiable list of the best matching products; never {@literal null}
+     */
+    List<Product> search(String query, int limit) {
+        Assert.notNull(query, "Query must not be null");
+        Assert.isTrue(limit > 0, "Limit must be positive");
+
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        long[] ranked = match(terms, limit);
+        return null == saved
+            ? toProducts(ranked)
+            : merge(ranked, saved.match(terms, limit), limit);
+    }
+
+    /**
+     * Returns the given number of best matches of the given terms among the products which haven't been superseded,
+     * each encoded as its position in the upper and its weight in the lower half, ranked by weight.
+     */
+    private long[] match(Set<String> terms, int limit) {
+        Range[] ranges = terms.stream()
+            .map(this::range)
+            .sorted(Comparator.comparingLong(Range::size))
+            .toArray(Range[]::new);
+
+        long[] candidates = collect(ranges[0]);
+        int count = candidates.length;
+        for (int r = 1; r < ranges.length && count > 0; r++) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int weight = weigh((int) (candidates[i] >>> Integer.SIZE), ranges[r]);
+                if (weight > 0) {
+                    candidates[kept++] = candidates[i] + weight;
+                }
+            }
+            count = kept;
+        }
+        if (!superseded.isEmpty()) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (!superseded.contains(productAt(candidates[i]).getId())) {
+                    candidates[kept++] = candidates[i];
+                }
+            }
+            count = kept;
+        }
+        return rank(candidates, count, ranges.length * NAME_WEIGHT * EXACT_FACTOR, limit);
+    }
+
+    /**
+     * Returns the range of tokens starting with the given term.
+     */
+    private Range range(String term) {
+        int from = lowerBound(term);
+        int to = lowerBound(term + Character.MAX_VALUE);
+        boolean exact = from < to && tokens[from].length() == term.length();
+        return new Range(from, to, exact);
+    }
+
+    private int lowerBound(String term) {
+        int id = Arrays.binarySearch(tokens, term);
+        return id < 0 ? -id - 1 : id;
+    }
+
+    /**
+     * Returns the products containing any token of the given range, each encoded as its position in the upper and its
+     * best weight in the lower half, in ascending order of their positions.
+     */
+    private long[] collect(Range range) {
+        long[] candidates = new long[(int) range.size()];
+        int count = 0;
+        for (int id = range.from; id < range.to; id++) {
+            int factor = range.isExact(id) ? EXACT_FACTOR : 1;
+            for (int i = 0; i < positions[id].length; i++) {
+                candidates[count++] = (long) positions[id][i] << Integer.SIZE | weights[id][i] * factor;
+            }
+        }
+
+        if (range.to - range.from > 1) {
+            Arrays.sort(candidates);
+            count = 0;
+            for (int i = 0; i < candidates.length; i++) {
+                boolean last = i + 1 == candidates.length
+                    || candidates[i] >>> Integer.SIZE != candidates[i + 1] >>> Integer.SIZE;
+                if (last) {
+                    candidates[count++] = candidates[i];
+                }
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Returns the best weight of the product at the given position among the tokens of the given range, or zero if
+     * the product doesn't contain any of them.
+     */
+    private int weigh(int position, Range range) {
+        int best = 0;
+        for (int i = 0; i < productTokens[position].length; i++) {
+            int id = productTokens[position][i];
+            if (id >= range.to) {
+                break;
+            } else if (id >= range.from) {
+                best = Math.max(best, productWeights[position][i] * (range.isExact(id) ? EXACT_FACTOR : 1));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the given number of candidates of the highest weights. Since the candidates are in alphabetical order,
+     * they are bucketed by weight in the order given, thus no candidate needs to be sorted. The ranked candidates are
+     * encoded like the given ones.
+     */
+    private long[] rank(long[] candidates, int count, int maxWeight, int limit) {
+        int[][] buckets = new int[maxWeight + 1][];
+        int[] sizes = new int[maxWeight + 1];
+        for (int i = 0; i < count; i++) {
+            int weight = (int) candidates[i];
+            if (sizes[weight] < limit) {
+                if (null == buckets[weight]) {
+                    buckets[weight] = new int[limit];
+                }
+                buckets[weight][sizes[weight]++] = (int) (candidates[i] >>> Integer.SIZE);
+            }
+        }
+
+        long[] ranked = new long[Math.min(limit, count)];
+        int size = 0;
+        for (int weight = maxWeight; weight > 0 && size < ranked.length; weight--) {
+            for (int i = 0; i < sizes[weight] && size < ranked.length; i++) {
+                ranked[size++] = (long) buckets[weight][i] << Integer.SIZE | weight;
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * Merges the ranked matches of this index with those of the separately indexed products. Matches of equal weight
+     * are merged in alphabetical order.
+     */
+    private List<Product> merge(long[] ranked, long[] savedRanked, int limit) {
+        List<Product> merged = new ArrayList<>(Math.min(limit, ranked.length + savedRanked.length));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < ranked.length || j < savedRanked.length)) {
+            if (j == savedRanked.length || i < ranked.length && precedes(ranked[i], savedRanked[j])) {
+                merged.add(productAt(ranked[i++]));
+            } else {
+                merged.add(saved.productAt(savedRanked[j++]));
+            }
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    private boolean precedes(long candidate, long savedCandidate) {
+        int weight = (int) candidate;
+        int savedWeight = (int) savedCandidate;
+        return weight != savedWeight
+            ? weight > savedWeight
+            : productAt(candidate).compareTo(saved.productAt(savedCandidate)) <= 0;
+    }
+
+    private List<Product> toProducts(long[] ranked) {
+        List<Product> products = new ArrayList<>(ranked.length);
+        for (long candidate : ranked) {
+            products.add(productAt(candidate));
+        }
+        return Collections.unmodifiableList(products);
+    }
+
+    private Product productAt(long candidate) {
+        return products.get((int) (candidate >>> Integer.SIZE));
+    }
+
+    /**
+     * Range of the IDs of all tokens starting with a term. If a token equals the term, it's the range's first.
+     */
+    private final class Range {
+
+        private final int from;
+        private final int to;
+        private final boolean exact;
+
+        Range(int from, int to, boolean exact) {
+            this.from = from;
+            this.to = to;
+            this.exact = exact;
+        }
+
+        boolean isExact(int id) {
+            return exact && id == from;
+        }
+
+        long size() {
+            return offsets[to] - offsets[from];
+        }
+    }
+
+    /**
+     * Growable posting list of a token, to which products are added in ascending order of their positions.
+     */
+    private static final class Posting {
+
+        private int[] positions = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        void add(int position, int weight) {
+            if (size > 0 && positions[size - 1] == position) {
+                weights[size - 1] = Math.max(weights[size - 1], weight);
+                return;
+            }
+
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            positions[size] = position;
+            weights[size++] = weight;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
@@ -46,6 +47,13 @@ class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
                 .and()
             .authorizeRequests()
                 .antMatchers("/stock").hasAnyRole("MANAGER")
+                .antMatchers("/api/v1/reports/**").hasAnyRole("MANAGER")
+                .antMatchers("/api/v1/stats/**").hasAnyRole("MANAGER")
+                .antMatchers("/api/v1/inventory/**").hasAnyRole("MANAGER")
+                .mvcMatchers(HttpMethod.GET, "/api/v1/orders").hasAnyRole("MANAGER")
+                .antMatchers("/api/v1/orders/export").hasAnyRole("MANAGER")
+                .antMatchers("/actuator/health").permitAll()
+                .antMatchers("/actuator/**").hasAnyRole("MANAGER")
                 .antMatchers("/**").permitAll()
                 .and()
             .csrf()
@@ -0,0 +1,36 @@
+package de.team7.swt.domain.infrastructure.outbox;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.util.Assert;
+
+/**
+ * Event relaying an {@link OutboxMessage} to its listeners. Listeners select the messages they're interested in by
+ * {@link #getType()}, which is the simple class name of the originally registered event, e.g.
+ * {@code @EventListener(condition = "#event.type == 'OrderCompleted'")}.
+ * <p>
+ * Messages are delivered at least once. A message is delivered again only if the transaction of its previous delivery
+ * rolled back, so listeners which work within that transaction are idempotent.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class OutboxEvent {
+
+    OutboxMessage.Id messageId;
+    String type;
+    String aggregateId;
+
+    /**
+     * Creates a new event relaying the given message.
+     *
+     * @param message must not be {@literal null}
+     * @return a new event
+     */
+    public static OutboxEvent of(OutboxMessage message) {
+        Assert.notNull(message, "Outbox message must not be null");
+        return new OutboxEvent(message.getId(), message.getType(), message.getAggregateId());
+    }
+}
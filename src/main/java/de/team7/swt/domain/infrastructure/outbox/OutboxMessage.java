@@ -0,0 +1,101 @@
+package de.team7.swt.domain.infrastructure.outbox;
+
+import de.team7.swt.domain.shared.DurableEvent;
+import de.team7.swt.domain.shared.Entity;
+import de.team7.swt.domain.shared.Identifier;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EmbeddedId;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * An outbox message records a {@link DurableEvent} within the transaction of the aggregate which registered it. The
+ * message remains pending until it has been relayed to the event's listeners.
+ *
+ * @author Vincent Nadoll
+ */
+@javax.persistence.Entity
+@Getter
+@Table(indexes = @Index(columnList = "publishedAt, createdAt"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+public class OutboxMessage extends Entity<OutboxMessage.Id> {
+
+    @EmbeddedId
+    @GeneratedValue(generator = "outboxMessage-id")
+    @GenericGenerator(name = "outboxMessage-id", strategy = "dyob-id")
+    private final OutboxMessage.Id id;
+
+    @Column(updatable = false)
+    private final String type;
+
+    @Column(updatable = false)
+    private final String aggregateId;
+
+    @Column(updatable = false)
+    private final Instant createdAt;
+
+    @Nullable
+    private Instant publishedAt;
+
+    private int attempts;
+
+    @Nullable
+    @Column(length = 1024)
+    private String lastError;
+
+    private OutboxMessage(String type, String aggregateId) {
+        this.id = null;
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.createdAt = Instant.now();
+    }
+
+    /**
+     * Creates a new pending message for the given event.
+     *
+     * @param event must not be {@literal null}
+     * @return a new message
+     */
+    public static OutboxMessage of(DurableEvent event) {
+        Assert.notNull(event, "Event must not be null");
+        return new OutboxMessage(event.getClass().getSimpleName(), event.getAggregateId());
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+            .append("id", id)
+            .append("type", type)
+            .append("aggregateId", aggregateId)
+            .append("createdAt", createdAt)
+            .append("publishedAt", publishedAt)
+            .append("attempts", attempts)
+            .toString();
+    }
+
+    /**
+     * Value object representing an outbox message's primary identifier.
+     *
+     * @author Vincent Nadoll
+     */
+    @Embeddable
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static final class Id extends Identifier {
+        public Id(@NonNull UUID id) {
+            super(id);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package de.team7.swt.domain.infrastructure.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JPA {@link org.springframework.data.repository.Repository} for managing {@link OutboxMessage} instances.
+ *
+ * @author Vincent Nadoll
+ */
+public interface OutboxMessages extends JpaRepository<OutboxMessage, OutboxMessage.Id> {
+
+    /**
+     * Returns the oldest pending messages which haven't exceeded the given number of delivery attempts.
+     *
+     * @param maxAttempts the maximum number of delivery attempts
+     * @param pageable    must not be {@literal null}
+     * @return all found messages ordered by their creation; never {@literal null}
+     */
+    @Query("select m from OutboxMessage m "
+        + "where m.publishedAt is null and m.attempts < :maxAttempts "
+        + "order by m.createdAt")
+    List<OutboxMessage> findPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    /**
+     * Marks the message of the given ID as published.
+     *
+     * @param id          must not be {@literal null}
+     * @param publishedAt must not be {@literal null}
+     * @return the number of updated messages
+     */
+    @Modifying
+    @Query("update OutboxMessage m set m.publishedAt = :publishedAt where m.id = :id")
+    int markPublished(@Param("id") OutboxMessage.Id id, @Param("publishedAt") Instant publishedAt);
+
+    /**
+     * Records a failed delivery attempt of the message of the given ID.
+     *
+     * @param id    must not be {@literal null}
+     * @param error must not be {@literal null}
+     * @return the number of updated messages
+     */
+    @Modifying
+    @Query("update OutboxMessage m set m.attempts = m.attempts + 1, m.lastError = :error where m.id = :id")
+    int recordFailure(@Param("id") OutboxMessage.Id id, @Param("error") String error);
+}
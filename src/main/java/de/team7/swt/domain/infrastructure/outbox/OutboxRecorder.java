@@ -0,0 +1,35 @@
+package de.team7.swt.domain.infrastructure.outbox;
+
+import de.team7.swt.domain.shared.DurableEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores each published {@link DurableEvent} as {@link OutboxMessage} within the transaction the event has been
+ * published in, i.e. the one saving its aggregate.
+ *
+ * @author Vincent Nadoll
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "dyob.outbox.enabled", havingValue = "true")
+class OutboxRecorder {
+
+    private final OutboxMessages messages;
+
+    /**
+     * {@link EventListener} for recording {@link DurableEvent}s.
+     *
+     * @param event must not be {@literal null}
+     * @throws org.springframework.transaction.IllegalTransactionStateException in case there's no transaction
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void on(DurableEvent event) {
+        messages.save(OutboxMessage.of(event));
+    }
+}
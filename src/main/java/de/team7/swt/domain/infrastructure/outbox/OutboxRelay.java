@@ -0,0 +1,89 @@
+package de.team7.swt.domain.infrastructure.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Relays pending {@link OutboxMessage}s as {@link OutboxEvent}s to their listeners. Messages are fetched in batches
+ * and each batch is delivered within a single transaction, which also marks its messages as published. If any
+ * delivery fails, the batch is rolled back and its messages are delivered one by one, so a failing message doesn't
+ * hold back the others. Failed messages are retried until they exceed the maximum number of attempts.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dyob.outbox.enabled", havingValue = "true")
+class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final OutboxMessages messages;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    OutboxRelay(OutboxMessages messages, ApplicationEventPublisher publisher,
+                PlatformTransactionManager transactionManager,
+                @Value("${dyob.outbox.batch-size:100}") int batchSize,
+                @Value("${dyob.outbox.max-attempts:10}") int maxAttempts) {
+        Assert.isTrue(batchSize > 0, "Batch size must be positive");
+        Assert.isTrue(maxAttempts > 0, "Maximum number of attempts must be positive");
+
+        this.messages = messages;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Relays pending messages batch by batch until there are no more full batches or a batch failed.
+     */
+    @Scheduled(fixedDelayString = "${dyob.outbox.relay-interval:500}")
+    void relay() {
+        List<OutboxMessage> batch;
+        do {
+            batch = messages.findPending(maxAttempts, PageRequest.of(0, batchSize));
+        } while (!batch.isEmpty() && publish(batch) && batch.size() == batchSize);
+    }
+
+    private boolean publish(List<OutboxMessage> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::deliver));
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Failed to relay batch of {} outbox messages, relaying them one by one", batch.size(), e);
+            batch.forEach(this::publish);
+            return false;
+        }
+    }
+
+    private void publish(OutboxMessage message) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> deliver(message));
+        } catch (RuntimeException e) {
+            log.warn("Failed to relay outbox message {} (attempt {})", message.getId(), message.getAttempts() + 1, e);
+            transactionTemplate.executeWithoutResult(status ->
+                messages.recordFailure(message.getId(), StringUtils.abbreviate(e.toString(), MAX_ERROR_LENGTH)));
+        }
+    }
+
+    private void deliver(OutboxMessage message) {
+        publisher.publishEvent(OutboxEvent.of(message));
+        messages.markPublished(message.getId(), Instant.now());
+    }
+}
@@ -0,0 +1,41 @@
+package de.team7.swt.domain.infrastructure.retry;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryOperations;
+import org.springframework.util.Assert;
+
+import java.util.function.Supplier;
+
+/**
+ * Executes a unit of work which may fail due to concurrent modifications, e.g. an optimistic locking conflict, and
+ * re-executes it according to the underlying {@link RetryOperations}. Each execution must span its own transaction,
+ * since a transaction that failed due to a conflict can only be rolled back.
+ *
+ * @author Vincent Nadoll
+ * @see org.springframework.dao.ConcurrencyFailureException
+ */
+@RequiredArgsConstructor
+public class ConcurrencyRetry {
+
+    private final RetryOperations retryOperations;
+
+    /**
+     * Executes the given unit of work and retries it in case of a concurrency conflict.
+     *
+     * @param operation must not be {@literal null} or empty; used to label the execution's metrics
+     * @param work      must not be {@literal null}
+     * @param <T>       the type of the work's result
+     * @return the result of the first successful execution
+     * @throws org.springframework.dao.ConcurrencyFailureException in case the conflict persists after the last attempt
+     */
+    public <T> T execute(String operation, Supplier<T> work) {
+        Assert.hasText(operation, "Operation must not be empty");
+        Assert.notNull(work, "Work must not be null");
+
+        return retryOperations.<T, RuntimeException>execute(context -> {
+            context.setAttribute(RetryContext.NAME, operation);
+            return work.get();
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package de.team7.swt.domain.infrastructure.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.backoff.ExponentialRandomBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.Map;
+
+/**
+ * Configures the retry policy applied to units of work which may fail due to concurrent modifications. Attempts are
+ * spread using an exponential backoff with random jitter, so conflicting callers don't collide again in lockstep.
+ *
+ * @author Vincent Nadoll
+ */
+@Configuration
+class ConcurrencyRetryConfiguration {
+
+    @Bean
+    public ConcurrencyRetry concurrencyRetry(MeterRegistry meterRegistry,
+                                             @Value("${dyob.retry.max-attempts:5}") int maxAttempts,
+                                             @Value("${dyob.retry.initial-interval:10}") long initialInterval,
+                                             @Value("${dyob.retry.multiplier:2.0}") double multiplier,
+                                             @Value("${dyob.retry.max-interval:250}") long maxInterval) {
+        SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy(maxAttempts,
+            Map.of(ConcurrencyFailureException.class, true), true);
+
+        ExponentialRandomBackOffPolicy backOffPolicy = new ExponentialRandomBackOffPolicy();
+        backOffPolicy.setInitialInterval(initialInterval);
+        backOffPolicy.setMultiplier(multiplier);
+        backOffPolicy.setMaxInterval(maxInterval);
+
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(retryPolicy);
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+        retryTemplate.registerListener(new ConcurrencyRetryMetrics(meterRegistry));
+        return new ConcurrencyRetry(retryTemplate);
+    }
+}
@@ -0,0 +1,86 @@
+package de.team7.swt.domain.infrastructure.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.listener.RetryListenerSupport;
+import org.springframework.util.ClassUtils;
+
+import java.util.Optional;
+
+/**
+ * {@link org.springframework.retry.RetryListener} recording concurrency conflicts, retries and exhausted executions
+ * as Micrometer counters. Conflicts are tagged with the affected entity type, while the conflicting identifier is
+ * logged to locate hot aggregates.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@RequiredArgsConstructor
+class ConcurrencyRetryMetrics extends RetryListenerSupport {
+
+    static final String CONFLICTS = "dyob.concurrency.conflicts";
+    static final String RETRIES = "dyob.concurrency.retries";
+    static final String EXHAUSTED = "dyob.concurrency.exhausted";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        Optional<ConcurrencyFailureException> conflict = findConflict(throwable);
+        if (conflict.isEmpty()) {
+            return;
+        }
+
+        String entity = conflict
+            .filter(ObjectOptimisticLockingFailureException.class::isInstance)
+            .map(ObjectOptimisticLockingFailureException.class::cast)
+            .map(ObjectOptimisticLockingFailureException::getPersistentClassName)
+            .map(ClassUtils::getShortName)
+            .orElse(UNKNOWN);
+        meterRegistry.counter(CONFLICTS, tagsOf(context).and("entity", entity)).increment();
+        log.debug("Concurrency conflict #{} during {}: {}", context.getRetryCount(), operationOf(context),
+            conflict.get().getMessage());
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        boolean exhausted = findConflict(throwable).isPresent();
+        int retries = context.getRetryCount() - (exhausted ? 1 : 0);
+        if (retries > 0) {
+            meterRegistry.counter(RETRIES, tagsOf(context)).increment(retries);
+        }
+        if (exhausted) {
+            meterRegistry.counter(EXHAUSTED, tagsOf(context)).increment();
+            log.warn("Gave up {} after {} conflicting attempts", operationOf(context), context.getRetryCount());
+        }
+    }
+
+    private static Optional<ConcurrencyFailureException> findConflict(Throwable throwable) {
+        for (Throwable cause = throwable; null != cause; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException) {
+                return Optional.of((ConcurrencyFailureException) cause);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Tags tagsOf(RetryContext context) {
+        return Tags.of("operation", operationOf(context));
+    }
+
+    private static String operationOf(RetryContext context) {
+        return Optional.ofNullable(context.getAttribute(RetryContext.NAME))
+            .map(String::valueOf)
+            .orElse(UNKNOWN);
+    }
+}
@@ -0,0 +1,17 @@
+package de.team7.swt.domain.shared;
+
+/**
+ * Marks events registered by an {@link AggregateRoot} which must not get lost. If the outbox is enabled, such events
+ * are stored within the transaction saving the aggregate and relayed to their listeners afterwards.
+ *
+ * @author Vincent Nadoll
+ */
+public interface DurableEvent {
+
+    /**
+     * Returns the identifier of the aggregate which registered this event, so listeners are able to load it again.
+     *
+     * @return the aggregate's identifier
+     */
+    String getAggregateId();
+}
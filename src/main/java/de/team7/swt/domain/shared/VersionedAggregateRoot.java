@@ -0,0 +1,30 @@
+package de.team7.swt.domain.shared;
+
+import org.springframework.lang.Nullable;
+
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
+
+/**
+ * {@link AggregateRoot} opting in to optimistic locking. Each successful update increments the aggregate's version, so
+ * concurrent modifications of the same aggregate are detected on flush instead of silently overwriting each other.
+ *
+ * @author Vincent Nadoll
+ * @see org.springframework.orm.ObjectOptimisticLockingFailureException
+ */
+@MappedSuperclass
+public abstract class VersionedAggregateRoot<ID extends Identifier> extends AggregateRoot<ID> {
+
+    @Version
+    private Long version;
+
+    /**
+     * Returns this aggregate's current version.
+     *
+     * @return the version or {@literal null} if this aggregate has not been persisted yet
+     */
+    @Nullable
+    protected Long getVersion() {
+        return version;
+    }
+}
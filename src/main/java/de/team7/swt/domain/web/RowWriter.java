@@ -0,0 +1,210 @@
+package de.team7.swt.domain.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Writes rows of an export one at a time to an {@link OutputStream}, thus an export is never held in memory as a whole.
+ * Each row is written as the same set of {@link Column}s, either as a flat JSON object per line or as a CSV record.
+ *
+ * @param <T> the type of rows
+ * @author Vincent Nadoll
+ */
+@RequiredArgsConstructor
+public abstract class RowWriter<T> implements Consumer<T> {
+
+    protected final List<Column<T>> columns;
+
+    /**
+     * Creates a new writer of the given format.
+     *
+     * @param format       must not be {@literal null}
+     * @param columns      must not be {@literal null} or empty
+     * @param output       must not be {@literal null}
+     * @param objectMapper must not be {@literal null}
+     * @param <T>          the type of rows
+     * @return a new writer
+     * @throws IOException if the output could not be written
+     */
+    public static <T> RowWriter<T> create(Format format, List<Column<T>> columns, OutputStream output,
+                                          ObjectMapper objectMapper) throws IOException {
+        Assert.notNull(format, "Format must not be null");
+        Assert.notEmpty(columns, "Columns must not be empty");
+        Assert.notNull(output, "Output must not be null");
+        Assert.notNull(objectMapper, "Object mapper must not be null");
+
+        return Format.CSV == format
+            ? new CsvRowWriter<>(columns, output)
+            : new NdjsonRowWriter<>(columns, output, objectMapper);
+    }
+
+    /**
+     * Writes the given row.
+     *
+     * @param row must not be {@literal null}
+     * @throws IOException if the output could not be written
+     */
+    public abstract void write(T row) throws IOException;
+
+    /**
+     * Writes the given row, so the writer can be passed to exporters consuming rows.
+     *
+     * @param row must not be {@literal null}
+     * @throws UncheckedIOException if the output could not be written
+     */
+    @Override
+    public void accept(T row) {
+        try {
+            write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes all buffered rows to the underlying output stream without closing it.
+     *
+     * @throws IOException if the output could not be written
+     */
+    public abstract void flush() throws IOException;
+
+    /**
+     * A named column whose value is extracted from each row.
+     *
+     * @param <T> the type of rows
+     * @author Vincent Nadoll
+     */
+    @Value(staticConstructor = "of")
+    public static class Column<T> {
+        String name;
+        Function<T, ?> extractor;
+    }
+
+    /**
+     * Enumeration of the supported export formats.
+     *
+     * @author Vincent Nadoll
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        CSV(MediaType.valueOf("text/csv")),
+        ;
+
+        private final MediaType mediaType;
+
+        /**
+         * Returns the format most preferred by the given {@literal Accept} header. NDJSON is preferred if any format is
+         * acceptable.
+         *
+         * @param accept the request's {@literal Accept} header, must not be {@literal null}
+         * @return the negotiated format
+         * @throws HttpMediaTypeNotAcceptableException if none of the formats is acceptable
+         */
+        public static Format negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+            Assert.notNull(accept, "Accept must not be null");
+
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(mediaTypes);
+            for (MediaType mediaType : mediaTypes) {
+                for (Format format : values()) {
+                    if (mediaType.includes(format.mediaType)) {
+                        return format;
+                    }
+                }
+            }
+            throw new HttpMediaTypeNotAcceptableException(Arrays.asList(NDJSON.mediaType, CSV.mediaType));
+        }
+    }
+
+    private static final class NdjsonRowWriter<T> extends RowWriter<T> {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(List<Column<T>> columns, OutputStream output, ObjectMapper objectMapper) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (Column<T> column : columns) {
+                generator.writeFieldName(column.name);
+                generator.writeObject(column.extractor.apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter<T> extends RowWriter<T> {
+
+        private final Writer writer;
+
+        CsvRowWriter(List<Column<T>> columns, OutputStream output) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+            for (int i = 0; i < columns.size(); i++) {
+                writeField(i, columns.get(i).name);
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                Object value = columns.get(i).extractor.apply(row);
+                writeField(i, null == value ? "" : value.toString());
+            }
+            writer.write('\n');
+        }
+
+        private void writeField(int index, String value) throws IOException {
+            if (index > 0) {
+                writer.write(',');
+            }
+
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+                writer.write(value);
+            } else {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.StockLevel;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of all products' {@link StockLevel}s ordered by their headroom, so the products which are low on
+ * stock are always at its head. The index is built from the {@link StockKeeper} once the application is ready and is
+ * kept up to date by applying each committed stock change. Products which are unknown to the index, e.g. because their
+ * item was added later on, are loaded once their stock changes. They are loaded before their entry is updated, so the
+ * database is never queried while an entry is locked.
+ * <p>
+ * A {@link StockThresholdCrossed} event is published whenever a product's stock reaches its reorder threshold or is
+ * replenished above it.
+ *
+ * @author Vincent Nadoll
+ */
+@Service
+public class LowStockIndex {
+
+    private static final Comparator<StockLevel> BY_HEADROOM = Comparator.comparing(StockLevel::getHeadroom)
+        .thenComparing(StockLevel::getProductId);
+
+    private final ConcurrentMap<Product.Id, StockLevel> levels = new ConcurrentHashMap<>();
+    private final NavigableSet<StockLevel> byHeadroom = new ConcurrentSkipListSet<>(BY_HEADROOM);
+
+    private final Inventory inventory;
+    private final StockKeeper stockKeeper;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+
+    LowStockIndex(Inventory inventory, StockKeeper stockKeeper, ApplicationEventPublisher publisher,
+                  PlatformTransactionManager transactionManager) {
+        this.inventory = inventory;
+        this.stockKeeper = stockKeeper;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Builds the index from all items in the {@link Inventory}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuild() {
+        List<InventoryItem> items = inventory.findAll();
+        Map<Product.Id, Quantity> stock = stockKeeper.getStock(items.stream()
+            .map(item -> item.getProduct().getId())
+            .collect(Collectors.toSet()));
+        items.forEach(item -> update(item.getProduct().getId(), level -> null != level ? level
+            : toStockLevel(item, stock.get(item.getProduct().getId()))));
+    }
+
+    /**
+     * Returns the products which are low on stock, lowest headroom first. Only the returned levels are visited, thus
+     * the costs don't depend on the size of the inventory.
+     *
+     * @param limit the maximum number of levels
+     * @return the levels of all products which are low on stock; never {@literal null}
+     */
+    public List<StockLevel> getLowStock(int limit) {
+        Assert.isTrue(limit >= 0, "Limit must not be negative");
+        return byHeadroom.stream()
+            .takeWhile(StockLevel::isLow)
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the indexed stock level of the given product.
+     *
+     * @param productId must not be {@literal null}
+     * @return the product's stock level or {@literal null} if the product is not indexed
+     */
+    @Nullable
+    public StockLevel getStockLevel(Product.Id productId) {
+        Assert.notNull(productId, "Product ID must not be null");
+        return levels.get(productId);
+    }
+
+    /**
+     * Adds the given, possibly negative, offset to the product's indexed stock once the current transaction, if any,
+     * has been committed. Thus, the index doesn't reflect changes which are rolled back.
+     *
+     * @param productId must not be {@literal null}
+     * @param offset    must not be {@literal null}
+     */
+    public void adjust(Product.Id productId, Quantity offset) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(offset, "Offset must not be null");
+        afterCommit(() -> {
+            StockLevel loaded = loadIfAbsent(productId);
+            update(productId, level -> null == level
+                ? loaded
+                : level.withQuantity(level.getQuantity().add(offset)));
+        });
+    }
+
+    /**
+     * Sets the product's indexed reorder threshold once the current transaction, if any, has been committed.
+     *
+     * @param productId must not be {@literal null}
+     * @param threshold must not be {@literal null}
+     */
+    public void setReorderThreshold(Product.Id productId, Quantity threshold) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(threshold, "Reorder threshold must not be null");
+        afterCommit(() -> {
+            StockLevel loaded = loadIfAbsent(productId);
+            update(productId, level -> {
+                StockLevel current = null == level ? loaded : level;
+                return null == current ? null : current.withReorderThreshold(threshold);
+            });
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void update(Product.Id productId, UnaryOperator<StockLevel> change) {
+        StockLevel[] previous = new StockLevel[1];
+        StockLevel next = levels.compute(productId, (key, level) -> {
+            previous[0] = level;
+            StockLevel changed = change.apply(level);
+            if (null != level) {
+                byHeadroom.remove(level);
+            }
+            if (null != changed) {
+                byHeadroom.add(changed);
+            }
+            return changed;
+        });
+
+        if (null != next && (null == previous[0] ? next.isLow() : previous[0].isLow() != next.isLow())) {
+            publisher.publishEvent(StockThresholdCrossed.of(next));
+        }
+    }
+
+    @Nullable
+    private StockLevel loadIfAbsent(Product.Id productId) {
+        if (levels.containsKey(productId)) {
+            return null;
+        }
+        return transactionTemplate.execute(status -> inventory.findByProductId(productId)
+            .map(item -> toStockLevel(item, stockKeeper.getStock(Set.of(productId)).get(productId)))
+            .orElse(null));
+    }
+
+    private static StockLevel toStockLevel(InventoryItem item, @Nullable Quantity stock) {
+        Quantity quantity = null == stock ? item.getQuantity() : stock;
+        return StockLevel.of(item.getProduct().getId(), item.getProduct().getName(), quantity,
+            item.getReorderThreshold());
+    }
+}
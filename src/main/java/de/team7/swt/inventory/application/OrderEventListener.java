@@ -1,21 +1,49 @@
 package de.team7.swt.inventory.application;
 
 import de.team7.swt.checkout.application.OrderCompleted;
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
 import de.team7.swt.checkout.model.OrderCompletionFailure;
-import lombok.RequiredArgsConstructor;
+import de.team7.swt.checkout.model.Reservations;
+import de.team7.swt.domain.infrastructure.outbox.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
 
 /**
- * Component listening on events emitted by the checkout component.
+ * Component listening on events emitted by the checkout component. If the outbox is enabled, completed orders are
+ * verified once their {@link OrderCompleted} event is relayed instead of while the order is saved.
  *
  * @author Vincent Nadoll
  */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 class OrderEventListener {
 
     private final OrderHandler handler;
+    private final OrderRepository orders;
+    private final Reservations reservations;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean outbox;
+
+    OrderEventListener(OrderHandler handler, OrderRepository orders, Reservations reservations,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${dyob.outbox.enabled:false}") boolean outbox) {
+        this.handler = handler;
+        this.orders = orders;
+        this.reservations = reservations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.outbox = outbox;
+    }
 
     /**
      * {@link EventListener} for listening on the {@link OrderCompleted} event.
@@ -25,6 +53,55 @@ class OrderEventListener {
      */
     @EventListener
     public void on(OrderCompleted event) throws OrderCompletionFailure {
-        handler.verify(event.getOrder());
+        if (!outbox) {
+            handler.verify(event.getOrder());
+        }
+    }
+
+    /**
+     * {@link EventListener} for listening on relayed {@link OrderCompleted} events. Orders which aren't completed, e.g.
+     * because a previous delivery has failed them, are skipped. If the order could not be verified successfully, it is
+     * marked as failed once the delivery's transaction has been rolled back, so its redelivery is skipped. The holds of
+     * the cart the order has been placed from are released as well, since the cart has been checked out already.
+     *
+     * @param event must not be {@literal null}
+     * @throws OrderCompletionFailure in case the order could not be verified successfully
+     */
+    @EventListener(condition = "#event.type == 'OrderCompleted'")
+    public void on(OutboxEvent event) throws OrderCompletionFailure {
+        Order.Id orderId = new Order.Id(UUID.fromString(event.getAggregateId()));
+        Order order = orders.findById(orderId).orElse(null);
+        if (null == order || Order.Status.COMPLETED != order.getStatus()) {
+            log.debug("Skipping verification of order {} which is not completed", orderId);
+            return;
+        }
+
+        try {
+            handler.verify(order);
+        } catch (OrderCompletionFailure e) {
+            failOnRollback(orderId);
+            throw e;
+        }
+    }
+
+    private void failOnRollback(Order.Id orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (STATUS_ROLLED_BACK == status) {
+                    transactionTemplate.executeWithoutResult(failed -> orders.findById(orderId)
+                        .filter(order -> Order.Status.COMPLETED == order.getStatus())
+                        .ifPresent(order -> {
+                            order.fail();
+                            orders.save(order);
+                            order.getCartId().ifPresent(reservations::release);
+                        }));
+                }
+            }
+        });
     }
 }
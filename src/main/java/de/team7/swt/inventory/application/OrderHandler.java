@@ -2,20 +2,25 @@ package de.team7.swt.inventory.application;
 
 import de.team7.swt.checkout.application.LineItemCompletion;
 import de.team7.swt.checkout.application.OrderCompletionReport;
+import de.team7.swt.checkout.model.Cart;
 import de.team7.swt.checkout.model.LineItem;
 import de.team7.swt.checkout.model.Order;
 import de.team7.swt.checkout.model.OrderCompletionFailure;
 import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.MetricMismatchException;
 import de.team7.swt.domain.quantity.Quantity;
-import de.team7.swt.inventory.infrastructure.Inventory;
-import de.team7.swt.inventory.model.InsufficientQuantityException;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
 import de.team7.swt.inventory.model.InventoryItem;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.util.Streamable;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Interface between inventory and checkout component handling quantity checks and updates on {@link InventoryItem}s.
@@ -27,51 +32,57 @@ import java.util.List;
 @RequiredArgsConstructor
 class OrderHandler {
 
-    private final Inventory inventory;
+    private final StockKeeper stockKeeper;
+    private final StockReservations reservations;
+    private final LowStockIndex lowStockIndex;
 
     /**
-     * Verifies the order and decreases its item quantity by the amount of ordered items.
+     * Verifies the order and decreases its item quantity by the amount of ordered items. The stock of all products
+     * related to the order is looked up at once, while each decrease is applied atomically by the {@link StockKeeper},
+     * so concurrent orders cannot oversell an item. Each decrease consumes the hold of the cart the order has been
+     * placed from, whereas stock held for other carts is unavailable. The cart's remaining holds are released and each
+     * decrease is applied to the {@link LowStockIndex} once the transaction has been committed.
      *
      * @param order must not be {@literal null}
      * @throws OrderCompletionFailure in case the order could not be completed successfully
      */
+    @Transactional
     void verify(Order order) throws OrderCompletionFailure {
         Assert.notNull(order, "Order must not be null");
-        List<LineItemCompletion> completions = order.map(this::verify).toList();
+
+        Set<Product.Id> productIds = order.map(LineItem::getProductId).toSet();
+        Map<Product.Id, Quantity> stock = stockKeeper.getStock(productIds);
+        Cart.Id cartId = order.getCartId().orElse(null);
+        List<LineItemCompletion> completions = order.map(lineItem -> verify(lineItem, stock, cartId)).toList();
         OrderCompletionReport.of(order, Streamable.of(completions)).verify();
+        order.getCartId().ifPresent(reservations::releaseAfterCommit);
     }
 
-    private LineItemCompletion verify(LineItem lineItem) {
-        Product.Id productId = lineItem.getProductId();
-        return inventory.findByProductId(productId)
-            .map(inventoryItem -> verify(inventoryItem, lineItem))
-            .orElseGet(() -> LineItemCompletion.skip(lineItem));
+    private LineItemCompletion verify(LineItem lineItem, Map<Product.Id, Quantity> stock, @Nullable Cart.Id cartId) {
+        Quantity available = stock.get(lineItem.getProductId());
+        return null == available
+            ? LineItemCompletion.skip(lineItem)
+            : verify(available, lineItem, cartId);
     }
 
-    private LineItemCompletion verify(InventoryItem inventoryItem, LineItem lineItem) {
+    private LineItemCompletion verify(Quantity available, LineItem lineItem, @Nullable Cart.Id cartId) {
         Quantity quantity = lineItem.getQuantity();
 
         if (quantity.isNegative()) {
             return LineItemCompletion.error(lineItem, "Requested amount must not be negative");
         } else if (quantity.isZero()) {
             return LineItemCompletion.skip(lineItem);
-        } else if (!inventoryItem.hasSufficientStock(quantity)) {
+        }
+
+        if (!available.isCompatibleWith(quantity.getMetric())) {
+            throw new MetricMismatchException(available.getMetric(), quantity.getMetric());
+        }
+        if (!reservations.consume(cartId, lineItem.getProductId(), quantity)) {
             return LineItemCompletion.error(lineItem, "Number of items requested by the line item is greater than "
                 + "the number of available items");
         }
+        lowStockIndex.adjust(lineItem.getProductId(), quantity.toZero().subtract(quantity));
 
-        LineItemCompletion success = LineItemCompletion.success(lineItem);
-        decreaseQuantityAndSave(inventoryItem, quantity);
-        return success;
-    }
-
-    private void decreaseQuantityAndSave(InventoryItem item, Quantity quantity) {
-        try {
-            item.decrease(quantity);
-            inventory.save(item);
-        } catch (InsufficientQuantityException e) {
-            // shouldn't occur
-            throw new IllegalStateException(e);
-        }
+        return LineItemCompletion.success(lineItem);
     }
 }
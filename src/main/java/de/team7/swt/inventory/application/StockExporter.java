@@ -0,0 +1,39 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.StockRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Exports the stock of all inventory items. Rows are read from a database cursor and passed on one at a time, thus the
+ * memory needed doesn't depend on the size of the inventory. The exported quantities are the ones persisted in the
+ * {@link Inventory}, i.e. stock keepers buffering changes in memory write them back within their flush interval.
+ *
+ * @author Vincent Nadoll
+ */
+@Service
+@RequiredArgsConstructor
+public class StockExporter {
+
+    private final Inventory inventory;
+
+    /**
+     * Passes the stock rows of all inventory items to the given consumer, one at a time.
+     *
+     * @param rows must not be {@literal null}
+     */
+    @Transactional(readOnly = true)
+    public void export(Consumer<StockRow> rows) {
+        Assert.notNull(rows, "Rows must not be null");
+
+        try (Stream<StockRow> stream = inventory.streamStockRows()) {
+            stream.forEach(rows);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.infrastructure.ManualAdjustments;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import de.team7.swt.inventory.model.ManualAdjustment;
+import de.team7.swt.inventory.model.StockAdjustment;
+import de.team7.swt.inventory.model.StockAdjustmentResult;
+import de.team7.swt.inventory.model.StockTarget;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+
+/**
+ * Applies bulk stock adjustments, e.g. once a delivery arrived. Adjustments are consumed batch by batch, so an import
+ * never has to be held in memory at once. The products of a batch are resolved using a single query per kind of
+ * reference and all of its adjustments are applied within a single transaction. If the transaction fails, e.g. due to
+ * a concurrent modification, the batch's adjustments are applied one by one.
+ * <p>
+ * The persistence context is cleared after each batch. When importing within a request, e.g. while streaming the
+ * response, the request's entity manager is kept open and would otherwise accumulate every entity an import loaded.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Service
+public class StockImporter {
+
+    private final Inventory inventory;
+    private final StockKeeper stockKeeper;
+    private final LowStockIndex lowStockIndex;
+    private final StockOverview stockOverview;
+    private final ManualAdjustments manualAdjustments;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    StockImporter(Inventory inventory, StockKeeper stockKeeper, LowStockIndex lowStockIndex,
+                  StockOverview stockOverview, ManualAdjustments manualAdjustments,
+                  PlatformTransactionManager transactionManager, EntityManager entityManager,
+                  @Value("${dyob.inventory.import.batch-size:500}") int batchSize) {
+        Assert.isTrue(batchSize > 0, "Batch size must be positive");
+
+        this.inventory = inventory;
+        this.stockKeeper = stockKeeper;
+        this.lowStockIndex = lowStockIndex;
+        this.stockOverview = stockOverview;
+        this.manualAdjustments = manualAdjustments;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Applies the given adjustments batch by batch. The results of a batch are passed to the given consumer in the
+     * order of its adjustments once the batch has been applied.
+     *
+     * @param adjustments must not be {@literal null}
+     * @param results     must not be {@literal null}
+     */
+    public void apply(Iterator<StockAdjustment> adjustments, Consumer<StockAdjustmentResult> results) {
+        Assert.notNull(adjustments, "Adjustments must not be null");
+        Assert.notNull(results, "Results must not be null");
+
+        List<StockAdjustment> batch = new ArrayList<>(batchSize);
+        try {
+            while (adjustments.hasNext()) {
+                batch.add(adjustments.next());
+                if (batch.size() == batchSize) {
+                    apply(batch).forEach(results);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                apply(batch).forEach(results);
+            }
+        } finally {
+            stockOverview.evict();
+        }
+    }
+
+    private List<StockAdjustmentResult> apply(List<StockAdjustment> batch) {
+        try {
+            return applyBatch(batch);
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private List<StockAdjustmentResult> applyBatch(List<StockAdjustment> batch) {
+        Targets targets = resolve(batch);
+        try {
+            return transactionTemplate.execute(status -> batch.stream()
+                .map(adjustment -> apply(adjustment, targets))
+                .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            log.debug("Failed to apply batch of {} stock adjustments, applying them one by one", batch.size(), e);
+            return batch.stream()
+                .map(adjustment -> applySafely(adjustment, targets))
+                .collect(Collectors.toList());
+        }
+    }
+
+    private StockAdjustmentResult applySafely(StockAdjustment adjustment, Targets targets) {
+        try {
+            return apply(adjustment, targets);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply stock adjustment of row {}", adjustment.getRow(), e);
+            return StockAdjustmentResult.of(adjustment, null, StockAdjustmentResult.Status.FAILED, e.getMessage());
+        }
+    }
+
+    private StockAdjustmentResult apply(StockAdjustment adjustment, Targets targets) {
+        if (!adjustment.isValid()) {
+            return StockAdjustmentResult.of(adjustment, null, StockAdjustmentResult.Status.INVALID,
+                adjustment.getError());
+        } else if (targets.ambiguous.contains(adjustment.getProduct())) {
+            return StockAdjustmentResult.of(adjustment, null, StockAdjustmentResult.Status.INVALID,
+                "Multiple products are named " + adjustment.getProduct());
+        }
+
+        StockTarget target = targets.byReference.get(adjustment.getProduct());
+        if (null == target) {
+            return StockAdjustmentResult.of(adjustment, null, StockAdjustmentResult.Status.UNKNOWN_PRODUCT, null);
+        }
+
+        Quantity offset = Quantity.of(adjustment.getOffset(), target.getMetric());
+        if (!stockKeeper.adjust(target.getProductId(), offset)) {
+            return StockAdjustmentResult.of(adjustment, target.getProductId(),
+                StockAdjustmentResult.Status.INSUFFICIENT_STOCK, null);
+        }
+
+        if (!offset.isZero()) {
+            lowStockIndex.adjust(target.getProductId(), offset);
+            manualAdjustments.save(new ManualAdjustment(target.getProductId(), offset));
+        }
+        return StockAdjustmentResult.of(adjustment, target.getProductId(), StockAdjustmentResult.Status.ADJUSTED,
+            null);
+    }
+
+    private Targets resolve(List<StockAdjustment> batch) {
+        Map<String, Product.Id> ids = new HashMap<>();
+        Set<String> names = new HashSet<>();
+        batch.stream()
+            .filter(StockAdjustment::isValid)
+            .map(StockAdjustment::getProduct)
+            .forEach(reference -> parseId(reference).ifPresentOrElse(id -> ids.put(reference, id),
+                () -> names.add(reference)));
+
+        Targets targets = new Targets();
+        if (!ids.isEmpty()) {
+            Map<Product.Id, StockTarget> byId = inventory.findTargetsByProductIdIn(ids.values()).stream()
+                .collect(Collectors.toMap(StockTarget::getProductId, target -> target));
+            ids.forEach((reference, id) -> Optional.ofNullable(byId.get(id))
+                .ifPresent(target -> targets.byReference.put(reference, target)));
+        }
+        if (!names.isEmpty()) {
+            for (StockTarget target : inventory.findTargetsByProductNameIn(names)) {
+                if (null != targets.byReference.putIfAbsent(target.getProductName(), target)) {
+                    targets.ambiguous.add(target.getProductName());
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static Optional<Product.Id> parseId(String reference) {
+        try {
+            return Optional.of(new Product.Id(UUID.fromString(reference)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The products a batch's adjustments refer to.
+     */
+    private static final class Targets {
+        private final Map<String, StockTarget> byReference = new HashMap<>();
+        private final Set<String> ambiguous = new HashSet<>();
+    }
+}
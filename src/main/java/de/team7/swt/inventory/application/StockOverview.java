@@ -0,0 +1,128 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import de.team7.swt.inventory.model.StockRow;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Provides the pages of the stock overview. Pages are projected from the {@link Inventory} and cached until the stock
+ * is edited or they expire, so browsing the overview doesn't query the inventory over and over again. Each page's
+ * quantities are read from the {@link StockKeeper} on every request though, thus they never lag behind completed
+ * orders.
+ *
+ * @author Vincent Nadoll
+ */
+@Service
+public class StockOverview {
+
+    private static final int MAX_CACHED_PAGES = 256;
+
+    private final ConcurrentMap<PageKey, Cached<Page<StockRow>>> pages = new ConcurrentHashMap<>();
+
+    private final Inventory inventory;
+    private final StockKeeper stockKeeper;
+    private final long timeToLive;
+
+    private volatile Cached<List<String>> categories;
+
+    StockOverview(Inventory inventory, StockKeeper stockKeeper,
+                  @Value("${dyob.inventory.overview.cache-ttl:30s}") Duration timeToLive) {
+        Assert.isTrue(!timeToLive.isNegative(), "Time to live must not be negative");
+
+        this.inventory = inventory;
+        this.stockKeeper = stockKeeper;
+        this.timeToLive = timeToLive.toNanos();
+    }
+
+    /**
+     * Returns a page of stock rows matching the given filters, each containing the product's current stock.
+     *
+     * @param name     a part of the product's name, case-insensitive, can be {@literal null}
+     * @param category the category the product must be assigned to, can be {@literal null}
+     * @param pageable must not be {@literal null}
+     * @return the requested page; never {@literal null}
+     */
+    public Page<StockRow> getPage(@Nullable String name, @Nullable String category, Pageable pageable) {
+        Assert.notNull(pageable, "Pageable must not be null");
+
+        long now = System.nanoTime();
+        PageKey key = PageKey.of(name, category, pageable);
+        Cached<Page<StockRow>> cached = pages.get(key);
+        if (null == cached || cached.isExpired(now)) {
+            if (pages.size() >= MAX_CACHED_PAGES) {
+                pages.clear();
+            }
+            cached = Cached.of(inventory.findStockRows(name, category, pageable), now + timeToLive);
+            pages.put(key, cached);
+        }
+
+        return withCurrentStock(cached.getValue());
+    }
+
+    private Page<StockRow> withCurrentStock(Page<StockRow> rows) {
+        Map<Product.Id, Quantity> stock = stockKeeper.getStock(rows.stream()
+            .map(StockRow::getProductId)
+            .collect(Collectors.toSet()));
+        return rows.map(row -> row.withQuantity(stock.getOrDefault(row.getProductId(), row.getQuantity())));
+    }
+
+    /**
+     * Returns the categories of all products in the inventory.
+     *
+     * @return all categories in alphabetical order; never {@literal null}
+     */
+    public List<String> getCategories() {
+        long now = System.nanoTime();
+        Cached<List<String>> cached = categories;
+        if (null == cached || cached.isExpired(now)) {
+            cached = Cached.of(inventory.findCategories(), now + timeToLive);
+            categories = cached;
+        }
+        return cached.getValue();
+    }
+
+    /**
+     * Evicts all cached pages, e.g. because an item has been edited.
+     */
+    public void evict() {
+        pages.clear();
+        categories = null;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor(staticName = "of")
+    private static final class PageKey {
+        private final String name;
+        private final String category;
+        private final Pageable pageable;
+    }
+
+    @Getter
+    @RequiredArgsConstructor(staticName = "of")
+    private static final class Cached<T> {
+        private final T value;
+        private final long expiresAt;
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderedAmount;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.infrastructure.ManualAdjustments;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import de.team7.swt.inventory.model.DriftReport;
+import de.team7.swt.inventory.model.ProductAmount;
+import de.team7.swt.inventory.model.StockBaseline;
+import de.team7.swt.inventory.model.StockDrift;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+
+/**
+ * Reconciles the stock of all inventory items. The expected stock of a product is its initial quantity plus its manual
+ * adjustments minus the amounts of all completed orders' line items referring to it. Line items are never loaded;
+ * instead, the orders are partitioned by their creation timestamp and the amounts of each partition are summed up by
+ * the database. The partitions are queried in parallel by a {@link ForkJoinPool} and their sums are merged afterwards.
+ * <p>
+ * Orders and manual adjustments are included up to the same instant, the start of the reconciliation. Since the actual
+ * stock is read afterwards, orders being completed while reconciling may cause transient drifts. Thus, drifted items
+ * are checked again by reading their actual stock and summing up their orders and adjustments up to a second instant,
+ * and only the items which have still drifted are reported. Nevertheless, a reconciliation should be run while the shop
+ * is idle, e.g. at night.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Service
+public class StockReconciler {
+
+    private static final int ITEM_BATCH_SIZE = 500;
+
+    private final Inventory inventory;
+    private final ManualAdjustments adjustments;
+    private final OrderRepository orders;
+    private final StockKeeper stockKeeper;
+    private final ForkJoinPool pool;
+    private final int partitions;
+
+    StockReconciler(Inventory inventory, ManualAdjustments adjustments, OrderRepository orders,
+                    StockKeeper stockKeeper,
+                    @Value("${dyob.inventory.reconciliation.parallelism:4}") int parallelism,
+                    @Value("${dyob.inventory.reconciliation.partitions:16}") int partitions) {
+        Assert.isTrue(parallelism > 0, "Parallelism must be positive");
+        Assert.isTrue(partitions > 0, "Partitions must be positive");
+
+        this.inventory = inventory;
+        this.adjustments = adjustments;
+        this.orders = orders;
+        this.stockKeeper = stockKeeper;
+        this.pool = new ForkJoinPool(parallelism);
+        this.partitions = partitions;
+    }
+
+    /**
+     * Reconciles the stock of all inventory items.
+     *
+     * @return a report listing each item whose actual stock differs from its expected stock
+     */
+    public DriftReport reconcile() {
+        Instant reconciledAt = Instant.now();
+        Map<Product.Id, BigDecimal> ordered = sumOrderedAmounts(reconciledAt);
+        Map<Product.Id, BigDecimal> adjusted = adjustments.sumByProductRecordedBefore(reconciledAt).stream()
+            .collect(Collectors.toMap(ProductAmount::getProductId, ProductAmount::getAmount));
+
+        long itemCount = 0;
+        List<StockBaseline> drifted = new ArrayList<>();
+        Pageable pageable = PageRequest.of(0, ITEM_BATCH_SIZE, Sort.by("id"));
+        Slice<StockBaseline> baselines;
+        do {
+            baselines = inventory.findBaselines(pageable);
+            Map<Product.Id, Quantity> stock = stockKeeper.getStock(baselines.map(StockBaseline::getProductId)
+                .toList());
+            for (StockBaseline baseline : baselines) {
+                Product.Id productId = baseline.getProductId();
+                Quantity actual = stock.get(productId);
+                if (null == actual) {
+                    continue;
+                }
+
+                itemCount++;
+                if (0 != expect(baseline, adjusted, ordered).compareTo(actual.getAmount())) {
+                    drifted.add(baseline);
+                }
+            }
+            pageable = baselines.nextPageable();
+        } while (baselines.hasNext());
+
+        if (drifted.isEmpty()) {
+            return DriftReport.of(reconciledAt, null, itemCount, List.of());
+        }
+        Instant recheckedAt = Instant.now();
+        return DriftReport.of(reconciledAt, recheckedAt, itemCount, recheck(drifted, recheckedAt));
+    }
+
+    /**
+     * Reads the actual stock of the given drifted items again and compares it to the stock expected from all completed
+     * orders created and all adjustments recorded before the given instant.
+     */
+    private List<StockDrift> recheck(List<StockBaseline> drifted, Instant before) {
+        List<StockDrift> drifts = new ArrayList<>();
+        for (int from = 0; from < drifted.size(); from += ITEM_BATCH_SIZE) {
+            List<StockBaseline> baselines = drifted.subList(from, Math.min(from + ITEM_BATCH_SIZE, drifted.size()));
+            List<Product.Id> productIds = baselines.stream()
+                .map(StockBaseline::getProductId)
+                .collect(Collectors.toList());
+
+            Map<Product.Id, Quantity> stock = stockKeeper.getStock(productIds);
+            Map<Product.Id, BigDecimal> ordered = orders.sumAmountsByProductIdIn(Order.Status.COMPLETED, productIds,
+                    before).stream()
+                .collect(Collectors.toMap(OrderedAmount::getProductId, OrderedAmount::getAmount));
+            Map<Product.Id, BigDecimal> adjusted = adjustments.sumByProductIdInRecordedBefore(productIds, before)
+                .stream()
+                .collect(Collectors.toMap(ProductAmount::getProductId, ProductAmount::getAmount));
+
+            for (StockBaseline baseline : baselines) {
+                Quantity actual = stock.get(baseline.getProductId());
+                BigDecimal expected = expect(baseline, adjusted, ordered);
+                if (null != actual && 0 != expected.compareTo(actual.getAmount())) {
+                    drifts.add(StockDrift.of(baseline.getProductId(), baseline.getProductName(), expected,
+                        actual.getAmount()));
+                }
+            }
+        }
+        return drifts;
+    }
+
+    private static BigDecimal expect(StockBaseline baseline, Map<Product.Id, BigDecimal> adjusted,
+                                     Map<Product.Id, BigDecimal> ordered) {
+        return baseline.getInitialQuantity().getAmount()
+            .add(adjusted.getOrDefault(baseline.getProductId(), BigDecimal.ZERO))
+            .subtract(ordered.getOrDefault(baseline.getProductId(), BigDecimal.ZERO));
+    }
+
+    /**
+     * Sums up the ordered amounts per product of all orders completed before the given instant, querying the
+     * partitions of the orders' creation timestamps in parallel.
+     */
+    private Map<Product.Id, BigDecimal> sumOrderedAmounts(Instant before) {
+        Optional<Instant> oldest = orders.findOldestCreatedAt(Order.Status.COMPLETED);
+        Optional<Instant> newest = orders.findNewestCreatedAt(Order.Status.COMPLETED);
+        if (oldest.isEmpty() || newest.isEmpty()) {
+            return Map.of();
+        }
+
+        Instant to = newest.get().isBefore(before) ? newest.get().plusNanos(1) : before;
+        return pool.invoke(new PartitionSum(oldest.get(), to, partitions));
+    }
+
+    @Scheduled(cron = "${dyob.inventory.reconciliation.cron:-}")
+    void reconcileScheduled() {
+        DriftReport report = reconcile();
+        report.getDrifts().forEach(drift -> log.warn("Stock of product {} ({}) drifted by {}: expected {}, actual {}",
+            drift.getProductName(), drift.getProductId(), drift.getDrift(), drift.getExpected(), drift.getActual()));
+        log.info("Reconciled stock of {} items, {} drifted", report.getItemCount(), report.getDrifts().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Sums up the ordered amounts of a range of creation timestamps, which is split into halves until it covers a
+     * single partition.
+     */
+    private final class PartitionSum extends RecursiveTask<Map<Product.Id, BigDecimal>> {
+
+        private final Instant from;
+        private final Instant to;
+        private final int partitions;
+
+        PartitionSum(Instant from, Instant to, int partitions) {
+            this.from = from;
+            this.to = to;
+            this.partitions = partitions;
+        }
+
+        @Override
+        protected Map<Product.Id, BigDecimal> compute() {
+            if (1 == partitions) {
+                return orders.sumAmountsByProduct(Order.Status.COMPLETED, from, to).stream()
+                    .collect(Collectors.toMap(OrderedAmount::getProductId, OrderedAmount::getAmount));
+            }
+
+            int leftPartitions = partitions / 2;
+            Instant middle = from.plus(Duration.between(from, to).multipliedBy(leftPartitions).dividedBy(partitions));
+            PartitionSum left = new PartitionSum(from, middle, leftPartitions);
+            PartitionSum right = new PartitionSum(middle, to, partitions - leftPartitions);
+            left.fork();
+            Map<Product.Id, BigDecimal> sums = new HashMap<>(right.compute());
+            left.join().forEach((productId, amount) -> sums.merge(productId, amount, BigDecimal::add));
+            return sums;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.checkout.model.Cart;
+import de.team7.swt.checkout.model.Reservations;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Reservations} implementation holding reservations in memory against the stock kept by the
+ * {@link StockKeeper}. Each hold expires once its cart's session hasn't been used for the session timeout, so carts of
+ * abandoned sessions don't block stock forever. Expired holds are collected by a {@link DelayQueue} which is drained
+ * periodically.
+ * <p>
+ * Orders decrease the stock through the reservations, consuming the holds of the cart they have been placed from.
+ * Stock held back for other carts is not available to an order, thus a cart's holds cannot be taken by other carts.
+ * <p>
+ * Products which aren't kept in the inventory are not limited and therefore never held back.
+ *
+ * @author Vincent Nadoll
+ */
+@Service
+class StockReservations implements Reservations {
+
+    private final StockKeeper stockKeeper;
+    private final long timeToLive;
+    private final ConcurrentMap<Product.Id, ProductHolds> holds = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Cart.Id, Set<Product.Id>> heldByCart = new ConcurrentHashMap<>();
+    private final DelayQueue<Hold> expiry = new DelayQueue<>();
+
+    StockReservations(StockKeeper stockKeeper,
+                      @Value("${server.servlet.session.timeout:30m}") Duration timeToLive) {
+        Assert.isTrue(!timeToLive.isNegative(), "Time to live must not be negative");
+
+        this.stockKeeper = stockKeeper;
+        this.timeToLive = timeToLive.toNanos();
+    }
+
+    @Override
+    public boolean reserve(Cart.Id cartId, Product.Id productId, Quantity quantity) {
+        Assert.notNull(cartId, "Cart ID must not be null");
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(quantity, "Quantity must not be null");
+
+        Quantity stock = stockKeeper.getStock(Set.of(productId)).get(productId);
+        if (null == stock || !stock.isCompatibleWith(quantity.getMetric())) {
+            return true;
+        }
+
+        Hold hold = new Hold(cartId, productId, quantity, System.nanoTime() + timeToLive);
+        if (!holds.computeIfAbsent(productId, id -> new ProductHolds(stock.toZero())).place(hold, stock)) {
+            return false;
+        }
+        heldByCart.computeIfAbsent(cartId, id -> ConcurrentHashMap.newKeySet()).add(productId);
+        expiry.add(hold);
+        return true;
+    }
+
+    @Override
+    public void release(Cart.Id cartId, Product.Id productId) {
+        Assert.notNull(cartId, "Cart ID must not be null");
+        Assert.notNull(productId, "Product ID must not be null");
+
+        remove(cartId, productId, null);
+    }
+
+    @Override
+    public void release(Cart.Id cartId) {
+        Assert.notNull(cartId, "Cart ID must not be null");
+
+        Optional.ofNullable(heldByCart.remove(cartId))
+            .ifPresent(productIds -> productIds.forEach(productId -> removeHold(cartId, productId, null)));
+    }
+
+    @Override
+    public void renew(Cart.Id cartId) {
+        Assert.notNull(cartId, "Cart ID must not be null");
+
+        Set<Product.Id> productIds = heldByCart.get(cartId);
+        if (null == productIds) {
+            return;
+        }
+
+        long expiresAt = System.nanoTime() + timeToLive;
+        for (Product.Id productId : productIds) {
+            Optional.ofNullable(holds.get(productId))
+                .map(productHolds -> productHolds.renew(cartId, expiresAt, timeToLive / 2))
+                .ifPresent(expiry::add);
+        }
+    }
+
+    /**
+     * Decreases the stock of the given product by the given quantity, consuming the given cart's hold of the product.
+     * The stock held back for other carts is not available to the decrease. Decreases and holds of the same product
+     * are serialized, so no hold can be placed between checking and decreasing the stock. The hold is restored if the
+     * current transaction rolls back.
+     *
+     * @param cartId    the cart the order has been placed from, can be {@literal null}
+     * @param productId must not be {@literal null}
+     * @param quantity  must not be {@literal null}
+     * @return {@literal true} if the stock has been decreased; {@literal false} otherwise
+     */
+    boolean consume(@Nullable Cart.Id cartId, Product.Id productId, Quantity quantity) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(quantity, "Quantity must not be null");
+
+        ProductHolds productHolds = holds.computeIfAbsent(productId, id -> new ProductHolds(quantity.toZero()));
+        Hold consumed;
+        synchronized (productHolds) {
+            Hold own = null == cartId ? null : productHolds.byCart.get(cartId);
+            Quantity others = null == own ? productHolds.reserved : productHolds.reserved.subtract(own.getQuantity());
+            if (!decrease(productId, quantity, others)) {
+                return false;
+            }
+            consumed = null != own && productHolds.remove(cartId, own) ? own : null;
+        }
+
+        if (null != consumed) {
+            forget(cartId, productId);
+            restoreOnRollback(productHolds, consumed);
+        }
+        return true;
+    }
+
+    private boolean decrease(Product.Id productId, Quantity quantity, Quantity heldForOthers) {
+        if (!heldForOthers.isZero()) {
+            Quantity stock = stockKeeper.getStock(Set.of(productId)).get(productId);
+            if (null == stock || stock.subtract(heldForOthers).isLessThan(quantity)) {
+                return false;
+            }
+        }
+        return stockKeeper.decrease(productId, quantity);
+    }
+
+    private void restoreOnRollback(ProductHolds productHolds, Hold hold) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (STATUS_ROLLED_BACK == status && productHolds.restore(hold)) {
+                    heldByCart.computeIfAbsent(hold.getCartId(), id -> ConcurrentHashMap.newKeySet())
+                        .add(hold.getProductId());
+                    expiry.add(hold);
+                }
+            }
+        });
+    }
+
+    /**
+     * Releases all remaining holds of the given cart once the current transaction has been committed, or immediately
+     * if there's no transaction.
+     *
+     * @param cartId must not be {@literal null}
+     */
+    void releaseAfterCommit(Cart.Id cartId) {
+        Assert.notNull(cartId, "Cart ID must not be null");
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(cartId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(cartId);
+            }
+        });
+    }
+
+    @Override
+    public Optional<Quantity> getAvailableToPromise(Product.Id productId) {
+        Assert.notNull(productId, "Product ID must not be null");
+
+        return Optional.ofNullable(stockKeeper.getStock(Set.of(productId)).get(productId))
+            .map(stock -> Optional.ofNullable(holds.get(productId))
+                .map(productHolds -> productHolds.getAvailable(stock))
+                .orElse(stock));
+    }
+
+    /**
+     * Releases all holds whose time to live has elapsed.
+     */
+    @Scheduled(fixedDelayString = "${dyob.inventory.reservations.expiry-interval:1000}")
+    void expire() {
+        for (Hold hold = expiry.poll(); null != hold; hold = expiry.poll()) {
+            remove(hold.getCartId(), hold.getProductId(), hold);
+        }
+    }
+
+    private void remove(Cart.Id cartId, Product.Id productId, @Nullable Hold expected) {
+        if (removeHold(cartId, productId, expected)) {
+            forget(cartId, productId);
+        }
+    }
+
+    private void forget(Cart.Id cartId, Product.Id productId) {
+        heldByCart.computeIfPresent(cartId, (id, productIds) -> {
+            productIds.remove(productId);
+            return productIds.isEmpty() ? null : productIds;
+        });
+    }
+
+    private boolean removeHold(Cart.Id cartId, Product.Id productId, @Nullable Hold expected) {
+        ProductHolds productHolds = holds.get(productId);
+        return null != productHolds && productHolds.remove(cartId, expected);
+    }
+
+    /**
+     * All holds of a single product and their total quantity.
+     */
+    private static final class ProductHolds {
+
+        private final Map<Cart.Id, Hold> byCart = new HashMap<>();
+        private Quantity reserved;
+
+        ProductHolds(Quantity zero) {
+            this.reserved = zero;
+        }
+
+        /**
+         * Places or replaces the cart's hold, but only if the stock suffices for the holds of all carts.
+         */
+        synchronized boolean place(Hold hold, Quantity stock) {
+            Quantity others = Optional.ofNullable(byCart.get(hold.getCartId()))
+                .map(Hold::getQuantity)
+                .map(reserved::subtract)
+                .orElse(reserved);
+            Quantity total = others.add(hold.getQuantity());
+            if (stock.isLessThan(total)) {
+                return false;
+            }
+
+            byCart.put(hold.getCartId(), hold);
+            reserved = total;
+            return true;
+        }
+
+        /**
+         * Removes the cart's hold, but only if it is the expected one, in case one is given.
+         */
+        synchronized boolean remove(Cart.Id cartId, @Nullable Hold expected) {
+            Hold hold = byCart.get(cartId);
+            if (null == hold || (null != expected && hold != expected)) {
+                return false;
+            }
+
+            byCart.remove(cartId);
+            reserved = reserved.subtract(hold.getQuantity());
+            return true;
+        }
+
+        /**
+         * Replaces the cart's hold by one expiring at the given point in time, but only if that extends the hold by at
+         * least the given number of nanoseconds.
+         */
+        synchronized Hold renew(Cart.Id cartId, long expiresAt, long minExtension) {
+            Hold hold = byCart.get(cartId);
+            if (null == hold || expiresAt - hold.getExpiresAt() < minExtension) {
+                return null;
+            }
+
+            Hold renewed = new Hold(cartId, hold.getProductId(), hold.getQuantity(), expiresAt);
+            byCart.put(cartId, renewed);
+            return renewed;
+        }
+
+        /**
+         * Places the given hold again after it has been consumed, unless the cart has placed another one meanwhile.
+         */
+        synchronized boolean restore(Hold hold) {
+            if (byCart.containsKey(hold.getCartId())) {
+                return false;
+            }
+
+            byCart.put(hold.getCartId(), hold);
+            reserved = reserved.add(hold.getQuantity());
+            return true;
+        }
+
+        synchronized Quantity getAvailable(Quantity stock) {
+            Quantity available = stock.subtract(reserved);
+            return available.isNegative() ? available.toZero() : available;
+        }
+    }
+
+    /**
+     * A cart's reservation of a product which expires at a given point in time.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static final class Hold implements Delayed {
+
+        private final Cart.Id cartId;
+        private final Product.Id productId;
+        private final Quantity quantity;
+        private final long expiresAt;
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed that) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), that.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
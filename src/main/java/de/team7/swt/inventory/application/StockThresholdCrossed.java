@@ -0,0 +1,25 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.inventory.model.StockLevel;
+import lombok.Value;
+
+/**
+ * Event being emitted by the {@link LowStockIndex} if a product's stock reached its reorder threshold or was
+ * replenished above it.
+ *
+ * @author Vincent Nadoll
+ */
+@Value(staticConstructor = "of")
+public class StockThresholdCrossed {
+
+    StockLevel stockLevel;
+
+    /**
+     * Returns whether the product's stock has reached its reorder threshold.
+     *
+     * @return {@literal true} if the product is low on stock; {@literal false} if it was replenished
+     */
+    public boolean isLow() {
+        return stockLevel.isLow();
+    }
+}
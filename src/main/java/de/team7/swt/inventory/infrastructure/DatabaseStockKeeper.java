@@ -0,0 +1,63 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.infrastructure.retry.ConcurrencyRetry;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.model.InventoryItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@link StockKeeper} implementation keeping the stock directly in the {@link Inventory}. Decreases are executed as
+ * guarded updates taking part in the caller's transaction, while adjustments are retried in case they conflict with
+ * concurrent modifications. This is the default strategy.
+ *
+ * @author Vincent Nadoll
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "dyob.inventory.stock-keeping", havingValue = "database", matchIfMissing = true)
+class DatabaseStockKeeper implements StockKeeper {
+
+    private final Inventory inventory;
+    private final ConcurrencyRetry retry;
+
+    @Override
+    public Map<Product.Id, Quantity> getStock(Collection<Product.Id> productIds) {
+        Assert.notNull(productIds, "Product IDs must not be null");
+        return inventory.findByProductIdIn(productIds).stream()
+            .collect(Collectors.toMap(item -> item.getProduct().getId(), InventoryItem::getQuantity));
+    }
+
+    @Override
+    public boolean decrease(Product.Id productId, Quantity quantity) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(quantity, "Quantity must not be null");
+        return 0 < inventory.decreaseIfSufficient(productId, quantity);
+    }
+
+    @Override
+    public boolean adjust(Product.Id productId, Quantity offset) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(offset, "Offset must not be null");
+        return retry.execute("stock-edit", () -> adjustOnce(productId, offset));
+    }
+
+    private boolean adjustOnce(Product.Id productId, Quantity offset) {
+        InventoryItem item = inventory.findByProductId(productId)
+            .orElseThrow(IllegalStateException::new);
+        if (item.getQuantity().add(offset).isNegative()) {
+            return false;
+        }
+
+        item.increase(offset);
+        inventory.save(item);
+        return true;
+    }
+}
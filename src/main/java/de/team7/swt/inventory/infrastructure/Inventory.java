@@ -1,10 +1,33 @@
 package de.team7.swt.inventory.infrastructure;
 
 import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
 import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.StockBaseline;
+import de.team7.swt.inventory.model.StockRow;
+import de.team7.swt.inventory.model.StockTarget;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.Nullable;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
 
 /**
  * JPA {@link org.springframework.data.repository.Repository} for managing {@link InventoryItem} instances.
@@ -20,4 +43,156 @@ public interface Inventory extends JpaRepository<InventoryItem, InventoryItem.Id
      * @return the found inventory item or {@literal Optional.empty()} if the item could not be found
      */
     Optional<InventoryItem> findByProductId(Product.Id productId);
+
+    /**
+     * Returns the quantity of the inventory item the given {@link Product.Id} is related to. Unlike the item itself,
+     * the quantity is always read from the database instead of the persistence context.
+     *
+     * @param productId must not be {@literal null}
+     * @return the item's quantity or {@literal Optional.empty()} if the item could not be found
+     */
+    @Query("select i.quantity from InventoryItem i where i.product.id = :productId")
+    Optional<Quantity> findQuantityByProductId(@Param("productId") Product.Id productId);
+
+    /**
+     * Returns the inventory item the given {@link Product.Id} is related to and locks it for the rest of the current
+     * transaction.
+     *
+     * @param productId must not be {@literal null}
+     * @return the found inventory item or {@literal Optional.empty()} if the item could not be found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from InventoryItem i where i.product.id = :productId")
+    Optional<InventoryItem> lockByProductId(@Param("productId") Product.Id productId);
+
+    /**
+     * Returns all inventory items related to any of the given {@link Product.Id}s using a single query.
+     *
+     * @param productIds must not be {@literal null}
+     * @return all found inventory items; never {@literal null}
+     */
+    Streamable<InventoryItem> findByProductIdIn(Collection<Product.Id> productIds);
+
+    /**
+     * Decreases the stock of the inventory item the given {@link Product.Id} is related to by the given quantity, but
+     * only if the item has a sufficient amount in stock. Check and subtraction are executed as a single guarded
+     * {@literal UPDATE}, thus concurrent calls cannot oversell an item. The item's version is incremented as well, so
+     * concurrent edits of a loaded item fail optimistically instead of overwriting the decrease.
+     *
+     * @param productId must not be {@literal null}
+     * @param quantity  must not be {@literal null}
+     * @return the number of updated items; {@literal 0} if the item doesn't exist, its metric doesn't match or its
+     *     stock is insufficient
+     */
+    @Transactional
+    @Modifying
+    @Query("update InventoryItem i set i.quantity.amount = i.quantity.amount - :#{#quantity.amount}, "
+        + "i.version = i.version + 1 "
+        + "where i.product.id = :productId "
+        + "and i.quantity.metric = :#{#quantity.metric} "
+        + "and i.quantity.amount >= :#{#quantity.amount}")
+    int decreaseIfSufficient(@Param("productId") Product.Id productId, @Param("quantity") Quantity quantity);
+
+    /**
+     * Adds the given, possibly negative, quantity to the stock of the inventory item the given {@link Product.Id} is
+     * related to using a single relative {@literal UPDATE}. The item's version is incremented as well.
+     *
+     * @param productId must not be {@literal null}
+     * @param quantity  must not be {@literal null}
+     * @return the number of updated items; {@literal 0} if the item doesn't exist or its metric doesn't match
+     */
+    @Transactional
+    @Modifying
+    @Query("update InventoryItem i set i.quantity.amount = i.quantity.amount + :#{#quantity.amount}, "
+        + "i.version = i.version + 1 "
+        + "where i.product.id = :productId "
+        + "and i.quantity.metric = :#{#quantity.metric}")
+    int increase(@Param("productId") Product.Id productId, @Param("quantity") Quantity quantity);
+
+    /**
+     * Sets the reorder threshold of the inventory item the given {@link Product.Id} is related to using a single
+     * {@literal UPDATE}, thus the item's quantity is left untouched. The item's version is incremented as well.
+     *
+     * @param productId must not be {@literal null}
+     * @param threshold must not be {@literal null}
+     * @return the number of updated items; {@literal 0} if the item doesn't exist or its metric doesn't match
+     */
+    @Transactional
+    @Modifying
+    @Query("update InventoryItem i set i.reorderThreshold = :#{#threshold.amount}, "
+        + "i.version = i.version + 1 "
+        + "where i.product.id = :productId "
+        + "and i.quantity.metric = :#{#threshold.metric}")
+    int updateReorderThreshold(@Param("productId") Product.Id productId, @Param("threshold") Quantity threshold);
+
+    /**
+     * Returns a page of stock rows projected from all inventory items matching the given filters. Rows may be sorted
+     * by any attribute of the item, e.g. {@literal product.name} or {@literal quantity.amount}.
+     *
+     * @param name     a part of the product's name, case-insensitive, can be {@literal null}
+     * @param category the category the product must be assigned to, can be {@literal null}
+     * @param pageable must not be {@literal null}
+     * @return the requested page; never {@literal null}
+     */
+    @Query(value = "select new de.team7.swt.inventory.model.StockRow(i.id, p.id, p.name, p.price, "
+        + "i.quantity.amount, i.quantity.metric, i.reorderThreshold) "
+        + "from InventoryItem i join i.product p "
+        + "where (:name is null or lower(p.name) like concat('%', lower(:name), '%')) "
+        + "and (:category is null or :category member of p.categories)",
+        countQuery = "select count(i) from InventoryItem i join i.product p "
+            + "where (:name is null or lower(p.name) like concat('%', lower(:name), '%')) "
+            + "and (:category is null or :category member of p.categories)")
+    Page<StockRow> findStockRows(@Nullable @Param("name") String name, @Nullable @Param("category") String category,
+                                 Pageable pageable);
+
+    /**
+     * Streams stock rows of all inventory items ordered by their ID. The rows are fetched from a cursor
+     * while the stream is consumed, thus the stream must be consumed within a transaction and closed afterwards.
+     *
+     * @return a stream of all stock rows; never {@literal null}
+     */
+    @QueryHints({@QueryHint(name = FETCH_SIZE, value = "500"), @QueryHint(name = READ_ONLY, value = "true")})
+    @Query("select new de.team7.swt.inventory.model.StockRow(i.id, p.id, p.name, p.price, "
+        + "i.quantity.amount, i.quantity.metric, i.reorderThreshold) "
+        + "from InventoryItem i join i.product p order by i.id")
+    Stream<StockRow> streamStockRows();
+
+    /**
+     * Returns the categories of all products in the inventory.
+     *
+     * @return all categories in alphabetical order; never {@literal null}
+     */
+    @Query("select distinct c from InventoryItem i join i.product p join p.categories c order by c")
+    List<String> findCategories();
+
+    /**
+     * Returns the products of the given {@link Product.Id}s which are in the inventory using a single query.
+     *
+     * @param productIds must not be {@literal null} or empty
+     * @return the found products; never {@literal null}
+     */
+    @Query("select new de.team7.swt.inventory.model.StockTarget(p.id, p.name, p.metric) "
+        + "from InventoryItem i join i.product p where p.id in :productIds")
+    List<StockTarget> findTargetsByProductIdIn(@Param("productIds") Collection<Product.Id> productIds);
+
+    /**
+     * Returns the products of the given names which are in the inventory using a single query. Multiple products may
+     * share the same name.
+     *
+     * @param names must not be {@literal null} or empty
+     * @return the found products; never {@literal null}
+     */
+    @Query("select new de.team7.swt.inventory.model.StockTarget(p.id, p.name, p.metric) "
+        + "from InventoryItem i join i.product p where p.name in :names")
+    List<StockTarget> findTargetsByProductNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Returns a slice of the baselines of all inventory items, i.e. the quantities the items have been created with.
+     *
+     * @param pageable must not be {@literal null}
+     * @return the requested slice; never {@literal null}
+     */
+    @Query("select new de.team7.swt.inventory.model.StockBaseline(p.id, p.name, i.initialAmount, i.quantity.metric) "
+        + "from InventoryItem i join i.product p")
+    Slice<StockBaseline> findBaselines(Pageable pageable);
 }
@@ -0,0 +1,44 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.model.ManualAdjustment;
+import de.team7.swt.inventory.model.ProductAmount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JPA {@link org.springframework.data.repository.Repository} for managing {@link ManualAdjustment} instances.
+ *
+ * @author Vincent Nadoll
+ */
+public interface ManualAdjustments extends JpaRepository<ManualAdjustment, ManualAdjustment.Id> {
+
+    /**
+     * Sums up the quantities of all adjustments recorded before the given instant per product using a single query.
+     *
+     * @param before the exclusive upper bound of the adjustment's timestamp, must not be {@literal null}
+     * @return the summed up quantity of each adjusted product; never {@literal null}
+     */
+    @Query("select new de.team7.swt.inventory.model.ProductAmount(a.productId, sum(a.quantity.amount)) "
+        + "from ManualAdjustment a where a.recordedAt < :before group by a.productId")
+    List<ProductAmount> sumByProductRecordedBefore(@Param("before") Instant before);
+
+    /**
+     * Sums up the quantities of the adjustments of any of the given {@link Product.Id}s recorded before the given
+     * instant per product using a single query.
+     *
+     * @param productIds must not be {@literal null} or empty
+     * @param before     the exclusive upper bound of the adjustment's timestamp, must not be {@literal null}
+     * @return the summed up quantity of each adjusted product; never {@literal null}
+     */
+    @Query("select new de.team7.swt.inventory.model.ProductAmount(a.productId, sum(a.quantity.amount)) "
+        + "from ManualAdjustment a where a.productId in :productIds and a.recordedAt < :before "
+        + "group by a.productId")
+    List<ProductAmount> sumByProductIdInRecordedBefore(@Param("productIds") Collection<Product.Id> productIds,
+                                                       @Param("before") Instant before);
+}
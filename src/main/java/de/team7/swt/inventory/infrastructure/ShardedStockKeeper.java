@@ -0,0 +1,204 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.MetricMismatchException;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.StockShard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+
+/**
+ * {@link StockKeeper} implementation splitting each product's stock across a fixed number of {@link StockShard}s. A
+ * decrease starts at a random shard and moves on to the next one until a shard with sufficient capacity is found, so
+ * concurrent checkouts of the same product mostly update different rows. Only if no single shard suffices, the
+ * product's shards are locked and refreshed, since the caller's persistence context may hold shards which have been
+ * decreased by guarded updates in the meantime, before the quantity is taken across them. The stock is the sum of all
+ * shards.
+ * <p>
+ * Shards are created from the {@link Inventory} once the application is ready and lazily for new items. Each
+ * {@link InventoryItem}'s quantity is periodically synchronized with the sum of its shards.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dyob.inventory.stock-keeping", havingValue = "sharded")
+class ShardedStockKeeper implements StockKeeper {
+
+    private final Inventory inventory;
+    private final StockShards shards;
+    private final EntityManager entityManager;
+    private final int shardCount;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+
+    ShardedStockKeeper(Inventory inventory, StockShards shards, EntityManager entityManager,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${dyob.inventory.sharded.shards:8}") int shardCount) {
+        Assert.isTrue(shardCount > 0, "Number of shards must be positive");
+
+        this.inventory = inventory;
+        this.shards = shards;
+        this.entityManager = entityManager;
+        this.shardCount = shardCount;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Creates the shards of all inventory items which are not sharded yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void seed() {
+        Set<Product.Id> sharded = shards.findAll().stream()
+            .map(StockShard::getProductId)
+            .collect(Collectors.toSet());
+        inventory.findAll().stream()
+            .filter(item -> !sharded.contains(item.getProduct().getId()))
+            .forEach(this::shard);
+    }
+
+    private void shard(InventoryItem item) {
+        Product.Id productId = item.getProduct().getId();
+        List<Quantity> parts = split(item.getQuantity());
+        List<StockShard> productShards = IntStream.range(0, shardCount)
+            .mapToObj(shard -> new StockShard(productId, shard, parts.get(shard)))
+            .collect(Collectors.toList());
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> shards.saveAll(productShards));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Product {} has been sharded concurrently", productId);
+        }
+    }
+
+    private List<Quantity> split(Quantity quantity) {
+        BigDecimal[] quotientAndRemainder = quantity.getAmount()
+            .divideAndRemainder(BigDecimal.valueOf(shardCount));
+        Quantity part = Quantity.of(quotientAndRemainder[0], quantity.getMetric());
+        Quantity remainder = Quantity.of(quotientAndRemainder[1], quantity.getMetric());
+        return IntStream.range(0, shardCount)
+            .mapToObj(shard -> 0 == shard ? part.add(remainder) : part)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<Product.Id, Quantity> getStock(Collection<Product.Id> productIds) {
+        Assert.notNull(productIds, "Product IDs must not be null");
+
+        Map<Product.Id, Quantity> stock = sum(productIds);
+        List<Product.Id> unsharded = productIds.stream()
+            .filter(productId -> !stock.containsKey(productId))
+            .collect(Collectors.toList());
+        if (unsharded.isEmpty()) {
+            return stock;
+        }
+
+        List<InventoryItem> items = inventory.findByProductIdIn(unsharded).toList();
+        if (!items.isEmpty()) {
+            items.forEach(this::shard);
+            stock.putAll(sum(unsharded));
+        }
+        return stock;
+    }
+
+    private Map<Product.Id, Quantity> sum(Collection<Product.Id> productIds) {
+        return shards.findByProductIdIn(productIds).stream()
+            .collect(Collectors.toMap(StockShard::getProductId, StockShard::getQuantity, Quantity::add,
+                HashMap::new));
+    }
+
+    @Override
+    public boolean decrease(Product.Id productId, Quantity quantity) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(quantity, "Quantity must not be null");
+
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            if (0 < shards.decreaseIfSufficient(productId, (start + i) % shardCount, quantity)) {
+                return true;
+            }
+        }
+
+        getStock(Set.of(productId)); // shards the item in case it's not yet sharded
+        return takeAcrossShards(productId, quantity);
+    }
+
+    private boolean takeAcrossShards(Product.Id productId, Quantity quantity) {
+        Boolean taken = transactionTemplate.execute(status -> {
+            List<StockShard> productShards = shards.findByProductIdOrderByShard(productId);
+            productShards.forEach(shard -> entityManager.refresh(shard, LockModeType.PESSIMISTIC_WRITE));
+            if (productShards.isEmpty() || !productShards.get(0).getQuantity().isCompatibleWith(quantity.getMetric())) {
+                return false;
+            }
+
+            Quantity available = productShards.stream()
+                .map(StockShard::getQuantity)
+                .reduce(quantity.toZero(), Quantity::add);
+            if (available.isLessThan(quantity)) {
+                return false;
+            }
+
+            Quantity remaining = quantity;
+            for (StockShard shard : productShards) {
+                remaining = remaining.subtract(shard.take(remaining));
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(taken);
+    }
+
+    @Override
+    public boolean adjust(Product.Id productId, Quantity offset) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(offset, "Offset must not be null");
+
+        Quantity stock = getStock(Set.of(productId)).get(productId);
+        if (null == stock) {
+            throw new IllegalStateException(String.format("Product %s is not in the inventory", productId));
+        }
+        if (!stock.isCompatibleWith(offset.getMetric())) {
+            throw new MetricMismatchException(stock.getMetric(), offset.getMetric());
+        }
+
+        if (!offset.isNegative()) {
+            List<Quantity> parts = split(offset);
+            transactionTemplate.executeWithoutResult(status -> IntStream.range(0, shardCount)
+                .forEach(shard -> shards.increase(productId, shard, parts.get(shard))));
+            return true;
+        }
+
+        return takeAcrossShards(productId, offset.toZero().subtract(offset));
+    }
+
+    /**
+     * Synchronizes each sharded {@link InventoryItem}'s quantity with the sum of its shards.
+     */
+    @Scheduled(fixedDelayString = "${dyob.inventory.sharded.sync-interval:5000}")
+    void synchronize() {
+        shards.synchronizeInventory();
+    }
+}
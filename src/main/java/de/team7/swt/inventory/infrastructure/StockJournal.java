@@ -0,0 +1,146 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.MetricMismatchException;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.StockMovement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * {@link StockKeeper} implementation appending each stock change as {@link StockMovement} instead of updating the
+ * {@link InventoryItem}. A product's stock is its item's quantity, which serves as snapshot, plus all movements which
+ * have not been compacted yet. Movements are compacted into their items periodically and kept as audit trail.
+ * <p>
+ * Each change is recorded within the caller's transaction while holding a lock on the product's item, so a decrease
+ * is checked against the stock it has been recorded on and a transaction which rolls back discards its movements. The
+ * lock is held until the transaction completes, thus concurrent changes and compactions of a product are serialized.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dyob.inventory.stock-keeping", havingValue = "journal")
+class StockJournal implements StockKeeper {
+
+    private final Inventory inventory;
+    private final StockMovements movements;
+    private final TransactionTemplate transactionTemplate;
+
+    StockJournal(Inventory inventory, StockMovements movements, PlatformTransactionManager transactionManager) {
+        this.inventory = inventory;
+        this.movements = movements;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Map<Product.Id, Quantity> getStock(Collection<Product.Id> productIds) {
+        Assert.notNull(productIds, "Product IDs must not be null");
+
+        Map<Product.Id, Quantity> stock = inventory.findByProductIdIn(productIds).stream()
+            .collect(Collectors.toMap(item -> item.getProduct().getId(), InventoryItem::getQuantity, Quantity::add,
+                HashMap::new));
+        if (!stock.isEmpty()) {
+            movements.findByCompactedFalseAndProductIdIn(stock.keySet()).forEach(movement -> stock.computeIfPresent(
+                movement.getProductId(), (id, quantity) -> quantity.add(movement.getQuantity())));
+        }
+        return stock;
+    }
+
+    @Override
+    public boolean decrease(Product.Id productId, Quantity quantity) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(quantity, "Quantity must not be null");
+
+        Optional<Quantity> snapshot = inventory.findQuantityByProductId(productId);
+        if (snapshot.isEmpty() || !snapshot.get().isCompatibleWith(quantity.getMetric())) {
+            return false;
+        }
+
+        return record(productId, negate(quantity), StockMovement.Reason.ORDER);
+    }
+
+    @Override
+    public boolean adjust(Product.Id productId, Quantity offset) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(offset, "Offset must not be null");
+
+        Quantity snapshot = inventory.findQuantityByProductId(productId)
+            .orElseThrow(() -> new IllegalStateException(
+                String.format("Product %s is not in the inventory", productId)));
+        if (!snapshot.isCompatibleWith(offset.getMetric())) {
+            throw new MetricMismatchException(snapshot.getMetric(), offset.getMetric());
+        }
+
+        return record(productId, offset, StockMovement.Reason.ADJUSTMENT);
+    }
+
+    private boolean record(Product.Id productId, Quantity delta, StockMovement.Reason reason) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            lock(productId);
+            if (delta.isNegative() && getStock(productId).add(delta).isNegative()) {
+                return false;
+            }
+
+            movements.save(new StockMovement(productId, delta, reason));
+            return true;
+        }));
+    }
+
+    private void lock(Product.Id productId) {
+        inventory.lockByProductId(productId)
+            .orElseThrow(() -> new IllegalStateException(
+                String.format("Product %s is not in the inventory", productId)));
+    }
+
+    private Quantity getStock(Product.Id productId) {
+        Quantity snapshot = inventory.findQuantityByProductId(productId)
+            .orElseThrow(IllegalStateException::new);
+        return movements.sumUncompacted(productId)
+            .map(amount -> snapshot.add(Quantity.of(amount, snapshot.getMetric())))
+            .orElse(snapshot);
+    }
+
+    private static Quantity negate(Quantity quantity) {
+        return quantity.toZero().subtract(quantity);
+    }
+
+    /**
+     * Compacts all uncompacted movements into their {@link InventoryItem}s. Each product is compacted within its own
+     * transaction while holding the lock on its item, so concurrent changes never observe a movement twice or not at
+     * all.
+     */
+    @Scheduled(fixedDelayString = "${dyob.inventory.journal.compaction-interval:5000}")
+    void compact() {
+        List<Product.Id> productIds = movements.findProductIdsByCompactedFalse();
+        productIds.forEach(this::compact);
+        if (!productIds.isEmpty()) {
+            log.debug("Compacted stock movements of {} products", productIds.size());
+        }
+    }
+
+    private void compact(Product.Id productId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            lock(productId);
+            List<StockMovement> tail = movements.findByCompactedFalseAndProductIdIn(List.of(productId)).toList();
+            tail.stream()
+                .map(StockMovement::getQuantity)
+                .reduce(Quantity::add)
+                .ifPresent(delta -> inventory.increase(productId, delta));
+            tail.forEach(StockMovement::compact);
+        });
+    }
+}
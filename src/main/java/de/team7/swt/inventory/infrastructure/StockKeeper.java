@@ -0,0 +1,49 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Keeps track of the amount of products in stock. Implementations decide where the authoritative stock lives, e.g.
+ * directly in the {@link Inventory} or in memory. The strategy is selected by the
+ * {@literal dyob.inventory.stock-keeping} property.
+ *
+ * @author Vincent Nadoll
+ */
+public interface StockKeeper {
+
+    /**
+     * Returns the current stock of all given products which are kept in the inventory.
+     *
+     * @param productIds must not be {@literal null}
+     * @return the stock by product ID, containing products in the inventory only; never {@literal null}
+     */
+    Map<Product.Id, Quantity> getStock(Collection<Product.Id> productIds);
+
+    /**
+     * Decreases the stock of the given product by the given quantity, but only if there's a sufficient amount in
+     * stock. Check and decrease are executed atomically with respect to concurrent calls.
+     *
+     * @param productId must not be {@literal null}
+     * @param quantity  must not be {@literal null}
+     * @return {@literal true} if the stock has been decreased; {@literal false} if the product is not in stock, its
+     *     stock is insufficient or its metric doesn't match
+     */
+    boolean decrease(Product.Id productId, Quantity quantity);
+
+    /**
+     * Adjusts the stock of the given product by the given, possibly negative, offset, but only if the resulting stock
+     * is not negative.
+     *
+     * @param productId must not be {@literal null}
+     * @param offset    must not be {@literal null}
+     * @return {@literal true} if the stock has been adjusted; {@literal false} if the resulting stock would be negative
+     * @throws IllegalStateException                                in case the product is not in the inventory
+     * @throws de.team7.swt.domain.quantity.MetricMismatchException in case the product doesn't support the offset's
+     *                                                              metric
+     */
+    boolean adjust(Product.Id productId, Quantity offset);
+}
@@ -0,0 +1,213 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.model.InventoryItem;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static java.util.function.Predicate.not;
+
+/**
+ * In-memory {@link StockKeeper} implementation serving stock checks and changes without touching the database. Each
+ * product's stock is updated atomically per key, so concurrent checkouts of different products don't contend with each
+ * other. The ledger is seeded from the {@link Inventory} once the application is ready and loads unknown products
+ * lazily. Changes are written behind to the {@link Inventory} periodically and on shutdown.
+ * <p>
+ * Decreases taking part in a transaction are compensated if that transaction rolls back.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "dyob.inventory.stock-keeping", havingValue = "ledger")
+class StockLedger implements StockKeeper {
+
+    private final ConcurrentMap<Product.Id, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Inventory inventory;
+    private final TransactionTemplate transactionTemplate;
+
+    StockLedger(Inventory inventory, PlatformTransactionManager transactionManager) {
+        this.inventory = inventory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Loads the stock of all inventory items into this ledger.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void seed() {
+        inventory.findAll().forEach(this::track);
+        log.info("Seeded stock ledger with {} items", entries.size());
+    }
+
+    private void track(InventoryItem item) {
+        entries.putIfAbsent(item.getProduct().getId(), Entry.of(item.getQuantity()));
+    }
+
+    @Override
+    public Map<Product.Id, Quantity> getStock(Collection<Product.Id> productIds) {
+        Assert.notNull(productIds, "Product IDs must not be null");
+
+        List<Product.Id> untracked = productIds.stream()
+            .filter(not(entries::containsKey))
+            .collect(Collectors.toList());
+        if (!untracked.isEmpty()) {
+            inventory.findByProductIdIn(untracked).forEach(this::track);
+        }
+
+        Map<Product.Id, Quantity> stock = new HashMap<>();
+        for (Product.Id productId : productIds) {
+            Entry entry = entries.get(productId);
+            if (null != entry) {
+                stock.put(productId, entry.stock);
+            }
+        }
+        return stock;
+    }
+
+    @Override
+    public boolean decrease(Product.Id productId, Quantity quantity) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(quantity, "Quantity must not be null");
+
+        Entry entry = trackIfAbsent(productId);
+        if (null == entry || !entry.stock.isCompatibleWith(quantity.getMetric())) {
+            return false;
+        }
+
+        return apply(productId, negate(quantity));
+    }
+
+    @Override
+    public boolean adjust(Product.Id productId, Quantity offset) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(offset, "Offset must not be null");
+
+        if (null == trackIfAbsent(productId)) {
+            throw new IllegalStateException(String.format("Product %s is not in the inventory", productId));
+        }
+
+        return apply(productId, offset);
+    }
+
+    private Entry trackIfAbsent(Product.Id productId) {
+        if (!entries.containsKey(productId)) {
+            inventory.findByProductId(productId).ifPresent(this::track);
+        }
+        return entries.get(productId);
+    }
+
+    private boolean apply(Product.Id productId, Quantity delta) {
+        AtomicBoolean applied = new AtomicBoolean();
+        entries.computeIfPresent(productId, (id, entry) -> {
+            Entry next = entry.add(delta);
+            if (next.stock.isNegative()) {
+                return entry;
+            }
+
+            applied.set(true);
+            return next;
+        });
+
+        if (applied.get()) {
+            compensateOnRollback(productId, delta);
+        }
+        return applied.get();
+    }
+
+    private void compensateOnRollback(Product.Id productId, Quantity delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (STATUS_ROLLED_BACK == status) {
+                    entries.computeIfPresent(productId, (id, entry) -> entry.add(negate(delta)));
+                }
+            }
+        });
+    }
+
+    private static Quantity negate(Quantity quantity) {
+        return quantity.toZero().subtract(quantity);
+    }
+
+    /**
+     * Writes all pending stock changes behind to the {@link Inventory} within a single transaction. Changes applied
+     * while flushing remain pending until the next flush.
+     */
+    @Scheduled(fixedDelayString = "${dyob.inventory.ledger.flush-interval:1000}")
+    synchronized void flush() {
+        Map<Product.Id, Quantity> pending = new HashMap<>();
+        entries.forEach((productId, entry) -> {
+            if (!entry.pending.isZero()) {
+                pending.put(productId, entry.pending);
+            }
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> pending.forEach(inventory::increase));
+        pending.forEach((productId, delta) -> entries.computeIfPresent(productId, (id, entry) -> entry.flushed(delta)));
+        log.debug("Flushed {} pending stock changes", pending.size());
+    }
+
+    /**
+     * Writes all pending stock changes behind once the application context is closed, while the {@link Inventory} is
+     * still available.
+     */
+    @EventListener(ContextClosedEvent.class)
+    void shutdown() {
+        flush();
+    }
+
+    /**
+     * Immutable ledger entry holding a product's current stock and the change that has not been flushed yet.
+     *
+     * @author Vincent Nadoll
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class Entry {
+
+        private final Quantity stock;
+        private final Quantity pending;
+
+        static Entry of(Quantity stock) {
+            return new Entry(stock, stock.toZero());
+        }
+
+        Entry add(Quantity delta) {
+            return new Entry(stock.add(delta), pending.add(delta));
+        }
+
+        Entry flushed(Quantity delta) {
+            return new Entry(stock, pending.subtract(delta));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.model.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.util.Streamable;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JPA {@link org.springframework.data.repository.Repository} for managing {@link StockMovement} instances.
+ *
+ * @author Vincent Nadoll
+ */
+public interface StockMovements extends JpaRepository<StockMovement, StockMovement.Id> {
+
+    /**
+     * Returns the {@link Product.Id}s of all products which have movements which have not been compacted yet.
+     *
+     * @return the distinct product IDs; never {@literal null}
+     */
+    @Query("select distinct m.productId from StockMovement m where m.compacted = false")
+    List<Product.Id> findProductIdsByCompactedFalse();
+
+    /**
+     * Returns all movements of any of the given {@link Product.Id}s which have not been compacted yet using a single
+     * query.
+     *
+     * @param productIds must not be {@literal null}
+     * @return all found movements; never {@literal null}
+     */
+    Streamable<StockMovement> findByCompactedFalseAndProductIdIn(Collection<Product.Id> productIds);
+
+    /**
+     * Sums up the amount of all movements of the given {@link Product.Id} which have not been compacted yet.
+     *
+     * @param productId must not be {@literal null}
+     * @return the summed up amount or {@literal Optional.empty()} if there are no uncompacted movements
+     */
+    @Query("select sum(m.quantity.amount) from StockMovement m "
+        + "where m.compacted = false and m.productId = :productId")
+    Optional<BigDecimal> sumUncompacted(@Param("productId") Product.Id productId);
+}
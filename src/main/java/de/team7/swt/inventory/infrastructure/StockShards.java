@@ -0,0 +1,92 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.model.StockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.LockModeType;
+
+/**
+ * JPA {@link org.springframework.data.repository.Repository} for managing {@link StockShard} instances.
+ *
+ * @author Vincent Nadoll
+ */
+public interface StockShards extends JpaRepository<StockShard, StockShard.Id> {
+
+    /**
+     * Returns all shards of any of the given {@link Product.Id}s using a single query.
+     *
+     * @param productIds must not be {@literal null}
+     * @return all found shards; never {@literal null}
+     */
+    Streamable<StockShard> findByProductIdIn(Collection<Product.Id> productIds);
+
+    /**
+     * Returns all shards of the given {@link Product.Id} ordered by their index and locks them for the rest of the
+     * current transaction.
+     *
+     * @param productId must not be {@literal null}
+     * @return all found shards; never {@literal null}
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockShard> findByProductIdOrderByShard(Product.Id productId);
+
+    /**
+     * Decreases the given shard of the given {@link Product.Id} by the given quantity, but only if the shard has a
+     * sufficient amount in stock.
+     *
+     * @param productId must not be {@literal null}
+     * @param shard     the shard's index
+     * @param quantity  must not be {@literal null}
+     * @return the number of updated shards; {@literal 0} if the shard's stock is insufficient
+     */
+    @Transactional
+    @Modifying
+    @Query("update StockShard s set s.quantity.amount = s.quantity.amount - :#{#quantity.amount} "
+        + "where s.productId = :productId "
+        + "and s.shard = :shard "
+        + "and s.quantity.metric = :#{#quantity.metric} "
+        + "and s.quantity.amount >= :#{#quantity.amount}")
+    int decreaseIfSufficient(@Param("productId") Product.Id productId,
+                             @Param("shard") int shard,
+                             @Param("quantity") Quantity quantity);
+
+    /**
+     * Increases the given shard of the given {@link Product.Id} by the given quantity.
+     *
+     * @param productId must not be {@literal null}
+     * @param shard     the shard's index
+     * @param quantity  must not be {@literal null}
+     * @return the number of updated shards
+     */
+    @Transactional
+    @Modifying
+    @Query("update StockShard s set s.quantity.amount = s.quantity.amount + :#{#quantity.amount} "
+        + "where s.productId = :productId "
+        + "and s.shard = :shard "
+        + "and s.quantity.metric = :#{#quantity.metric}")
+    int increase(@Param("productId") Product.Id productId,
+                 @Param("shard") int shard,
+                 @Param("quantity") Quantity quantity);
+
+    /**
+     * Sets the quantity of every sharded inventory item to the sum of its shards.
+     *
+     * @return the number of updated inventory items
+     */
+    @Transactional
+    @Modifying
+    @Query("update InventoryItem i set i.quantity.amount = "
+        + "(select sum(s.quantity.amount) from StockShard s where s.productId = i.product.id) "
+        + "where exists (select s from StockShard s where s.productId = i.product.id)")
+    int synchronizeInventory();
+}
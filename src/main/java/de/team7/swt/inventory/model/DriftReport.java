@@ -0,0 +1,32 @@
+package de.team7.swt.inventory.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Report of a reconciliation of all inventory items, listing the items whose stock has drifted. The expected stock
+ * includes the completed orders created and the manual adjustments recorded before the reconciliation. Since the
+ * actual stock is read afterwards, drifted items are read again including all orders and adjustments before the
+ * recheck, and only those items which have still drifted are reported.
+ *
+ * @author Vincent Nadoll
+ */
+@Value(staticConstructor = "of")
+public class DriftReport {
+
+    @JsonProperty("reconciled_at")
+    Instant reconciledAt;
+
+    @JsonProperty("rechecked_at")
+    @Nullable
+    Instant recheckedAt;
+
+    @JsonProperty("item_count")
+    long itemCount;
+
+    List<StockDrift> drifts;
+}
@@ -2,8 +2,8 @@ package de.team7.swt.inventory.model;
 
 import de.team7.swt.domain.catalog.Product;
 import de.team7.swt.domain.quantity.Quantity;
-import de.team7.swt.domain.shared.AggregateRoot;
 import de.team7.swt.domain.shared.Identifier;
+import de.team7.swt.domain.shared.VersionedAggregateRoot;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,7 +12,9 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.hibernate.annotations.GenericGenerator;
 import org.springframework.util.Assert;
 
+import java.math.BigDecimal;
 import java.util.UUID;
+import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
@@ -22,14 +24,15 @@ import javax.persistence.OneToOne;
 
 /**
  * An inventory item associates a {@link Product} with a {@link Quantity} to keep track of how many items per product
- * are available.
+ * are available. Its reorder threshold marks the quantity at which the product is considered low on stock. The quantity
+ * it has been created with is kept as initial quantity, so its current quantity can be reconciled.
  *
  * @author Vincent Nadoll
  */
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
-public class InventoryItem extends AggregateRoot<InventoryItem.Id> {
+public class InventoryItem extends VersionedAggregateRoot<InventoryItem.Id> {
 
     @EmbeddedId
     @GeneratedValue(generator = "inventoryItem-id")
@@ -42,6 +45,14 @@ public class InventoryItem extends AggregateRoot<InventoryItem.Id> {
 
     private Quantity quantity;
 
+    @Getter(AccessLevel.NONE)
+    @Column(nullable = false, updatable = false)
+    private final BigDecimal initialAmount;
+
+    @Getter(AccessLevel.NONE)
+    @Column(nullable = false)
+    private BigDecimal reorderThreshold = BigDecimal.ZERO;
+
     /**
      * Creates a new item with given product and quantity.
      *
@@ -58,6 +69,7 @@ public class InventoryItem extends AggregateRoot<InventoryItem.Id> {
         this.id = null;
         this.product = product;
         this.quantity = quantity;
+        this.initialAmount = quantity.getAmount();
     }
 
     /**
@@ -107,12 +119,48 @@ public class InventoryItem extends AggregateRoot<InventoryItem.Id> {
         return !this.quantity.subtract(quantity).isNegative();
     }
 
+    /**
+     * Returns the quantity this item has been created with.
+     *
+     * @return the initial quantity in the metric of this item's quantity; never {@literal null}
+     */
+    public Quantity getInitialQuantity() {
+        return Quantity.of(initialAmount, quantity.getMetric());
+    }
+
+    /**
+     * Returns the quantity at which this item's product is considered low on stock.
+     *
+     * @return the reorder threshold in the metric of this item's quantity; never {@literal null}
+     */
+    public Quantity getReorderThreshold() {
+        return Quantity.of(reorderThreshold, quantity.getMetric());
+    }
+
+    /**
+     * Sets the quantity at which this item's product is considered low on stock.
+     *
+     * @param threshold must not be {@literal null}
+     * @throws IllegalArgumentException                             in case the threshold is negative
+     * @throws de.team7.swt.domain.quantity.MetricMismatchException in case this item's {@link Product} doesn't support
+     *                                                              the given {@link Quantity}
+     */
+    public void setReorderThreshold(Quantity threshold) {
+        Assert.notNull(threshold, "Reorder threshold must not be null");
+        Assert.isTrue(!threshold.isNegative(), "Reorder threshold must not be negative");
+        product.verify(threshold);
+
+        this.reorderThreshold = threshold.getAmount();
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
             .append("id", id)
             .append("product", product)
             .append("quantity", quantity)
+            .append("initialAmount", initialAmount)
+            .append("reorderThreshold", reorderThreshold)
             .toString();
     }
 
@@ -0,0 +1,91 @@
+package de.team7.swt.inventory.model;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.domain.shared.Entity;
+import de.team7.swt.domain.shared.Identifier;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.UUID;
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
+import javax.persistence.EmbeddedId;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * A manual adjustment records a change of a product's stock which hasn't been caused by an order, e.g. a delivery or
+ * a correction after counting the stock. Adjustments are only ever appended, regardless of the stock keeping strategy,
+ * so the stock can be reconciled against them.
+ *
+ * @author Vincent Nadoll
+ */
+@javax.persistence.Entity
+@Getter
+@Table(indexes = @Index(columnList = "product_id"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+public class ManualAdjustment extends Entity<ManualAdjustment.Id> {
+
+    @EmbeddedId
+    @GeneratedValue(generator = "manualAdjustment-id")
+    @GenericGenerator(name = "manualAdjustment-id", strategy = "dyob-id")
+    private final ManualAdjustment.Id id;
+
+    @Embedded
+    @AttributeOverride(name = "id", column = @Column(name = "product_id", updatable = false))
+    private final Product.Id productId;
+
+    private final Quantity quantity;
+
+    @Column(updatable = false)
+    private final Instant recordedAt;
+
+    /**
+     * Creates a new adjustment of the given product's stock.
+     *
+     * @param productId must not be {@literal null}
+     * @param quantity  must not be {@literal null}, negative if the stock has been decreased
+     */
+    public ManualAdjustment(Product.Id productId, Quantity quantity) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(quantity, "Quantity must not be null");
+
+        this.id = null;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.recordedAt = Instant.now();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+            .append("id", id)
+            .append("productId", productId)
+            .append("quantity", quantity)
+            .append("recordedAt", recordedAt)
+            .toString();
+    }
+
+    /**
+     * Value object representing a manual adjustment's primary identifier.
+     *
+     * @author Vincent Nadoll
+     */
+    @Embeddable
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static final class Id extends Identifier {
+        public Id(@NonNull UUID id) {
+            super(id);
+        }
+    }
+}
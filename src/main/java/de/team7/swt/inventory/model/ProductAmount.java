@@ -0,0 +1,18 @@
+package de.team7.swt.inventory.model;
+
+import de.team7.swt.domain.catalog.Product;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of an amount summed up per {@link Product}, e.g. of all its manual adjustments.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+public class ProductAmount {
+
+    Product.Id productId;
+    BigDecimal amount;
+}
@@ -0,0 +1,62 @@
+package de.team7.swt.inventory.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+
+/**
+ * Value object representing a single row of a bulk stock adjustment. A row refers to a product either by its ID or by
+ * its name and contains the possibly negative amount the product's stock is adjusted by. Rows which couldn't be parsed
+ * carry an error instead of an offset.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StockAdjustment {
+
+    long row;
+    String product;
+    BigDecimal offset;
+    String error;
+
+    /**
+     * Creates a new adjustment of the referenced product's stock.
+     *
+     * @param row     the row's number within the import
+     * @param product the product's ID or name, must not be {@literal null} or empty
+     * @param offset  must not be {@literal null}
+     * @return a new valid adjustment
+     */
+    public static StockAdjustment of(long row, String product, BigDecimal offset) {
+        Assert.hasText(product, "Product must not be empty");
+        Assert.notNull(offset, "Offset must not be null");
+        return new StockAdjustment(row, product, offset, null);
+    }
+
+    /**
+     * Creates a new adjustment representing a row which couldn't be parsed.
+     *
+     * @param row     the row's number within the import
+     * @param product the product's ID or name, can be {@literal null}
+     * @param error   must not be {@literal null} or empty
+     * @return a new invalid adjustment
+     */
+    public static StockAdjustment invalid(long row, @Nullable String product, String error) {
+        Assert.hasText(error, "Error must not be empty");
+        return new StockAdjustment(row, product, null, error);
+    }
+
+    /**
+     * Returns whether this row has been parsed successfully.
+     *
+     * @return {@literal true} if this adjustment has an offset; {@literal false} if it carries an error
+     */
+    public boolean isValid() {
+        return null == error;
+    }
+}
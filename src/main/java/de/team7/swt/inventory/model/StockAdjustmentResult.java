@@ -0,0 +1,60 @@
+package de.team7.swt.inventory.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import de.team7.swt.domain.catalog.Product;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Value object reporting the outcome of a single {@link StockAdjustment}.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StockAdjustmentResult {
+
+    long row;
+    String product;
+
+    @JsonUnwrapped(prefix = "product_")
+    Product.Id productId;
+
+    Status status;
+    String message;
+
+    /**
+     * Creates a new result of the given adjustment.
+     *
+     * @param adjustment must not be {@literal null}
+     * @param productId  the ID of the adjusted product, can be {@literal null}
+     * @param status     must not be {@literal null}
+     * @param message    can be {@literal null}
+     * @return a new result
+     */
+    public static StockAdjustmentResult of(StockAdjustment adjustment, @Nullable Product.Id productId, Status status,
+                                           @Nullable String message) {
+        Assert.notNull(adjustment, "Adjustment must not be null");
+        Assert.notNull(status, "Status must not be null");
+        return new StockAdjustmentResult(adjustment.getRow(), adjustment.getProduct(), productId, status, message);
+    }
+
+    /**
+     * Enumeration of a stock adjustment's possible outcomes.
+     *
+     * @author Vincent Nadoll
+     */
+    public enum Status {
+        ADJUSTED,
+        INSUFFICIENT_STOCK,
+        UNKNOWN_PRODUCT,
+        INVALID,
+        FAILED,
+        ;
+    }
+}
@@ -0,0 +1,28 @@
+package de.team7.swt.inventory.model;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Metric;
+import de.team7.swt.domain.quantity.Quantity;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of an {@link InventoryItem} containing just the attributes needed to reconcile its stock, i.e. the
+ * quantity the item has been created with.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+public class StockBaseline {
+
+    Product.Id productId;
+    String productName;
+    Quantity initialQuantity;
+
+    public StockBaseline(Product.Id productId, String productName, BigDecimal initialAmount, Metric metric) {
+        this.productId = productId;
+        this.productName = productName;
+        this.initialQuantity = Quantity.of(initialAmount, metric);
+    }
+}
@@ -0,0 +1,36 @@
+package de.team7.swt.inventory.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import de.team7.swt.domain.catalog.Product;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Value object describing an inventory item whose actual stock differs from the stock expected from its initial
+ * quantity, its manual adjustments and the orders it has been part of.
+ *
+ * @author Vincent Nadoll
+ */
+@Value(staticConstructor = "of")
+public class StockDrift {
+
+    @JsonUnwrapped(prefix = "product_")
+    Product.Id productId;
+
+    @JsonProperty("product_name")
+    String productName;
+
+    BigDecimal expected;
+    BigDecimal actual;
+
+    /**
+     * Returns the difference between the actual and the expected stock.
+     *
+     * @return a positive amount if there is more stock than expected; a negative amount otherwise
+     */
+    public BigDecimal getDrift() {
+        return actual.subtract(expected);
+    }
+}
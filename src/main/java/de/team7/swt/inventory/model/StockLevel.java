@@ -0,0 +1,54 @@
+package de.team7.swt.inventory.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import lombok.Value;
+import lombok.With;
+
+import java.math.BigDecimal;
+
+/**
+ * Value object representing a product's current stock compared to its reorder threshold. The difference of both is the
+ * product's headroom, which is zero or negative if the product is low on stock.
+ *
+ * @author Vincent Nadoll
+ */
+@Value(staticConstructor = "of")
+public class StockLevel {
+
+    @JsonUnwrapped(prefix = "product_")
+    Product.Id productId;
+
+    @JsonProperty("product_name")
+    String productName;
+
+    @With
+    Quantity quantity;
+
+    @With
+    @JsonProperty("reorder_threshold")
+    Quantity reorderThreshold;
+
+    /**
+     * Returns the amount of products which may be taken from stock until the reorder threshold is reached.
+     *
+     * @return the headroom, zero or negative if the product is low on stock; never {@literal null}
+     */
+    @JsonIgnore
+    public BigDecimal getHeadroom() {
+        return quantity.getAmount().subtract(reorderThreshold.getAmount());
+    }
+
+    /**
+     * Returns whether the product's stock has reached its reorder threshold.
+     *
+     * @return {@literal true} if the stock is not greater than the reorder threshold; {@literal false} otherwise
+     */
+    @JsonIgnore
+    public boolean isLow() {
+        return getHeadroom().signum() <= 0;
+    }
+}
@@ -0,0 +1,130 @@
+package de.team7.swt.inventory.model;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.domain.shared.Entity;
+import de.team7.swt.domain.shared.Identifier;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.UUID;
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
+import javax.persistence.EmbeddedId;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * A stock movement records a single, possibly negative, change of a product's stock. Movements are only ever appended,
+ * so concurrent changes of the same product insert different rows instead of updating a single
+ * {@link InventoryItem}. Once a movement has been compacted into its item's quantity, it is kept as audit trail.
+ *
+ * @author Vincent Nadoll
+ */
+@javax.persistence.Entity
+@Getter
+@Table(indexes = @Index(columnList = "compacted, product_id"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+public class StockMovement extends Entity<StockMovement.Id> {
+
+    @EmbeddedId
+    @GeneratedValue(generator = "stockMovement-id")
+    @GenericGenerator(name = "stockMovement-id", strategy = "dyob-id")
+    private final StockMovement.Id id;
+
+    @Embedded
+    @AttributeOverride(name = "id", column = @Column(name = "product_id", updatable = false))
+    private final Product.Id productId;
+
+    private final Quantity quantity;
+
+    @Column(updatable = false)
+    @Enumerated(EnumType.STRING)
+    private final Reason reason;
+
+    @Column(updatable = false)
+    private final Instant recordedAt;
+
+    private boolean compacted;
+
+    /**
+     * Creates a new movement with given product ID, quantity and reason.
+     *
+     * @param productId must not be {@literal null}
+     * @param quantity  must not be {@literal null}, negative if the stock has been decreased
+     * @param reason    must not be {@literal null}
+     */
+    public StockMovement(Product.Id productId, Quantity quantity, Reason reason) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(quantity, "Quantity must not be null");
+        Assert.notNull(reason, "Reason must not be null");
+
+        this.id = null;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.reason = reason;
+        this.recordedAt = Instant.now();
+        this.compacted = false;
+    }
+
+    /**
+     * Marks this movement as compacted into its item's quantity.
+     */
+    public void compact() {
+        this.compacted = true;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+            .append("id", id)
+            .append("productId", productId)
+            .append("quantity", quantity)
+            .append("reason", reason)
+            .append("recordedAt", recordedAt)
+            .append("compacted", compacted)
+            .toString();
+    }
+
+    /**
+     * Reasons for a product's stock to change.
+     *
+     * @author Vincent Nadoll
+     */
+    public enum Reason {
+
+        /**
+         * Products have been ordered.
+         */
+        ORDER,
+
+        /**
+         * The stock has been adjusted manually.
+         */
+        ADJUSTMENT
+    }
+
+    /**
+     * Value object representing a stock movement's primary identifier.
+     *
+     * @author Vincent Nadoll
+     */
+    @Embeddable
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static final class Id extends Identifier {
+        public Id(@NonNull UUID id) {
+            super(id);
+        }
+    }
+}
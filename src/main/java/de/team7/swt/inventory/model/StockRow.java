@@ -0,0 +1,55 @@
+package de.team7.swt.inventory.model;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Metric;
+import de.team7.swt.domain.quantity.Quantity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+import org.springframework.format.annotation.NumberFormat;
+
+import java.math.BigDecimal;
+import javax.money.MonetaryAmount;
+
+/**
+ * Projection of an {@link InventoryItem} and its {@link Product} containing just the attributes listed on the stock
+ * page, thus neither the product's categories nor any other association is loaded.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StockRow {
+
+    InventoryItem.Id itemId;
+    Product.Id productId;
+    String productName;
+
+    @NumberFormat(pattern = "0.00 ¤")
+    MonetaryAmount price;
+
+    @With
+    Quantity quantity;
+
+    Quantity reorderThreshold;
+
+    public StockRow(InventoryItem.Id itemId, Product.Id productId, String productName, MonetaryAmount price,
+                    BigDecimal amount, Metric metric, BigDecimal reorderThreshold) {
+        this.itemId = itemId;
+        this.productId = productId;
+        this.productName = productName;
+        this.price = price;
+        this.quantity = Quantity.of(amount, metric);
+        this.reorderThreshold = Quantity.of(reorderThreshold, metric);
+    }
+
+    /**
+     * Returns whether the product's stock has reached its reorder threshold.
+     *
+     * @return {@literal true} if the stock is not greater than the reorder threshold; {@literal false} otherwise
+     */
+    public boolean isLow() {
+        return !quantity.isGreaterThan(reorderThreshold);
+    }
+}
@@ -0,0 +1,105 @@
+package de.team7.swt.inventory.model;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.domain.shared.Entity;
+import de.team7.swt.domain.shared.Identifier;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.util.Assert;
+
+import java.util.UUID;
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
+import javax.persistence.EmbeddedId;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * A stock shard holds a part of a product's stock. Splitting the stock of frequently ordered products across multiple
+ * shards allows concurrent checkouts to decrease different rows instead of contending for a single
+ * {@link InventoryItem}. The product's stock is the sum of all its shards.
+ *
+ * @author Vincent Nadoll
+ */
+@javax.persistence.Entity
+@Getter
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "shard"}))
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+public class StockShard extends Entity<StockShard.Id> {
+
+    @EmbeddedId
+    @GeneratedValue(generator = "stockShard-id")
+    @GenericGenerator(name = "stockShard-id", strategy = "dyob-id")
+    private final StockShard.Id id;
+
+    @Embedded
+    @AttributeOverride(name = "id", column = @Column(name = "product_id", updatable = false))
+    private final Product.Id productId;
+
+    @Column(updatable = false)
+    private final int shard;
+
+    private Quantity quantity;
+
+    /**
+     * Creates a new shard with given product ID, shard index and quantity.
+     *
+     * @param productId must not be {@literal null}
+     * @param shard     must not be negative
+     * @param quantity  must not be {@literal null}
+     */
+    public StockShard(Product.Id productId, int shard, Quantity quantity) {
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.isTrue(shard >= 0, "Shard must not be negative");
+        Assert.notNull(quantity, "Quantity must not be null");
+
+        this.id = null;
+        this.productId = productId;
+        this.shard = shard;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Takes as much as possible, but not more than the given quantity from this shard.
+     *
+     * @param quantity must not be {@literal null}
+     * @return the quantity taken from this shard
+     * @throws de.team7.swt.domain.quantity.MetricMismatchException in case the quantities' metrics didn't match
+     */
+    public Quantity take(Quantity quantity) {
+        Quantity taken = this.quantity.isLessThan(quantity) ? this.quantity : quantity;
+        this.quantity = this.quantity.subtract(taken);
+        return taken;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+            .append("id", id)
+            .append("productId", productId)
+            .append("shard", shard)
+            .append("quantity", quantity)
+            .toString();
+    }
+
+    /**
+     * Value object representing a stock shard's primary identifier.
+     *
+     * @author Vincent Nadoll
+     */
+    @Embeddable
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static final class Id extends Identifier {
+        public Id(@NonNull UUID id) {
+            super(id);
+        }
+    }
+}
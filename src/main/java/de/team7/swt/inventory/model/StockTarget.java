@@ -0,0 +1,18 @@
+package de.team7.swt.inventory.model;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Metric;
+import lombok.Value;
+
+/**
+ * Projection of a {@link Product} in the inventory containing just the attributes needed to adjust its stock.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+public class StockTarget {
+
+    Product.Id productId;
+    String productName;
+    Metric metric;
+}
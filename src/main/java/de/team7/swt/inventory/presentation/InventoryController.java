@@ -2,12 +2,22 @@ package de.team7.swt.inventory.presentation;
 
 import de.team7.swt.domain.catalog.Product;
 import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.application.LowStockIndex;
+import de.team7.swt.inventory.application.StockOverview;
 import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.infrastructure.ManualAdjustments;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
 import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.ManualAdjustment;
+import de.team7.swt.inventory.model.StockRow;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,8 +29,10 @@ import org.springframework.web.servlet.view.RedirectView;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
+import javax.servlet.http.HttpServletRequest;
 
 /**
  * Stateful MVC-Controller to manage the product stock.
@@ -28,21 +40,100 @@ import java.util.function.Consumer;
  * @author Vincent Nadoll
  */
 @Controller
-@RequiredArgsConstructor
 class InventoryController {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private static final List<String> FILTER_PARAMETERS = List.of("name", "category", "page", "size", "sort",
+        "direction");
+    private static final String DEFAULT_SORT = "name";
+    private static final Map<String, String> SORT_PROPERTIES = Map.of(
+        "name", "product.name",
+        "quantity", "quantity.amount"
+    );
+
     private final Inventory inventory;
+    private final StockKeeper stockKeeper;
+    private final LowStockIndex lowStockIndex;
+    private final StockOverview stockOverview;
+    private final ManualAdjustments manualAdjustments;
+    private final Map<String, String> sortProperties;
+
+    /**
+     * Creates a new controller. Items are sorted by the quantity persisted in the {@link Inventory}, which is the
+     * authoritative stock of the {@literal database} strategy only. Other strategies keep the authoritative stock
+     * elsewhere and write it back lazily, thus sorting by quantity is offered for the {@literal database} strategy
+     * only.
+     */
+    InventoryController(Inventory inventory, StockKeeper stockKeeper, LowStockIndex lowStockIndex,
+                        StockOverview stockOverview, ManualAdjustments manualAdjustments,
+                        @Value("${dyob.inventory.stock-keeping:database}") String stockKeeping) {
+        this.inventory = inventory;
+        this.stockKeeper = stockKeeper;
+        this.lowStockIndex = lowStockIndex;
+        this.stockOverview = stockOverview;
+        this.manualAdjustments = manualAdjustments;
+        this.sortProperties = "database".equals(stockKeeping)
+            ? SORT_PROPERTIES
+            : Map.of(DEFAULT_SORT, SORT_PROPERTIES.get(DEFAULT_SORT));
+    }
 
     /**
-     * Exposes the {@literal stock.html}-page.
+     * Exposes the {@literal stock.html}-page listing a single page of items. Items may be filtered by their product's
+     * name and category and sorted by name or, if the stock is kept in the database, by quantity. Each item's
+     * quantity is read from the {@link StockKeeper}, thus the page is consistent with the stock used to verify
+     * orders.
      *
-     * @param model Spring's UI model
+     * @param itemId    the ID of the recently edited item, can be {@literal null}
+     * @param name      a part of the product's name, can be {@literal null}
+     * @param category  the category the product must be assigned to, can be {@literal null}
+     * @param page      the zero-based page number
+     * @param size      the maximum number of items per page
+     * @param sort      either {@literal name} or {@literal quantity}, which falls back to {@literal name} unless the
+     *                  stock is kept in the database
+     * @param direction either {@literal asc} or {@literal desc}
+     * @param model     Spring's UI model
      * @return 200
      */
     @GetMapping("/stock")
-    String stock(@RequestParam(value = "item_id", required = false) InventoryItem.Id itemId, Model model) {
-        List<InventoryItem> stock = inventory.findAll();
-        model.addAttribute("inventory", stock);
+    String stock(@RequestParam(value = "item_id", required = false) InventoryItem.Id itemId,
+                 @RequestParam(required = false) String name,
+                 @RequestParam(required = false) String category,
+                 @RequestParam(defaultValue = "0") int page,
+                 @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                 @RequestParam(defaultValue = DEFAULT_SORT) String sort,
+                 @RequestParam(defaultValue = "asc") String direction,
+                 Model model) {
+        String nameFilter = StringUtils.trimToNull(name);
+        String categoryFilter = StringUtils.trimToNull(category);
+        String sortKey = sortProperties.containsKey(sort) ? sort : DEFAULT_SORT;
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+            Sort.by(sortDirection, sortProperties.get(sortKey)).and(Sort.by("id")));
+        Page<StockRow> rows = stockOverview.getPage(nameFilter, categoryFilter, pageRequest);
+
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromPath("/stock")
+            .queryParamIfPresent("name", Optional.ofNullable(nameFilter))
+            .queryParamIfPresent("category", Optional.ofNullable(categoryFilter))
+            .queryParam("size", pageRequest.getPageSize())
+            .queryParam("sort", sortKey)
+            .queryParam("direction", sortDirection.name().toLowerCase());
+        model.addAttribute("inventory", rows);
+        model.addAttribute("categories", stockOverview.getCategories());
+        model.addAttribute("sortKeys", sortProperties.keySet());
+        model.addAttribute("filter", Map.of(
+            "name", StringUtils.defaultString(nameFilter),
+            "category", StringUtils.defaultString(categoryFilter),
+            "sort", sortKey,
+            "direction", sortDirection.name().toLowerCase()));
+        model.addAttribute("pageUri", toPageUri(uriBuilder, rows.getNumber()));
+        if (rows.hasPrevious()) {
+            model.addAttribute("previousPageUri", toPageUri(uriBuilder, rows.getNumber() - 1));
+        }
+        if (rows.hasNext()) {
+            model.addAttribute("nextPageUri", toPageUri(uriBuilder, rows.getNumber() + 1));
+        }
         model.addAttribute("formData", new ItemFormData());
         Optional.ofNullable(itemId)
             .flatMap(inventory::findById)
@@ -50,40 +141,75 @@ class InventoryController {
         return "stock";
     }
 
+    private static String toPageUri(UriComponentsBuilder uriBuilder, int page) {
+        return uriBuilder.cloneBuilder()
+            .queryParam("page", page)
+            .toUriString();
+    }
+
     private static Consumer<Object> addAttributeTo(Model model, String attributeName) {
         return attributeValue -> model.addAttribute(attributeName, attributeValue);
     }
 
     /**
-     * Exposes an endpoint to update an item's quantity.
+     * Exposes an endpoint to update an item's quantity and, optionally, its reorder threshold. Both changes are applied
+     * to the {@link LowStockIndex} as well and evict the cached pages of the {@link StockOverview}.
      *
      * @param formData submitted form data
-     * @return a redirection to {@link #stock(InventoryItem.Id, Model)}
+     * @param request  the current request, whose filter parameters are kept
+     * @return a redirection to {@link #stock(InventoryItem.Id, String, String, int, int, String, String, Model)}
      */
     @PostMapping("/stock")
-    View editItem(@ModelAttribute ItemFormData formData) {
-        InventoryItem item = inventory.findById(formData.itemId)
-            .orElseThrow(IllegalStateException::new);
-        Product product = item.getProduct();
-
-        Quantity quantity = product.from(formData.itemQuantityAmountOffset);
-        item.increase(quantity);
+    View editItem(@ModelAttribute ItemFormData formData, HttpServletRequest request) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("/stock");
+        FILTER_PARAMETERS.forEach(parameter -> Optional.ofNullable(request.getParameter(parameter))
+            .ifPresent(value -> uriBuilder.queryParam(parameter, value)));
+        uriBuilder.queryParam("item_id", formData.itemId);
+        if (null != formData.itemReorderThreshold && formData.itemReorderThreshold < 0) {
+            String uri = uriBuilder.queryParam("invalid_threshold").toUriString();
+            return new RedirectView(uri);
+        }
 
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("/stock")
-            .queryParam("item_id", formData.itemId);
-        if (item.getQuantity().isNegative()) {
+        boolean sufficient;
+        try {
+            sufficient = adjust(formData);
+        } finally {
+            stockOverview.evict();
+        }
+        if (!sufficient) {
             String uri = uriBuilder.queryParam("insufficient_stock").toUriString();
             return new RedirectView(uri);
         }
 
-        inventory.save(item);
-
         String url = uriBuilder.query("success").toUriString();
         RedirectView redirect = new RedirectView(url);
         redirect.setPropagateQueryParams(false);
         return redirect;
     }
 
+    private boolean adjust(ItemFormData formData) {
+        InventoryItem item = inventory.findById(formData.itemId)
+            .orElseThrow(IllegalStateException::new);
+        Product product = item.getProduct();
+
+        Quantity offset = product.from(formData.itemQuantityAmountOffset);
+        if (!stockKeeper.adjust(product.getId(), offset)) {
+            return false;
+        }
+        if (!offset.isZero()) {
+            lowStockIndex.adjust(product.getId(), offset);
+            manualAdjustments.save(new ManualAdjustment(product.getId(), offset));
+        }
+
+        if (null != formData.itemReorderThreshold) {
+            Quantity threshold = product.from(formData.itemReorderThreshold);
+            if (0 < inventory.updateReorderThreshold(product.getId(), threshold)) {
+                lowStockIndex.setReorderThreshold(product.getId(), threshold);
+            }
+        }
+        return true;
+    }
+
     /**
      * DTO containing the mandatory attributes to change the item's amount.
      *
@@ -95,5 +221,6 @@ class InventoryController {
     static class ItemFormData {
         private InventoryItem.Id itemId;
         private double itemQuantityAmountOffset = 0;
+        private Double itemReorderThreshold;
     }
 }
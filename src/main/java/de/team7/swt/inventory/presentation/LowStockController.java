@@ -0,0 +1,133 @@
+package de.team7.swt.inventory.presentation;
+
+import de.team7.swt.domain.web.CollectionModel;
+import de.team7.swt.domain.web.ValidationException;
+import de.team7.swt.inventory.application.LowStockIndex;
+import de.team7.swt.inventory.application.StockThresholdCrossed;
+import de.team7.swt.inventory.model.StockLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.PreDestroy;
+
+/**
+ * REST request handler for answering requests related to products which are low on stock. Besides listing them,
+ * clients may subscribe to a stream of server-sent events notifying them whenever a product's stock crosses its
+ * reorder threshold. Events are sent by a single thread of their own in the order they have been published, so the
+ * publishing thread, e.g. a checkout's, never waits for slow subscribers.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/inventory/low-stock")
+class LowStockController {
+
+    static final String LOW_STOCK_EVENT = "low-stock";
+    static final String REPLENISHED_EVENT = "replenished";
+
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_PENDING_EVENTS = 1000;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final ThreadPoolTaskExecutor sender = new ThreadPoolTaskExecutor();
+
+    private final LowStockIndex lowStockIndex;
+    private final long streamTimeout;
+
+    LowStockController(LowStockIndex lowStockIndex,
+                       @Value("${dyob.inventory.low-stock.stream-timeout:30m}") Duration streamTimeout) {
+        this.lowStockIndex = lowStockIndex;
+        this.streamTimeout = streamTimeout.toMillis();
+
+        sender.setThreadNamePrefix("low-stock-events-");
+        sender.setCorePoolSize(1);
+        sender.setMaxPoolSize(1);
+        sender.setQueueCapacity(MAX_PENDING_EVENTS);
+        sender.initialize();
+    }
+
+    /**
+     * Retrieves the products which are low on stock.
+     *
+     * @param limit the maximum number of products, between 1 and 100
+     * @return 200 - an embedded list of stock levels, lowest headroom first; 400 - if the limit is invalid
+     */
+    @GetMapping
+    ResponseEntity<CollectionModel<StockLevel>> lowStock(@RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(CollectionModel.of(lowStockIndex.getLowStock(limit)));
+    }
+
+    /**
+     * Subscribes to a stream of server-sent events. A {@value #LOW_STOCK_EVENT} event is sent whenever a product's
+     * stock reaches its reorder threshold and a {@value #REPLENISHED_EVENT} event once it is replenished above it.
+     *
+     * @return 200 - an event stream, each event's data being the product's stock level
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeout);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    /**
+     * {@link EventListener} for forwarding {@link StockThresholdCrossed} events to all subscribers. The event is only
+     * queued for sending; if too many events are pending, it is dropped. Subscribers which cannot be sent to anymore
+     * are dropped.
+     *
+     * @param event must not be {@literal null}
+     */
+    @EventListener
+    public void on(StockThresholdCrossed event) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+
+        try {
+            sender.execute(() -> send(event));
+        } catch (TaskRejectedException e) {
+            log.warn("Dropping low stock event of product {}, too many events are pending",
+                event.getStockLevel().getProductId());
+        }
+    }
+
+    private void send(StockThresholdCrossed event) {
+        String name = event.isLow() ? LOW_STOCK_EVENT : REPLENISHED_EVENT;
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                    .name(name)
+                    .data(event.getStockLevel(), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping low stock subscriber", e);
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,33 @@
+package de.team7.swt.inventory.presentation;
+
+import de.team7.swt.inventory.application.StockReconciler;
+import de.team7.swt.inventory.model.DriftReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST request handler for reconciling the stock of all inventory items on demand.
+ *
+ * @author Vincent Nadoll
+ */
+@RestController
+@RequestMapping("/api/v1/inventory/reconciliation")
+@RequiredArgsConstructor
+class ReconciliationController {
+
+    private final StockReconciler reconciler;
+
+    /**
+     * Reconciles the stock of all inventory items against their initial quantities, manual adjustments and completed
+     * orders.
+     *
+     * @return 200 - a report listing the items whose stock has drifted
+     */
+    @PostMapping
+    ResponseEntity<DriftReport> reconcile() {
+        return ResponseEntity.ok(reconciler.reconcile());
+    }
+}
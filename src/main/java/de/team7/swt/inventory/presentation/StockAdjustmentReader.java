@@ -0,0 +1,156 @@
+package de.team7.swt.inventory.presentation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.team7.swt.inventory.model.StockAdjustment;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.Assert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads {@link StockAdjustment}s line by line, so an upload is never buffered as a whole. Each line is either a CSV
+ * record of the product's ID or name and the offset, optionally preceded by a {@literal product,offset} header, or a
+ * JSON object containing the {@literal product} and {@literal offset} fields. Lines which cannot be parsed are read as
+ * invalid adjustments. Blank lines are skipped.
+ *
+ * @author Vincent Nadoll
+ */
+@RequiredArgsConstructor
+class StockAdjustmentReader implements Iterator<StockAdjustment> {
+
+    private static final String CSV_HEADER = "product,offset";
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+
+    private long lineNumber = 0;
+    private StockAdjustment next;
+
+    @Override
+    public boolean hasNext() {
+        if (null != next) {
+            return true;
+        }
+
+        try {
+            for (String line = reader.readLine(); null != line; line = reader.readLine()) {
+                lineNumber++;
+                if (StringUtils.isBlank(line) || isHeader(line)) {
+                    continue;
+                }
+                next = Format.CSV == format ? parseCsv(line) : parseJson(line);
+                return true;
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public StockAdjustment next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        StockAdjustment adjustment = next;
+        next = null;
+        return adjustment;
+    }
+
+    private boolean isHeader(String line) {
+        return Format.CSV == format && 1 == lineNumber
+            && CSV_HEADER.equalsIgnoreCase(StringUtils.deleteWhitespace(line));
+    }
+
+    private StockAdjustment parseCsv(String line) {
+        List<String> fields;
+        try {
+            fields = split(line);
+        } catch (IllegalArgumentException e) {
+            return StockAdjustment.invalid(lineNumber, null, e.getMessage());
+        }
+
+        if (2 != fields.size()) {
+            return StockAdjustment.invalid(lineNumber, null, "Expected 2 fields but found " + fields.size());
+        }
+        return parse(fields.get(0), fields.get(1));
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted && '"' == c && i + 1 < line.length() && '"' == line.charAt(i + 1)) {
+                field.append(c);
+                i++;
+            } else if ('"' == c) {
+                quoted = !quoted;
+            } else if (',' == c && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        Assert.isTrue(!quoted, "Unterminated quoted field");
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private StockAdjustment parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return StockAdjustment.invalid(lineNumber, null, "Malformed JSON");
+        }
+
+        if (!node.isObject()) {
+            return StockAdjustment.invalid(lineNumber, null, "Expected a JSON object");
+        }
+        return parse(node.path("product").asText(null), node.path("offset").asText(null));
+    }
+
+    private StockAdjustment parse(String product, String offset) {
+        String reference = StringUtils.trimToNull(product);
+        if (null == reference) {
+            return StockAdjustment.invalid(lineNumber, null, "Product must not be empty");
+        }
+
+        String amount = StringUtils.trimToNull(offset);
+        if (null == amount) {
+            return StockAdjustment.invalid(lineNumber, reference, "Offset must not be empty");
+        }
+
+        try {
+            return StockAdjustment.of(lineNumber, reference, new BigDecimal(amount));
+        } catch (NumberFormatException e) {
+            return StockAdjustment.invalid(lineNumber, reference, "Offset must be a number");
+        }
+    }
+
+    /**
+     * Enumeration of the supported upload formats.
+     *
+     * @author Vincent Nadoll
+     */
+    enum Format {
+        CSV,
+        NDJSON,
+        ;
+    }
+}
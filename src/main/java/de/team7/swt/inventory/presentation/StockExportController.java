@@ -0,0 +1,66 @@
+package de.team7.swt.inventory.presentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.team7.swt.domain.web.RowWriter;
+import de.team7.swt.inventory.application.StockExporter;
+import de.team7.swt.inventory.model.StockRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.springframework.http.HttpHeaders.ACCEPT;
+
+/**
+ * REST request handler for exporting the stock of all inventory items, e.g. for reconciliation. The export is streamed
+ * row by row, thus it is never held in memory as a whole.
+ *
+ * @author Vincent Nadoll
+ */
+@RestController
+@RequestMapping("/api/v1/inventory/export")
+@RequiredArgsConstructor
+class StockExportController {
+
+    static final List<RowWriter.Column<StockRow>> COLUMNS = List.of(
+        RowWriter.Column.of("item_id", row -> row.getItemId().toString()),
+        RowWriter.Column.of("product_id", row -> row.getProductId().toString()),
+        RowWriter.Column.of("product_name", StockRow::getProductName),
+        RowWriter.Column.of("price", row -> row.getPrice().getNumber().numberValue(BigDecimal.class)),
+        RowWriter.Column.of("currency", row -> row.getPrice().getCurrency().getCurrencyCode()),
+        RowWriter.Column.of("quantity", row -> row.getQuantity().getAmount()),
+        RowWriter.Column.of("metric", row -> row.getQuantity().getMetric()),
+        RowWriter.Column.of("reorder_threshold", row -> row.getReorderThreshold().getAmount()));
+
+    private final StockExporter exporter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Exports the stock of all inventory items either as NDJSON or as CSV, depending on the {@literal Accept} header.
+     *
+     * @param accept the acceptable media types, NDJSON is preferred
+     * @return 200 - a stream of stock rows; 406 - if neither NDJSON nor CSV is acceptable
+     * @throws HttpMediaTypeNotAcceptableException if neither NDJSON nor CSV is acceptable
+     */
+    @GetMapping
+    ResponseEntity<StreamingResponseBody> export(@RequestHeader(value = ACCEPT, defaultValue = MediaType.ALL_VALUE)
+                                                     String accept) throws HttpMediaTypeNotAcceptableException {
+        RowWriter.Format format = RowWriter.Format.negotiate(accept);
+        StreamingResponseBody body = output -> {
+            RowWriter<StockRow> writer = RowWriter.create(format, COLUMNS, output, objectMapper);
+            exporter.export(writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .body(body);
+    }
+}
@@ -0,0 +1,80 @@
+package de.team7.swt.inventory.presentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.team7.swt.inventory.application.StockImporter;
+import de.team7.swt.inventory.model.StockAdjustmentResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * REST request handler for importing bulk stock adjustments. Both, the upload and the per-row report, are streamed,
+ * thus neither is held in memory as a whole.
+ *
+ * @author Vincent Nadoll
+ */
+@RestController
+@RequestMapping("/api/v1/inventory/adjustments")
+@RequiredArgsConstructor
+class StockImportController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final StockImporter importer;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Imports the uploaded stock adjustments and reports the outcome of each row as soon as its batch has been
+     * applied.
+     *
+     * @param contentType either {@literal text/csv} or {@literal application/x-ndjson}
+     * @param request     the current request whose body is read as a stream
+     * @return 200 - a stream of results, one JSON object per line
+     */
+    @PostMapping(consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> adjust(@RequestHeader(CONTENT_TYPE) MediaType contentType,
+                                                 HttpServletRequest request) {
+        StockAdjustmentReader.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+            ? StockAdjustmentReader.Format.NDJSON
+            : StockAdjustmentReader.Format.CSV;
+        Charset charset = Optional.ofNullable(contentType.getCharset()).orElse(StandardCharsets.UTF_8);
+
+        StreamingResponseBody body = output -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset))) {
+                StockAdjustmentReader adjustments = new StockAdjustmentReader(reader, format, objectMapper);
+                importer.apply(adjustments, result -> write(result, output));
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    private void write(StockAdjustmentResult result, OutputStream output) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package de.team7.swt.reporting.application;
+
+import de.team7.swt.checkout.application.OrderCompleted;
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.infrastructure.outbox.OutboxEvent;
+import de.team7.swt.reporting.infrastructure.OrderRecords;
+import de.team7.swt.reporting.model.OrderRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@link OrderRecord} read model. Each order is recorded once its completion has been committed, i.e.
+ * after saving it or, if the outbox is enabled, after its relayed {@link OrderCompleted} event has been verified. Newly
+ * recorded orders are counted by the {@link SalesCounters}. The read model can be rebuilt from scratch by replaying all
+ * completed orders in parallel.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Service
+public class OrderHistoryProjector {
+
+    private static final int REPLAY_BATCH_SIZE = 100;
+
+    private final OrderRecords records;
+    private final OrderRepository orders;
+    private final SalesCounters salesCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean outbox;
+    private final int replayThreads;
+    private final boolean rebuildOnStartup;
+
+    OrderHistoryProjector(OrderRecords records, OrderRepository orders, SalesCounters salesCounters,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${dyob.outbox.enabled:false}") boolean outbox,
+                          @Value("${dyob.reporting.replay-threads:4}") int replayThreads,
+                          @Value("${dyob.reporting.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        Assert.isTrue(replayThreads > 0, "Number of replay threads must be positive");
+
+        this.records = records;
+        this.orders = orders;
+        this.salesCounters = salesCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.outbox = outbox;
+        this.replayThreads = replayThreads;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * {@link TransactionalEventListener} recording the completed order once its transaction has been committed.
+     *
+     * @param event must not be {@literal null}
+     */
+    @TransactionalEventListener
+    public void on(OrderCompleted event) {
+        if (!outbox) {
+            Order order = event.getOrder();
+            record(order.getId(), () -> Optional.of(order));
+        }
+    }
+
+    /**
+     * {@link TransactionalEventListener} recording the order of a relayed {@link OrderCompleted} event once its
+     * verification has been committed.
+     *
+     * @param event must not be {@literal null}
+     */
+    @TransactionalEventListener(condition = "#event.type == 'OrderCompleted'")
+    public void on(OutboxEvent event) {
+        Order.Id orderId = new Order.Id(UUID.fromString(event.getAggregateId()));
+        record(orderId, () -> orders.findById(orderId).filter(order -> Order.Status.COMPLETED == order.getStatus()));
+    }
+
+    private void record(Order.Id orderId, Supplier<Optional<Order>> order) {
+        try {
+            transactionTemplate.execute(status -> order.get().filter(this::recordIfAbsent))
+                .ifPresent(recorded -> salesCounters.add(recorded.getCreatedAt(), recorded));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Order {} has been recorded concurrently", orderId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to record order {}", orderId, e);
+        }
+    }
+
+    /**
+     * Records the given order unless it has been recorded already. Creating the record initializes the order's line
+     * items, so they can be counted once the transaction has been committed.
+     */
+    private boolean recordIfAbsent(Order order) {
+        if (records.existsByOrderId(order.getId())) {
+            return false;
+        }
+
+        records.save(OrderRecord.of(order));
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Deletes all records and replays all completed orders. The orders are replayed in batches, each recorded within
+     * its own transaction by one of several threads. Orders being completed meanwhile are recorded only once.
+     *
+     * @return the number of replayed orders
+     */
+    public int rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            records.deleteAllProductIdsInBatch();
+            records.deleteAllInBatch();
+        });
+
+        List<Order.Id> orderIds = orders.findIdsByStatus(Order.Status.COMPLETED).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(replayThreads);
+        try {
+            List<CompletableFuture<Void>> replays = new ArrayList<>();
+            for (int i = 0; i < orderIds.size(); i += REPLAY_BATCH_SIZE) {
+                List<Order.Id> batch = orderIds.subList(i, Math.min(i + REPLAY_BATCH_SIZE, orderIds.size()));
+                replays.add(CompletableFuture.runAsync(() -> replay(batch), executor));
+            }
+            CompletableFuture.allOf(replays.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        log.info("Rebuilt order history of {} orders", orderIds.size());
+        return orderIds.size();
+    }
+
+    private void replay(List<Order.Id> orderIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Order.Id> recorded = records.findRecordedOrderIds(orderIds);
+            records.saveAll(orders.findAllById(orderIds).stream()
+                .filter(order -> Order.Status.COMPLETED == order.getStatus())
+                .filter(order -> !recorded.contains(order.getId()))
+                .map(OrderRecord::of)
+                .collect(Collectors.toList()));
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package de.team7.swt.reporting.application;
+
+import de.team7.swt.checkout.model.LineItem;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.web.ValidationException;
+import de.team7.swt.reporting.infrastructure.SalesCounts;
+import de.team7.swt.reporting.model.ProductSales;
+import de.team7.swt.reporting.model.SalesCount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory rolling sales counters per product, kept in rings of minute, hour and day buckets. The top selling
+ * products of each configured window are refreshed periodically, so they are answered without touching the counters.
+ * The counters are persisted periodically and restored on startup.
+ *
+ * @author Vincent Nadoll
+ */
+@Slf4j
+@Service
+public class SalesCounters {
+
+    private final Map<SalesCount.Granularity, SalesRing> rings = new EnumMap<>(SalesCount.Granularity.class);
+    private final Map<Product.Id, String> productNames = new ConcurrentHashMap<>();
+    private final Map<Duration, List<ProductSales>> topProducts = new ConcurrentHashMap<>();
+
+    private final SalesCounts counts;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Duration> windows;
+    private final int topK;
+
+    SalesCounters(SalesCounts counts, PlatformTransactionManager transactionManager,
+                  @Value("${dyob.reporting.sales.windows:15m,1h,24h,7d}") List<Duration> windows,
+                  @Value("${dyob.reporting.sales.top-k:10}") int topK) {
+        Assert.isTrue(topK > 0, "K must be positive");
+        windows.forEach(window -> Assert.isTrue(granularityOf(window) != null,
+            () -> String.format("Window %s is not covered by any granularity", window)));
+
+        this.counts = counts;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windows = List.copyOf(windows);
+        this.topK = topK;
+        Arrays.stream(SalesCount.Granularity.values()).forEach(granularity ->
+            rings.put(granularity, new SalesRing(granularity)));
+    }
+
+    private static SalesCount.Granularity granularityOf(Duration window) {
+        return Arrays.stream(SalesCount.Granularity.values())
+            .filter(granularity -> granularity.covers(window))
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * Counts the given line items as sold at the given timestamp.
+     *
+     * @param timestamp must not be {@literal null}
+     * @param lineItems must not be {@literal null}
+     */
+    public void add(Instant timestamp, Iterable<LineItem> lineItems) {
+        Assert.notNull(timestamp, "Timestamp must not be null");
+        Assert.notNull(lineItems, "Line items must not be null");
+
+        for (LineItem lineItem : lineItems) {
+            productNames.putIfAbsent(lineItem.getProductId(), lineItem.getProductName());
+            double amount = lineItem.getQuantity().getAmount().doubleValue();
+            rings.values().forEach(ring -> ring.add(timestamp, lineItem.getProductId(), amount));
+        }
+    }
+
+    /**
+     * Returns the top selling products of the given window as of the last refresh.
+     *
+     * @param window must not be {@literal null}
+     * @param limit  the maximum number of products, at most K
+     * @return the top selling products, best selling first
+     * @throws ValidationException in case the window isn't configured or the limit exceeds K
+     */
+    public List<ProductSales> getTopProducts(Duration window, int limit) throws ValidationException {
+        List<ProductSales> top = topProducts.get(window);
+        if (null == top) {
+            throw new ValidationException(String.format("Window must be one of %s", windows));
+        } else if (limit < 1 || limit > topK) {
+            throw new ValidationException(String.format("Limit must be between 1 and %d", topK));
+        }
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /**
+     * Recomputes the top selling products of each configured window.
+     */
+    @Scheduled(fixedDelayString = "${dyob.reporting.sales.refresh-interval:1000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        for (Duration window : windows) {
+            Map<Product.Id, Double> sums = rings.get(granularityOf(window)).sum(now, window);
+            topProducts.put(window, selectTop(sums));
+        }
+    }
+
+    private List<ProductSales> selectTop(Map<Product.Id, Double> sums) {
+        PriorityQueue<Map.Entry<Product.Id, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Product.Id, Double> entry : sums.entrySet()) {
+            top.offer(entry);
+            if (top.size() > topK) {
+                top.poll();
+            }
+        }
+        return top.stream()
+            .sorted(Map.Entry.<Product.Id, Double>comparingByValue(Comparator.reverseOrder()))
+            .map(entry -> ProductSales.of(entry.getKey(), productNames.get(entry.getKey()), entry.getValue()))
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Replaces the persisted counters by a snapshot of all counters which haven't expired yet. The counters are
+     * persisted once more when the application context is closed, while the repository is still available.
+     */
+    @EventListener(ContextClosedEvent.class)
+    @Scheduled(fixedDelayString = "${dyob.reporting.sales.persist-interval:60000}")
+    public void persist() {
+        Instant now = Instant.now();
+        List<SalesCount> snapshot = new ArrayList<>();
+        rings.values().forEach(ring -> ring.snapshot(now, productNames, snapshot::add));
+        transactionTemplate.executeWithoutResult(status -> {
+            counts.deleteAllInBatch();
+            counts.saveAll(snapshot);
+        });
+        log.debug("Persisted {} sales counters", snapshot.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void restore() {
+        for (SalesCount count : counts.findAll()) {
+            productNames.putIfAbsent(count.getProductId(), count.getProductName());
+            rings.get(count.getGranularity()).restore(count);
+        }
+        refresh();
+    }
+}
@@ -0,0 +1,110 @@
+package de.team7.swt.reporting.application;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.reporting.model.SalesCount;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Consumer;
+
+/**
+ * Ring of time buckets of a single {@link SalesCount.Granularity}, counting the amount sold per product. The ring
+ * retains a fixed number of buckets, each slot is reused once its bucket has expired. Counting is lock-free: buckets
+ * are replaced by compare-and-set and each product's amount is a {@link DoubleAdder}.
+ *
+ * @author Vincent Nadoll
+ */
+class SalesRing {
+
+    private final SalesCount.Granularity granularity;
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    SalesRing(SalesCount.Granularity granularity) {
+        this.granularity = granularity;
+        this.bucketMillis = granularity.getDuration().toMillis();
+        this.buckets = new AtomicReferenceArray<>(granularity.getBuckets());
+    }
+
+    /**
+     * Adds the given amount to the product's counter of the bucket covering the given timestamp. Amounts of expired
+     * buckets are discarded.
+     */
+    void add(Instant timestamp, Product.Id productId, double amount) {
+        Bucket bucket = bucketOf(timestamp.toEpochMilli() / bucketMillis);
+        if (null != bucket) {
+            bucket.add(productId, amount);
+        }
+    }
+
+    private Bucket bucketOf(long index) {
+        int slot = (int) (index % buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (null != bucket && bucket.index >= index) {
+                return bucket.index == index ? bucket : null;
+            }
+            Bucket replacement = new Bucket(index);
+            if (buckets.compareAndSet(slot, bucket, replacement)) {
+                return replacement;
+            }
+        }
+    }
+
+    /**
+     * Sums up the amount sold per product within the given window ending with the bucket covering the given timestamp.
+     */
+    Map<Product.Id, Double> sum(Instant now, Duration window) {
+        long current = now.toEpochMilli() / bucketMillis;
+        long oldest = current - window.toMillis() / bucketMillis;
+        Map<Product.Id, Double> sums = new HashMap<>();
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            Bucket bucket = buckets.get(slot);
+            if (null != bucket && bucket.index > oldest && bucket.index <= current) {
+                bucket.amounts.forEach((productId, amount) -> sums.merge(productId, amount.sum(), Double::sum));
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * Passes a snapshot of all counters of buckets which haven't expired at the given timestamp to the given consumer.
+     */
+    void snapshot(Instant now, Map<Product.Id, String> productNames, Consumer<SalesCount> consumer) {
+        long oldest = now.toEpochMilli() / bucketMillis - buckets.length();
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            Bucket bucket = buckets.get(slot);
+            if (null != bucket && bucket.index > oldest) {
+                bucket.amounts.forEach((productId, amount) -> consumer.accept(new SalesCount(granularity, bucket.index,
+                    productId, productNames.getOrDefault(productId, ""), amount.sum())));
+            }
+        }
+    }
+
+    /**
+     * Restores the given persisted counter.
+     */
+    void restore(SalesCount count) {
+        Bucket bucket = bucketOf(count.getBucket());
+        if (null != bucket) {
+            bucket.add(count.getProductId(), count.getAmount());
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Bucket {
+
+        private final long index;
+        private final Map<Product.Id, DoubleAdder> amounts = new ConcurrentHashMap<>();
+
+        void add(Product.Id productId, double amount) {
+            amounts.computeIfAbsent(productId, id -> new DoubleAdder()).add(amount);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.team7.swt.reporting.infrastructure;
+
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.reporting.model.OrderRecord;
+import de.team7.swt.reporting.model.Revenue;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JPA {@link org.springframework.data.repository.Repository} for managing {@link OrderRecord} instances.
+ *
+ * @author Vincent Nadoll
+ */
+public interface OrderRecords extends JpaRepository<OrderRecord, OrderRecord.Id> {
+
+    /**
+     * Indicates whether the order of the given ID has been recorded already.
+     *
+     * @param orderId must not be {@literal null}
+     * @return {@literal true} if there is a record of the order; {@literal false} otherwise
+     */
+    boolean existsByOrderId(Order.Id orderId);
+
+    /**
+     * Returns which of the orders of the given IDs have been recorded already using a single query.
+     *
+     * @param orderIds must not be {@literal null}
+     * @return the IDs of all recorded orders; never {@literal null}
+     */
+    @Query("select r.orderId from OrderRecord r where r.orderId in :orderIds")
+    Set<Order.Id> findRecordedOrderIds(@Param("orderIds") Collection<Order.Id> orderIds);
+
+    /**
+     * Deletes the product IDs of all records, which must precede deleting the records in a batch.
+     */
+    @Modifying
+    @Query(value = "delete from order_record_product", nativeQuery = true)
+    void deleteAllProductIdsInBatch();
+
+    /**
+     * Returns the records of all orders placed within the given period, newest first.
+     *
+     * @param from     the inclusive start of the period, must not be {@literal null}
+     * @param to       the exclusive end of the period, must not be {@literal null}
+     * @param pageable must not be {@literal null}
+     * @return all found records; never {@literal null}
+     */
+    @Query("select r from OrderRecord r where r.placedAt >= :from and r.placedAt < :to order by r.placedAt desc")
+    List<OrderRecord> findPlacedBetween(@Param("from") Instant from, @Param("to") Instant to, Pageable pageable);
+
+    /**
+     * Returns the records of all orders placed within the given period which contain the given product, newest first.
+     *
+     * @param from      the inclusive start of the period, must not be {@literal null}
+     * @param to        the exclusive end of the period, must not be {@literal null}
+     * @param productId the product ID one of the order's line items must refer to, must not be {@literal null}
+     * @param pageable  must not be {@literal null}
+     * @return all found records; never {@literal null}
+     */
+    @Query("select r from OrderRecord r where r.placedAt >= :from and r.placedAt < :to "
+        + "and :productId member of r.productIds "
+        + "order by r.placedAt desc")
+    List<OrderRecord> findPlacedBetween(@Param("from") Instant from, @Param("to") Instant to,
+                                        @Param("productId") Product.Id productId, Pageable pageable);
+
+    /**
+     * Sums up the revenue per currency of all orders placed within the given period.
+     *
+     * @param from the inclusive start of the period, must not be {@literal null}
+     * @param to   the exclusive end of the period, must not be {@literal null}
+     * @return the revenue per currency; never {@literal null}
+     */
+    @Query("select new de.team7.swt.reporting.model.Revenue(r.currency, sum(r.totalMinor), count(r)) "
+        + "from OrderRecord r where r.placedAt >= :from and r.placedAt < :to group by r.currency")
+    List<Revenue> sumRevenueBetween(@Param("from") Instant from, @Param("to") Instant to);
+}
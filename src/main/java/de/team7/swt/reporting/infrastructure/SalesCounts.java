@@ -0,0 +1,12 @@
+package de.team7.swt.reporting.infrastructure;
+
+import de.team7.swt.reporting.model.SalesCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * JPA {@link org.springframework.data.repository.Repository} for managing {@link SalesCount} instances.
+ *
+ * @author Vincent Nadoll
+ */
+public interface SalesCounts extends JpaRepository<SalesCount, SalesCount.Id> {
+}
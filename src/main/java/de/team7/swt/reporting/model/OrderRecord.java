@@ -0,0 +1,166 @@
+package de.team7.swt.reporting.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import de.team7.swt.checkout.model.LineItem;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.shared.Entity;
+import de.team7.swt.domain.shared.Identifier;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.GenericGenerator;
+import org.javamoney.moneta.Money;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+import javax.persistence.AttributeOverride;
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
+import javax.persistence.EmbeddedId;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Denormalized, append-only record of a completed {@link Order}, which answers order history and revenue queries
+ * without touching the orders themselves. Its total is kept in minor units of its currency, so it can be summed up by
+ * the database. Totals with more fraction digits than the currency allows, e.g. of fractional quantities, are rounded
+ * using the currency's default rounding.
+ *
+ * @author Vincent Nadoll
+ */
+@javax.persistence.Entity
+@Getter
+@Table(indexes = @Index(columnList = "placedAt"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+public class OrderRecord extends Entity<OrderRecord.Id> {
+
+    @EmbeddedId
+    @GeneratedValue(generator = "orderRecord-id")
+    @GenericGenerator(name = "orderRecord-id", strategy = "dyob-id")
+    @JsonUnwrapped
+    private final OrderRecord.Id id;
+
+    @Embedded
+    @AttributeOverride(name = "id", column = @Column(name = "order_id", unique = true, updatable = false))
+    @JsonUnwrapped(prefix = "order_")
+    private final Order.Id orderId;
+
+    @Column(updatable = false)
+    @JsonProperty("placed_at")
+    private final Instant placedAt;
+
+    @Column(updatable = false)
+    @JsonProperty("line_item_count")
+    private final int lineItemCount;
+
+    @JsonIgnore
+    @Column(updatable = false)
+    private final long totalMinor;
+
+    @JsonIgnore
+    @Column(length = 3, updatable = false)
+    private final String currency;
+
+    @JsonIgnore
+    @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100) // initializes the product IDs of many records at once
+    @CollectionTable(name = "order_record_product", indexes = @Index(columnList = "product_id"))
+    @AttributeOverride(name = "id", column = @Column(name = "product_id", nullable = false, updatable = false))
+    private final Set<Product.Id> productIds;
+
+    private OrderRecord(Order order) {
+        MonetaryAmount total = order.getTotal().with(Monetary.getDefaultRounding());
+        int fractionDigits = total.getCurrency().getDefaultFractionDigits();
+
+        this.id = null;
+        this.orderId = order.getId();
+        this.placedAt = order.getCreatedAt();
+        this.lineItemCount = order.toList().size();
+        this.totalMinor = total.getNumber().numberValue(BigDecimal.class)
+            .movePointRight(fractionDigits)
+            .longValueExact();
+        this.currency = total.getCurrency().getCurrencyCode();
+        this.productIds = order.stream()
+            .map(LineItem::getProductId)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Creates a new record of the given completed order.
+     *
+     * @param order must not be {@literal null}
+     * @return a new record instance
+     * @throws IllegalArgumentException in case the order is not completed
+     */
+    public static OrderRecord of(Order order) {
+        Assert.notNull(order, "Order must not be null");
+        Assert.isTrue(Order.Status.COMPLETED == order.getStatus(), "Order must be completed");
+        return new OrderRecord(order);
+    }
+
+    /**
+     * Returns the total of the recorded order.
+     *
+     * @return the order's total
+     */
+    public MonetaryAmount getTotal() {
+        return Money.ofMinor(Monetary.getCurrency(currency), totalMinor);
+    }
+
+    /**
+     * Returns the distinct IDs of the products the recorded order's line items refer to.
+     *
+     * @return the product IDs; never {@literal null}
+     */
+    @JsonProperty("product_ids")
+    public List<String> getProductIdList() {
+        return productIds.stream()
+            .map(String::valueOf)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+            .append("id", id)
+            .append("orderId", orderId)
+            .append("placedAt", placedAt)
+            .append("lineItemCount", lineItemCount)
+            .append("totalMinor", totalMinor)
+            .append("currency", currency)
+            .append("productIds", productIds)
+            .toString();
+    }
+
+    /**
+     * Value object representing an order record's primary identifier.
+     *
+     * @author Vincent Nadoll
+     */
+    @Embeddable
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static final class Id extends Identifier {
+        public Id(@NonNull UUID id) {
+            super(id);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package de.team7.swt.reporting.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import de.team7.swt.domain.catalog.Product;
+import lombok.Value;
+
+/**
+ * Value object representing the amount of a product sold within a window of time.
+ *
+ * @author Vincent Nadoll
+ */
+@Value(staticConstructor = "of")
+public class ProductSales {
+
+    @JsonUnwrapped(prefix = "product_")
+    Product.Id productId;
+
+    @JsonProperty("product_name")
+    String productName;
+
+    double amount;
+}
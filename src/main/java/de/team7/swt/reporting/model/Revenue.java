@@ -0,0 +1,24 @@
+package de.team7.swt.reporting.model;
+
+import lombok.Value;
+import org.javamoney.moneta.Money;
+
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+
+/**
+ * Value object representing the revenue of a number of orders in a single currency.
+ *
+ * @author Vincent Nadoll
+ */
+@Value
+public class Revenue {
+
+    MonetaryAmount total;
+    long orders;
+
+    public Revenue(String currency, long totalMinor, long orders) {
+        this.total = Money.ofMinor(Monetary.getCurrency(currency), totalMinor);
+        this.orders = orders;
+    }
+}
@@ -0,0 +1,130 @@
+package de.team7.swt.reporting.model;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.shared.Entity;
+import de.team7.swt.domain.shared.Identifier;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.UUID;
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
+import javax.persistence.EmbeddedId;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+
+/**
+ * Persisted snapshot of the amount of a product sold within a single time bucket, so rolling sales counters survive a
+ * restart.
+ *
+ * @author Vincent Nadoll
+ */
+@javax.persistence.Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+public class SalesCount extends Entity<SalesCount.Id> {
+
+    @EmbeddedId
+    @GeneratedValue(generator = "salesCount-id")
+    @GenericGenerator(name = "salesCount-id", strategy = "dyob-id")
+    private final SalesCount.Id id;
+
+    @Enumerated(EnumType.STRING)
+    private final Granularity granularity;
+
+    private final long bucket;
+
+    @Embedded
+    @AttributeOverride(name = "id", column = @Column(name = "product_id"))
+    private final Product.Id productId;
+
+    private final String productName;
+
+    private final double amount;
+
+    /**
+     * Creates a new sales count.
+     *
+     * @param granularity must not be {@literal null}
+     * @param bucket      the bucket's index, i.e. the number of granularity units since the epoch
+     * @param productId   must not be {@literal null}
+     * @param productName must not be {@literal null}
+     * @param amount      the sold amount
+     */
+    public SalesCount(Granularity granularity, long bucket, Product.Id productId, String productName, double amount) {
+        Assert.notNull(granularity, "Granularity must not be null");
+        Assert.notNull(productId, "Product ID must not be null");
+        Assert.notNull(productName, "Product name must not be null");
+
+        this.id = null;
+        this.granularity = granularity;
+        this.bucket = bucket;
+        this.productId = productId;
+        this.productName = productName;
+        this.amount = amount;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+            .append("id", id)
+            .append("granularity", granularity)
+            .append("bucket", bucket)
+            .append("productId", productId)
+            .append("productName", productName)
+            .append("amount", amount)
+            .toString();
+    }
+
+    /**
+     * Enumeration of the time bucket granularities and how many buckets of each are retained.
+     *
+     * @author Vincent Nadoll
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Granularity {
+        MINUTE(Duration.ofMinutes(1), 60),
+        HOUR(Duration.ofHours(1), 24),
+        DAY(Duration.ofDays(1), 31),
+        ;
+
+        private final Duration duration;
+        private final int buckets;
+
+        /**
+         * Indicates whether windows of the given duration can be covered by buckets of this granularity.
+         *
+         * @param window must not be {@literal null}
+         * @return {@literal true} if the window is a multiple of this granularity and at most as long as all retained
+         *     buckets together; {@literal false} otherwise
+         */
+        public boolean covers(Duration window) {
+            return window.toMillis() % duration.toMillis() == 0
+                && window.compareTo(duration.multipliedBy(buckets)) <= 0;
+        }
+    }
+
+    /**
+     * Value object representing a sales count's primary identifier.
+     *
+     * @author Vincent Nadoll
+     */
+    @Embeddable
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static final class Id extends Identifier {
+        public Id(@NonNull UUID id) {
+            super(id);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package de.team7.swt.reporting.presentation;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.web.CollectionModel;
+import de.team7.swt.domain.web.ValidationException;
+import de.team7.swt.reporting.infrastructure.OrderRecords;
+import de.team7.swt.reporting.model.OrderRecord;
+import de.team7.swt.reporting.model.Revenue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * REST request handler for answering order history and revenue requests using the {@link OrderRecord} read model.
+ *
+ * @author Vincent Nadoll
+ */
+@RestController
+@RequestMapping("/api/v1/reports")
+@RequiredArgsConstructor
+class ReportController {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final OrderRecords records;
+
+    /**
+     * Retrieves the records of the orders placed within the given period, newest first.
+     *
+     * @param from      the inclusive start of the period, can be {@literal null}
+     * @param to        the exclusive end of the period, can be {@literal null}
+     * @param productId the product ID one of the order's line items must refer to, can be {@literal null}
+     * @param page      the zero-based page number
+     * @param size      the maximum number of records per page
+     * @return 200 - an embedded record list; 400 - if the page or size is invalid
+     */
+    @GetMapping("/orders")
+    ResponseEntity<CollectionModel<OrderRecord>> history(@RequestParam(required = false) Instant from,
+                                                         @RequestParam(required = false) Instant to,
+                                                         @RequestParam(value = "product_id", required = false)
+                                                             Product.Id productId,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "100") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException(String.format(
+                "Page must not be negative and size must be between 1 and %d", MAX_PAGE_SIZE));
+        }
+
+        Instant start = Optional.ofNullable(from).orElse(Instant.EPOCH);
+        Instant end = Optional.ofNullable(to).orElseGet(Instant::now);
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(CollectionModel.of(null == productId
+            ? records.findPlacedBetween(start, end, pageable)
+            : records.findPlacedBetween(start, end, productId, pageable)));
+    }
+
+    /**
+     * Retrieves the revenue per currency of the orders placed within the given period.
+     *
+     * @param from the inclusive start of the period, can be {@literal null}
+     * @param to   the exclusive end of the period, can be {@literal null}
+     * @return 200 - an embedded revenue list
+     */
+    @GetMapping("/revenue")
+    ResponseEntity<CollectionModel<Revenue>> revenue(@RequestParam(required = false) Instant from,
+                                                     @RequestParam(required = false) Instant to) {
+        return ResponseEntity.ok(CollectionModel.of(records.sumRevenueBetween(
+            Optional.ofNullable(from).orElse(Instant.EPOCH),
+            Optional.ofNullable(to).orElseGet(Instant::now))));
+    }
+}
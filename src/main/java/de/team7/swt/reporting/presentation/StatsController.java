@@ -0,0 +1,47 @@
+package de.team7.swt.reporting.presentation;
+
+import de.team7.swt.domain.web.CollectionModel;
+import de.team7.swt.domain.web.ValidationException;
+import de.team7.swt.reporting.application.SalesCounters;
+import de.team7.swt.reporting.model.ProductSales;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * REST request handler for answering requests related to sales statistics.
+ *
+ * @author Vincent Nadoll
+ */
+@RestController
+@RequestMapping("/api/v1/stats")
+@RequiredArgsConstructor
+class StatsController {
+
+    private final SalesCounters salesCounters;
+
+    /**
+     * Retrieves the top selling products within the given window, as of the last refresh of the sales counters.
+     *
+     * @param window the window's duration, e.g. {@literal 1h}
+     * @param limit  the maximum number of products
+     * @return 200 - an embedded list of product sales, best selling first; 400 - if the window or limit is invalid
+     */
+    @GetMapping("/top-products")
+    ResponseEntity<CollectionModel<ProductSales>> topProducts(@RequestParam(defaultValue = "1h") String window,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid window");
+        }
+        return ResponseEntity.ok(CollectionModel.of(salesCounters.getTopProducts(duration, limit)));
+    }
+}
@@ -0,0 +1,128 @@
+package de.team7.swt.checkout.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.infrastructure.retry.ConcurrencyRetry;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark comparing latency and throughput of many concurrent checkouts of a single product placed one per
+ * transaction and placed by the {@link CheckoutCoordinator} using group commits. This class isn't part of the regular
+ * test run; execute it with {@code mvn test -Dtest=CheckoutCoordinatorBenchmark}.
+ *
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+class CheckoutCoordinatorBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int CHECKOUTS = 4_000;
+    private static final Duration WINDOW = Duration.ofMillis(5);
+    private static final int MAX_BATCH_SIZE = 50;
+
+    // @formatter:off
+    @Autowired private OrderRepository repository;
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    @Autowired private ConcurrencyRetry retry;
+    @Autowired private PlatformTransactionManager transactionManager;
+    // @formatter:on
+
+    @Test
+    void concurrentCheckouts_shouldBenefitFromGroupCommits() throws Exception {
+        CheckoutCoordinator coordinator =
+            new CheckoutCoordinator(repository, retry, transactionManager, WINDOW, MAX_BATCH_SIZE,
+                Duration.ofSeconds(30));
+        coordinator.start();
+        try {
+            measure("per-request", this::placeOrder);
+            measure("group-commit", coordinator::place);
+
+            Result perRequest = measure("per-request", this::placeOrder);
+            Result groupCommit = measure("group-commit", coordinator::place);
+
+            System.out.printf("Checkout per request: %s%n", perRequest);
+            System.out.printf("Checkout by group commit (%d ms window, batches of %d): %s%n",
+                WINDOW.toMillis(), MAX_BATCH_SIZE, groupCommit);
+        } finally {
+            coordinator.shutdown();
+        }
+    }
+
+    private Order placeOrder(Consumer<Order> items) {
+        return retry.execute("checkout", () -> {
+            Order order = new Order();
+            items.accept(order);
+            order.complete();
+            return repository.save(order);
+        });
+    }
+
+    private Result measure(String name, Function<Consumer<Order>, Order> checkout) throws Exception {
+        Product product = catalog.save(new Product(name + " " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(CHECKOUTS)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> futures = new ArrayList<>(CHECKOUTS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            futures.add(executor.submit(() -> {
+                long submitted = System.nanoTime();
+                checkout.apply(order -> order.addItem(product, product.from(1)));
+                return System.nanoTime() - submitted;
+            }));
+        }
+        long[] latencies = new long[CHECKOUTS];
+        for (int i = 0; i < CHECKOUTS; i++) {
+            latencies[i] = futures.get(i).get(5, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        assertEquals(product.from(0), inventory.findQuantityByProductId(product.getId()).orElseThrow());
+        return new Result(CHECKOUTS / (elapsed / 1e9), latencies);
+    }
+
+    private static final class Result {
+
+        private final double throughput;
+        private final long[] latencies;
+
+        Result(double throughput, long[] latencies) {
+            this.throughput = throughput;
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+        }
+
+        private double percentile(double p) {
+            return latencies[(int) Math.ceil(p * latencies.length) - 1] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f/s, p50 %.2f ms, p99 %.2f ms", throughput, percentile(.5), percentile(.99));
+        }
+    }
+}
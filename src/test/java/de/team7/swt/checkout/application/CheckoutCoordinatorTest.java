@@ -0,0 +1,130 @@
+package de.team7.swt.checkout.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderCompletionFailure;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.infrastructure.retry.ConcurrencyRetry;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+class CheckoutCoordinatorTest {
+
+    private static final int CHECKOUTS = 20;
+
+    // @formatter:off
+    @Autowired private OrderRepository repository;
+    @Autowired private ConcurrencyRetry retry;
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    @Autowired private PlatformTransactionManager transactionManager;
+    // @formatter:on
+
+    private CheckoutCoordinator coordinator;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = new CheckoutCoordinator(repository, retry, transactionManager, Duration.ofMillis(50), CHECKOUTS,
+            Duration.ofSeconds(30));
+        coordinator.start();
+
+        product = catalog.save(new Product("Grouped " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(CHECKOUTS / 2)));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coordinator.shutdown();
+    }
+
+    @Test
+    void concurrentCheckouts_shouldEachGetTheirOwnOrderOrFailure() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CHECKOUTS);
+        List<Future<Order>> futures = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            futures.add(executor.submit(() -> coordinator.place(order -> order.addItem(product, product.from(1)))));
+        }
+
+        int placed = 0;
+        int failed = 0;
+        for (Future<Order> future : futures) {
+            try {
+                Order order = future.get(30, TimeUnit.SECONDS);
+                assertTrue(repository.existsById(order.getId()));
+                placed++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof OrderCompletionFailure);
+                failed++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(CHECKOUTS / 2, placed);
+        assertEquals(CHECKOUTS / 2, failed);
+        assertEquals(product.from(0), inventory.findQuantityByProductId(product.getId()).orElseThrow());
+    }
+
+    @Test
+    void checkoutNotPlacedInTime_shouldBeCancelled() throws InterruptedException {
+        coordinator.shutdown();
+        coordinator = new CheckoutCoordinator(repository, retry, transactionManager, Duration.ofMillis(500), CHECKOUTS,
+            Duration.ofMillis(50));
+        coordinator.start();
+
+        assertThrows(IllegalStateException.class, () -> coordinator.place(order -> order.addItem(product, product.from(1))));
+        Thread.sleep(1000);
+
+        assertEquals(product.from(CHECKOUTS / 2), inventory.findQuantityByProductId(product.getId()).orElseThrow());
+    }
+
+    @Test
+    void dispatchedCheckoutNotPlacedInTime_shouldStillBeAwaited() throws InterruptedException {
+        coordinator.shutdown();
+        coordinator = new CheckoutCoordinator(repository, retry, transactionManager, Duration.ZERO, CHECKOUTS,
+            Duration.ofMillis(50));
+        coordinator.start();
+
+        Order order = coordinator.place(placed -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(500));
+            placed.addItem(product, product.from(1));
+        });
+
+        assertTrue(repository.existsById(order.getId()));
+        assertEquals(product.from(CHECKOUTS / 2 - 1),
+            inventory.findQuantityByProductId(product.getId()).orElseThrow());
+    }
+
+    @Test
+    void placeAfterShutdown_shouldThrowException() throws InterruptedException {
+        coordinator.shutdown();
+
+        assertThrows(IllegalStateException.class, () -> coordinator.place(order -> order.addItem(product, product.from(1))));
+    }
+}
@@ -0,0 +1,78 @@
+package de.team7.swt.checkout.application;
+
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.CategoryMask;
+import de.team7.swt.domain.catalog.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.util.Streamable;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Vincent Nadoll
+ */
+class MandatoryCategoriesTest {
+
+    private static final String UNIQUE_DESCRIPTOR = "Komponente";
+
+    private Catalog<Product> catalog;
+    private MeterRegistry meterRegistry;
+    private MandatoryCategories mandatoryCategories;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        catalog = mock(Catalog.class);
+        meterRegistry = new SimpleMeterRegistry();
+        mandatoryCategories = new MandatoryCategories(catalog, meterRegistry);
+
+        when(catalog.findByCategory(UNIQUE_DESCRIPTOR)).thenReturn(Streamable.of(
+            createProduct("Bier", UNIQUE_DESCRIPTOR),
+            createProduct("Flasche", UNIQUE_DESCRIPTOR)));
+    }
+
+    private static Product createProduct(String category, String uniqueDescriptor) {
+        Product product = new Product(category, ZERO_EURO);
+        product.add(category);
+        product.add(uniqueDescriptor);
+        return product;
+    }
+
+    @Test
+    void get_shouldUniteCategoriesOfComponents() {
+        assertEquals(CategoryMask.of("Bier", "Flasche", UNIQUE_DESCRIPTOR),
+            mandatoryCategories.get(UNIQUE_DESCRIPTOR));
+    }
+
+    @Test
+    void getAgain_shouldNotQueryCatalog() {
+        CategoryMask categories = mandatoryCategories.get(UNIQUE_DESCRIPTOR);
+
+        assertEquals(categories, mandatoryCategories.get(UNIQUE_DESCRIPTOR));
+        verify(catalog, times(1)).findByCategory(UNIQUE_DESCRIPTOR);
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void getAfterCatalogChanged_shouldRecompute() {
+        mandatoryCategories.get(UNIQUE_DESCRIPTOR);
+        when(catalog.getVersion()).thenReturn(1L);
+        when(catalog.findByCategory(UNIQUE_DESCRIPTOR)).thenReturn(Streamable.of(createProduct("Etikett", UNIQUE_DESCRIPTOR)));
+
+        assertEquals(CategoryMask.of("Etikett", UNIQUE_DESCRIPTOR), mandatoryCategories.get(UNIQUE_DESCRIPTOR));
+        assertEquals(2, count("miss"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter(MandatoryCategories.REQUESTS, "result", result).count();
+    }
+}
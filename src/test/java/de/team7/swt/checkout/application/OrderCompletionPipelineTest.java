@@ -0,0 +1,133 @@
+package de.team7.swt.checkout.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Cart;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.Reservations;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.infrastructure.retry.ConcurrencyRetry;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(properties = "dyob.checkout.async.enabled=true")
+class OrderCompletionPipelineTest {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    // @formatter:off
+    @Autowired private OrderCompletionPipeline pipeline;
+    @Autowired private OrderRepository repository;
+    @Autowired private Reservations reservations;
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = catalog.save(new Product("Async " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(5)));
+    }
+
+    @Test
+    void submittedOrders_shouldBeCompletedOrFailed() throws Exception {
+        Order first = submit(3);
+        assertEquals(Order.Status.COMPLETED, awaitProcessing(first));
+
+        Order second = submit(3);
+        assertEquals(Order.Status.FAILED, awaitProcessing(second));
+
+        assertEquals(product.from(2), inventory.findQuantityByProductId(product.getId()).orElseThrow());
+    }
+
+    @Test
+    void failedOrder_shouldReleaseHoldsOfCheckedOutCart() throws Exception {
+        Cart cart = new Cart(reservations);
+        cart.add(product, product.from(2));
+        Order order = new Order();
+        cart.addItemsTo(order, 6);
+        cart.checkOut();
+        order = repository.save(order);
+        assertEquals(Optional.of(product.from(3)), reservations.getAvailableToPromise(product.getId()));
+
+        pipeline.submit(order.getId());
+
+        assertEquals(Order.Status.FAILED, awaitProcessing(order));
+        assertEquals(Optional.of(product.from(5)), reservations.getAvailableToPromise(product.getId()));
+    }
+
+    @Test
+    void submitToFullQueue_shouldBeRejectedAndResumedLater() throws Exception {
+        OrderRepository orders = mock(OrderRepository.class);
+        ConcurrencyRetry retry = mock(ConcurrencyRetry.class);
+        CountDownLatch blocked = new CountDownLatch(1);
+        when(retry.execute(anyString(), any())).thenAnswer(invocation -> blocked.await(TIMEOUT_MILLIS,
+            TimeUnit.MILLISECONDS));
+        OrderCompletionPipeline pipeline = new OrderCompletionPipeline(orders, Reservations.NONE, retry,
+            mock(PlatformTransactionManager.class), 1, 1, 5000);
+        Order.Id running = new Order.Id(UUID.randomUUID());
+        Order.Id queued = new Order.Id(UUID.randomUUID());
+        Order.Id rejected = new Order.Id(UUID.randomUUID());
+
+        pipeline.submit(running);
+        assertFalse(pipeline.isSaturated());
+        pipeline.submit(queued);
+        assertTrue(pipeline.isSaturated());
+        assertThrows(TaskRejectedException.class, () -> pipeline.submit(rejected));
+        pipeline.submit(queued);
+
+        blocked.countDown();
+        verify(retry, timeout(TIMEOUT_MILLIS).times(2)).execute(anyString(), any());
+        when(orders.findIdsByStatus(Order.Status.OPEN)).thenReturn(Streamable.of(rejected));
+        pipeline.resume();
+        verify(retry, timeout(TIMEOUT_MILLIS).times(3)).execute(anyString(), any());
+        pipeline.shutdown();
+    }
+
+    private Order submit(int amount) {
+        Order order = new Order();
+        order.addItem(product, product.from(amount));
+        order = repository.save(order);
+        pipeline.submit(order.getId());
+        return order;
+    }
+
+    private Order.Status awaitProcessing(Order order) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        Order.Status status = Order.Status.OPEN;
+        while (Order.Status.OPEN == status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = repository.findById(order.getId()).orElseThrow().getStatus();
+        }
+        return status;
+    }
+}
@@ -0,0 +1,58 @@
+package de.team7.swt.checkout.infrastructure;
+
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+
+/**
+ * Benchmark measuring the throughput of saving orders with many line items. This class isn't part of the regular test
+ * run; execute it with {@code mvn test -Dtest=OrderRepositoryBenchmark}.
+ *
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+class OrderRepositoryBenchmark {
+
+    private static final int[] LINE_ITEMS = {10, 50, 100};
+    private static final int ORDERS = 1_000;
+
+    // @formatter:off
+    @Autowired private OrderRepository repository;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    @Test
+    void savingOrders_shouldScaleWithLineItems() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < LINE_ITEMS[LINE_ITEMS.length - 1]; i++) {
+            products.add(catalog.save(new Product("Benchmarked " + System.nanoTime(), ZERO_EURO)));
+        }
+
+        for (int lineItems : LINE_ITEMS) {
+            measure(products.subList(0, lineItems));
+        }
+        for (int lineItems : LINE_ITEMS) {
+            double throughput = measure(products.subList(0, lineItems));
+            System.out.printf("Saving orders with %d line items: %.0f orders/s, %.0f line items/s%n",
+                lineItems, throughput, throughput * lineItems);
+        }
+    }
+
+    private double measure(List<Product> products) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            products.forEach(product -> order.addItem(product, product.from(1)));
+            repository.save(order);
+        }
+        return ORDERS / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,71 @@
+package de.team7.swt.checkout.infrastructure;
+
+import de.team7.swt.checkout.model.LineItem;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderRepositoryTest {
+
+    private static final int LINE_ITEMS = 30;
+
+    // @formatter:off
+    @Autowired private OrderRepository repository;
+    @Autowired private Catalog<Product> catalog;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    // @formatter:on
+
+    private Statistics statistics;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        order = new Order();
+        for (int i = 0; i < LINE_ITEMS; i++) {
+            Product product = catalog.save(new Product("Batched " + System.nanoTime(), ZERO_EURO));
+            order.addItem(product, product.from(1));
+        }
+    }
+
+    @Test
+    void saveOrder_shouldInsertOrderAndLineItemsInTwoStatements() {
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> repository.save(order));
+
+        assertEquals(1 + LINE_ITEMS, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getCollectionUpdateCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void savedOrder_shouldBeLoadedWithItsLineItems() {
+        Order saved = repository.save(order);
+
+        List<LineItem> lineItems = new TransactionTemplate(transactionManager)
+            .execute(status -> repository.findById(saved.getId()).orElseThrow().toList());
+        assertEquals(order.toList(), lineItems);
+    }
+}
@@ -0,0 +1,64 @@
+package de.team7.swt.checkout.model;
+
+import de.team7.swt.domain.catalog.CategoryMask;
+import de.team7.swt.domain.catalog.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static de.team7.swt.domain.catalog.Flavours.createCookie;
+import static de.team7.swt.domain.catalog.Types.createLager;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+class CartTest {
+
+    private Cart cart;
+    private Product lager;
+    private Product cookie;
+
+    @BeforeEach
+    void setUp() {
+        cart = new Cart();
+        lager = createLager();
+        cookie = createCookie();
+    }
+
+    @Test
+    void emptyCart_shouldContainNoCategories() {
+        assertFalse(cart.containsAny(lager.getCategoryMask()));
+        assertFalse(cart.containsAll(lager.getCategoryMask()));
+        assertTrue(cart.containsAll(CategoryMask.EMPTY));
+    }
+
+    @Test
+    void addedProducts_shouldContributeTheirCategories() {
+        cart.add(lager, lager.from(1));
+        cart.set(cookie, cookie.from(2));
+
+        assertTrue(cart.containsAll(lager.getCategoryMask().or(cookie.getCategoryMask())));
+        assertTrue(cart.containsAny(cookie.getCategories().toList().toArray(String[]::new)));
+    }
+
+    @Test
+    void deletedProduct_shouldNoLongerContributeItsCategories() {
+        cart.add(lager, lager.from(1));
+        CartItem item = cart.add(cookie, cookie.from(1));
+
+        cart.delete(item.getId());
+
+        assertTrue(cart.containsAll(lager.getCategoryMask()));
+        assertFalse(cart.containsAny(cookie.getCategoryMask().andNot(lager.getCategoryMask())));
+    }
+
+    @Test
+    void clearedCart_shouldContainNoCategories() {
+        cart.add(lager, lager.from(1));
+
+        cart.clear();
+
+        assertFalse(cart.containsAny(lager.getCategoryMask()));
+    }
+}
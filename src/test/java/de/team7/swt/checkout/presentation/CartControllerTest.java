@@ -1,9 +1,15 @@
 package de.team7.swt.checkout.presentation;
 
+import de.team7.swt.checkout.application.MandatoryCategories;
+import de.team7.swt.checkout.application.OrderCompletionPipeline;
+import de.team7.swt.checkout.infrastructure.OrderRepository;
 import de.team7.swt.checkout.model.Cart;
+import de.team7.swt.checkout.model.Order;
 import de.team7.swt.configurator.model.Bottle;
 import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.CategoryMask;
 import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.infrastructure.retry.ConcurrencyRetry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -15,6 +21,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.data.util.Streamable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.restdocs.RestDocumentationContextProvider;
 import org.springframework.restdocs.RestDocumentationExtension;
 import org.springframework.restdocs.payload.FieldDescriptor;
@@ -23,9 +32,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
 import javax.servlet.http.Cookie;
 
 import static de.team7.swt.configurator.model.Bottles.BOTTLE_05_BROWN_ID;
@@ -37,11 +51,18 @@ import static de.team7.swt.domain.catalog.Flavours.createCookie;
 import static de.team7.swt.domain.catalog.Ingredients.INGREDIENT_CLOVE_ID;
 import static de.team7.swt.domain.catalog.Ingredients.createClove;
 import static de.team7.swt.domain.catalog.Types.createLager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
 import static org.springframework.http.HttpHeaders.COOKIE;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
 import static org.springframework.http.HttpHeaders.SET_COOKIE;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
@@ -246,6 +267,60 @@ class CartControllerTest {
             ));
     }
 
+    @Test
+    void checkoutWithOutbox_shouldAcceptUnverifiedOrder() {
+        OrderRepository repository = mock(OrderRepository.class);
+        MandatoryCategories mandatoryCategories = mock(MandatoryCategories.class);
+        ConcurrencyRetry retry = mock(ConcurrencyRetry.class);
+        when(repository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mandatoryCategories.get(any(String.class))).thenReturn(CategoryMask.EMPTY);
+        when(retry.execute(any(String.class), any())).thenAnswer(invocation ->
+            invocation.<Supplier<?>>getArgument(1).get());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        Cart cart = new Cart();
+        Product kind = createLager();
+        cart.add(kind, kind.from(1));
+        CartController controller = new CartController(cart, repository, mandatoryCategories, retry, Optional.empty(),
+            Optional.empty(), true);
+
+        try {
+            ResponseEntity<?> response = controller.checkout(1, CrateSize.SIX);
+
+            Order order = (Order) response.getBody();
+            assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+            assertEquals(URI.create("http://localhost/api/v1/orders/" + order.getId()), response.getHeaders()
+                .getLocation());
+            assertTrue(cart.isEmpty());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void checkoutWithSaturatedPipeline_shouldKeepCart() {
+        OrderRepository repository = mock(OrderRepository.class);
+        MandatoryCategories mandatoryCategories = mock(MandatoryCategories.class);
+        OrderCompletionPipeline pipeline = mock(OrderCompletionPipeline.class);
+        when(mandatoryCategories.get(any(String.class))).thenReturn(CategoryMask.EMPTY);
+        when(pipeline.isSaturated()).thenReturn(true);
+        when(pipeline.getResumeInterval()).thenReturn(Duration.ofSeconds(5));
+
+        Cart cart = new Cart();
+        Product kind = createLager();
+        cart.add(kind, kind.from(1));
+        CartController controller = new CartController(cart, repository, mandatoryCategories,
+            mock(ConcurrencyRetry.class), Optional.of(pipeline), Optional.empty(), false);
+
+        ResponseEntity<?> response = controller.checkout(1, CrateSize.SIX);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(RETRY_AFTER));
+        assertFalse(cart.isEmpty());
+        verify(repository, never()).save(any());
+        verify(pipeline, never()).submit(any());
+    }
+
     @AfterEach
     void tearDown() {
         cart.clear();
@@ -271,6 +346,8 @@ class CartControllerTest {
     static FieldDescriptor[] forOrder() {
         return new FieldDescriptor[]{
             fieldWithPath("id").description("The order's ID"),
+            fieldWithPath("status").description("The order's status. Either OPEN, COMPLETED or FAILED"),
+            fieldWithPath("created_at").description("The order's creation timestamp"),
             fieldWithPath("total").description("The order's total cost"),
             fieldWithPath("total.amount").description("The amount of the order's price"),
             fieldWithPath("total.currency").description("The currency of the order's price"),
@@ -0,0 +1,262 @@
+package de.team7.swt.checkout.presentation;
+
+import com.jayway.jsonpath.JsonPath;
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.restdocs.RestDocumentationContextProvider;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_XML;
+import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
+import static org.springframework.restdocs.headers.HeaderDocumentation.responseHeaders;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ExtendWith({RestDocumentationExtension.class, SpringExtension.class})
+class OrderControllerTest {
+
+    private static final URI BASE_URI = URI.create("/api/v1/orders");
+    private static final String STATUS = "Status";
+    private static final int ORDERS = 5;
+
+    private MockMvc mockMvc;
+
+    // @formatter:off
+    @Autowired private OrderRepository repository;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product product;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp(WebApplicationContext context, RestDocumentationContextProvider restDocumentation) {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .apply(documentationConfiguration(restDocumentation)
+                .operationPreprocessors()
+                .withRequestDefaults(prettyPrint())
+                .withResponseDefaults(prettyPrint()))
+            .apply(springSecurity())
+            .build();
+
+        product = catalog.save(new Product("Ordered " + System.nanoTime(), ZERO_EURO));
+        orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.addItem(product, product.from(i + 1));
+            orders.add(repository.save(order));
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void listByProduct_shouldPageThroughAllOrdersNewestFirst() throws Exception {
+        String body = mockMvc.perform(get(BASE_URI + "?product_id={product_id}&size={size}", product.getId(), 2))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+            .andExpect(jsonPath("$._embedded", hasSize(2)))
+            .andDo(document(
+                "orders/list",
+                requestParameters(
+                    parameterWithName("product_id").description("The product ID one of the order's line items must refer to").optional(),
+                    parameterWithName("from").description("The inclusive lower bound of the order's creation timestamp").optional(),
+                    parameterWithName("to").description("The exclusive upper bound of the order's creation timestamp").optional(),
+                    parameterWithName("cursor").description("The cursor of the page to continue after").optional(),
+                    parameterWithName("size").description("The maximum number of orders per page, 20 by default").optional(),
+                    parameterWithName("line_items").description("Whether to include the order's line items").optional()
+                ),
+                responseHeaders(
+                    headerWithName(CONTENT_TYPE).description(APPLICATION_JSON),
+                    headerWithName(STATUS).description(OK).optional()
+                ),
+                responseFields(
+                    fieldWithPath("_embedded[]").description("Collection of order summaries, newest first"),
+                    fieldWithPath("_embedded[].id").description("The order's ID"),
+                    fieldWithPath("_embedded[].status").description("The order's status. Either OPEN, COMPLETED or FAILED"),
+                    fieldWithPath("_embedded[].created_at").description("The order's creation timestamp"),
+                    fieldWithPath("_embedded[].line_item_count").description("The number of the order's line items"),
+                    fieldWithPath("next").description("Link to the following page, if there is any").optional()
+                )
+            ))
+            .andReturn().getResponse().getContentAsString();
+
+        List<String> ids = new ArrayList<>(JsonPath.read(body, "$._embedded[*].id"));
+        List<String> createdAt = new ArrayList<>(JsonPath.read(body, "$._embedded[*].created_at"));
+        while (JsonPath.<Map<String, Object>>read(body, "$").containsKey("next")) {
+            body = mockMvc.perform(get(URI.create(JsonPath.read(body, "$.next"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            ids.addAll(JsonPath.read(body, "$._embedded[*].id"));
+            createdAt.addAll(JsonPath.read(body, "$._embedded[*].created_at"));
+        }
+
+        assertEquals(ORDERS, ids.size());
+        assertEquals(orders.stream().map(order -> order.getId().toString()).collect(Collectors.toSet()), Set.copyOf(ids));
+        assertEquals(createdAt.stream().map(Instant::parse).sorted(Comparator.reverseOrder()).collect(Collectors.toList()),
+            createdAt.stream().map(Instant::parse).collect(Collectors.toList()));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void listWithLineItems_shouldIncludeLineItems() throws Exception {
+        mockMvc.perform(get(BASE_URI)
+                .param("product_id", product.getId().toString())
+                .param("size", "1")
+                .param("line_items", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded[0].line_items", hasSize(1)))
+            .andExpect(jsonPath("$._embedded[0].line_items[0].product_id").value(product.getId().toString()));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void listWithinDateRange_shouldSkipOrdersOutside() throws Exception {
+        Instant to = orders.stream().map(Order::getCreatedAt).min(Instant::compareTo).orElseThrow();
+
+        mockMvc.perform(get(BASE_URI)
+                .param("product_id", product.getId().toString())
+                .param("to", to.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded", hasSize(0)));
+
+        mockMvc.perform(get(BASE_URI)
+                .param("product_id", product.getId().toString())
+                .param("from", to.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded", hasSize(ORDERS)));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void listWithInvalidCursorOrSize_shouldRespondBadRequest() throws Exception {
+        mockMvc.perform(get(BASE_URI).param("cursor", "invalid"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get(BASE_URI).param("size", String.valueOf(OrderController.MAX_PAGE_SIZE + 1)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listWithoutManager_shouldBeRejected() throws Exception {
+        mockMvc.perform(get(BASE_URI))
+            .andExpect(status().is3xxRedirection());
+        mockMvc.perform(get(BASE_URI + "/"))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @WithMockUser
+    void listAsCustomer_shouldBeForbidden() throws Exception {
+        mockMvc.perform(get(BASE_URI))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void retrieve_shouldNotRequireManager() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/{id}", orders.get(0).getId()))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void export_shouldStreamLineOfEveryLineItemAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URI + "/export").header(ACCEPT, "text/csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andDo(document(
+                "orders/export",
+                requestHeaders(
+                    headerWithName(ACCEPT).description("text/csv or " + APPLICATION_NDJSON + ", the latter by default").optional()
+                ),
+                responseHeaders(
+                    headerWithName(CONTENT_TYPE).description("text/csv or " + APPLICATION_NDJSON),
+                    headerWithName(STATUS).description(OK).optional()
+                )
+            ))
+            .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = List.of(csv.split("\n"));
+        assertEquals("order_id,status,created_at,product_id,product_name,price,currency,quantity,metric", lines.get(0));
+        for (Order order : orders) {
+            String line = lines.stream()
+                .filter(candidate -> candidate.startsWith(order.getId().toString()))
+                .findFirst().orElseThrow();
+            assertTrue(line.contains("," + product.getId() + "," + product.getName() + ",0,EUR,"), line);
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void export_shouldStreamNdjsonByDefault() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URI + "/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String line = List.of(ndjson.split("\n")).stream()
+            .filter(candidate -> candidate.contains(orders.get(0).getId().toString()))
+            .findFirst().orElseThrow();
+        assertEquals(product.getName(), JsonPath.read(line, "$.product_name"));
+        assertEquals("UNIT", JsonPath.read(line, "$.metric"));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void exportWithUnacceptableType_shouldRespondNotAcceptable() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/export").accept(APPLICATION_XML))
+            .andExpect(status().isNotAcceptable());
+    }
+}
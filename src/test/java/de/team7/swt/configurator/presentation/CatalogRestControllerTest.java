@@ -17,6 +17,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.util.Streamable;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.restdocs.RestDocumentationContextProvider;
 import org.springframework.restdocs.RestDocumentationExtension;
 import org.springframework.restdocs.payload.FieldDescriptor;
@@ -27,13 +28,30 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static de.team7.swt.domain.catalog.Types.TYPE_LAGER_ID;
 import static de.team7.swt.domain.catalog.Types.createLager;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.VARY;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
@@ -47,6 +65,8 @@ import static org.springframework.restdocs.payload.PayloadDocumentation.response
 import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
 import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -155,6 +175,106 @@ class CatalogRestControllerTest<T extends Product> {
             ));
     }
 
+    @Test
+    void listAllWithCurrentETag_shouldNotRenderAgain() throws Exception {
+        when(catalog.getVersion()).thenReturn(System.nanoTime());
+        when(catalog.findAll()).thenReturn(products.toList());
+
+        String eTag = mockMvc.perform(get(BASE_URI))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(ETAG))
+            .andReturn().getResponse().getHeader(ETAG);
+
+        mockMvc.perform(get(BASE_URI).header(IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+        verify(catalog, times(1)).findAll();
+    }
+
+    @Test
+    void listAllOfNewVersion_shouldRenderAgain() throws Exception {
+        when(catalog.getVersion()).thenReturn(System.nanoTime());
+        when(catalog.findAll()).thenReturn(products.toList());
+        String eTag = mockMvc.perform(get(BASE_URI))
+            .andReturn().getResponse().getHeader(ETAG);
+
+        when(catalog.getVersion()).thenReturn(System.nanoTime());
+        when(catalog.findAll()).thenReturn(types.toList());
+
+        String body = mockMvc.perform(get(BASE_URI).header(IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(ETAG, not(eTag)))
+            .andReturn().getResponse().getContentAsString();
+        assertTrue(body.contains(createLager().getName()), body);
+        verify(catalog, times(2)).findAll();
+    }
+
+    @Test
+    void listAllAcceptingGzip_shouldServeCompressedVariant() throws Exception {
+        when(catalog.getVersion()).thenReturn(System.nanoTime());
+        when(catalog.findAll()).thenReturn(products.toList());
+
+        MockHttpServletResponse plain = mockMvc.perform(get(BASE_URI))
+            .andReturn().getResponse();
+        MockHttpServletResponse gzip = mockMvc.perform(get(BASE_URI).header(ACCEPT_ENCODING, "deflate, gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(VARY, ACCEPT_ENCODING))
+            .andReturn().getResponse();
+
+        assertNotEquals(plain.getHeader(ETAG), gzip.getHeader(ETAG));
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+            assertArrayEquals(plain.getContentAsByteArray(), input.readAllBytes());
+        }
+        mockMvc.perform(get(BASE_URI).header(ACCEPT_ENCODING, "gzip;q=0"))
+            .andExpect(header().doesNotExist(CONTENT_ENCODING));
+    }
+
+    @Test
+    void listByMultipleCategories_shouldListIntersection() throws Exception {
+        when(catalog.findByCategories(Set.of("beertype", "product"))).thenReturn(Streamable.of(createLager()));
+
+        mockMvc.perform(get(BASE_URI + "?category={first}&category={second}", "product", "beertype"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded[*].name", contains(createLager().getName())));
+    }
+
+    @Test
+    void search() throws Exception {
+        when(catalog.search("lag", 20)).thenReturn(types.toList());
+
+        URI endpoint = UriComponentsBuilder.fromUri(BASE_URI)
+            .path("/search")
+            .queryParam("q", "lag")
+            .build().toUri();
+
+        mockMvc.perform(get(endpoint))
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andDo(document(
+                "catalog/search",
+                requestParameters(
+                    parameterWithName("q").description("Words the product's name or categories start with"),
+                    parameterWithName("limit").description("The maximum number of products, 20 by default")
+                        .optional()
+                ),
+                responseHeaders(
+                    headerWithName(CONTENT_TYPE).description(APPLICATION_JSON),
+                    headerWithName(STATUS).description(OK).optional()
+                ),
+                forProductCollection("product")
+            ));
+    }
+
+    @Test
+    void searchWithExcessiveLimit_shouldBeCapped() throws Exception {
+        when(catalog.search("lag", 100)).thenReturn(List.of(createLager()));
+
+        mockMvc.perform(get(BASE_URI + "/search?q={query}&limit={limit}", "lag", 1000))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded[*].name", contains(createLager().getName())));
+    }
+
     @Test
     void retrieve404() throws Exception {
         when(catalog.findById(TYPE_LAGER_ID)).thenReturn(Optional.empty());
@@ -0,0 +1,158 @@
+package de.team7.swt.domain.catalog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CachedCatalogTest {
+
+    // @formatter:off
+    @Autowired private Catalog<Product> catalog;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired @Qualifier("mvcConversionService") private ConversionService conversionService;
+    // @formatter:on
+
+    private Statistics statistics;
+    private String category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        category = "Cached " + System.nanoTime();
+        product = createProduct();
+    }
+
+    private Product createProduct() {
+        Product product = new Product("Cached " + System.nanoTime(), ZERO_EURO);
+        product.add(category);
+        return catalog.save(product);
+    }
+
+    @Test
+    void warmReads_shouldNotQueryDatabase() {
+        catalog.findAll();
+        statistics.clear();
+        double hits = hits();
+
+        assertEquals(product, catalog.findById(product.getId()).orElseThrow());
+        assertTrue(catalog.findAll().contains(product));
+        assertEquals(product, catalog.findByCategory(category).stream().findFirst().orElseThrow());
+        assertTrue(catalog.findAllCategories().stream().anyMatch(category::equals));
+        assertEquals(product, conversionService.convert(product.getId().toString(), Product.class));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(hits + 5, hits());
+    }
+
+    @Test
+    void findByCategories_shouldReturnIntersection() {
+        Product other = new Product("Cached " + System.nanoTime(), ZERO_EURO);
+        other.add(category);
+        other.add("Other " + category);
+        other = catalog.save(other);
+
+        assertEquals(List.of(other), catalog.findByCategories(List.of(category, "Other " + category)).toList());
+        assertEquals(2, catalog.findByCategories(List.of(category)).stream().count());
+    }
+
+    @Test
+    void search_shouldFindProductsByNameAndCategory() {
+        catalog.findAll();
+        statistics.clear();
+
+        assertEquals(List.of(product), catalog.search(product.getName().toUpperCase(), 10));
+        assertTrue(catalog.search(category, 10).contains(product));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void save_shouldReplaceSnapshot() {
+        catalog.findAll();
+
+        Product saved = createProduct();
+
+        assertEquals(saved, catalog.findById(saved.getId()).orElseThrow());
+        assertEquals(2, catalog.findByCategory(category).stream().count());
+    }
+
+    @Test
+    void save_shouldRefreshSavedProductsOnly() {
+        catalog.findAll();
+        statistics.clear();
+
+        Product saved = createProduct();
+        String name = product.getName();
+        product.setName("Renamed " + System.nanoTime());
+        product = catalog.save(product);
+
+        assertEquals(0, statistics.getQueryStatistics(CachedCatalogImpl.FIND_ALL).getExecutionCount());
+        statistics.clear();
+        assertEquals(saved, catalog.findById(saved.getId()).orElseThrow());
+        assertEquals(List.of(product), catalog.search(product.getName(), 10));
+        assertTrue(catalog.search(name, 10).isEmpty());
+        assertEquals(2, catalog.findByCategory(category).stream().count());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void modifyingReadProduct_shouldNotAffectOtherReads() {
+        Product read = catalog.findById(product.getId()).orElseThrow();
+        read.remove(category);
+        read.setName("Modified " + System.nanoTime());
+
+        Product other = catalog.findById(product.getId()).orElseThrow();
+        assertTrue(other.contains(category));
+        assertEquals(product.getName(), other.getName());
+        assertEquals(List.of(product), catalog.findByCategory(category).toList());
+    }
+
+    @Test
+    void savingReadProduct_shouldReplaceItsCategories() {
+        Product read = catalog.findById(product.getId()).orElseThrow();
+        read.remove(category);
+        read.add("Other " + category);
+        catalog.save(read);
+
+        assertTrue(catalog.findByCategory(category).isEmpty());
+        assertEquals(List.of(product), catalog.findByCategory("Other " + category).toList());
+    }
+
+    @Test
+    void readWithinWritingTransaction_shouldSeeOwnWrites() {
+        catalog.findAll();
+
+        long count = new TransactionTemplate(transactionManager).execute(status -> {
+            Product saved = createProduct();
+            assertTrue(catalog.findById(saved.getId()).isPresent());
+            return catalog.findByCategory(category).stream().count();
+        });
+
+        assertEquals(2, count);
+    }
+
+    private double hits() {
+        return meterRegistry.counter(CachedCatalogImpl.REQUESTS, "result", "hit").count();
+    }
+}
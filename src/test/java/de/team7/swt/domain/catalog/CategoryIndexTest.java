@@ -0,0 +1,113 @@
+package de.team7.swt.domain.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+class CategoryIndexTest {
+
+    private Product apple;
+    private Product hops;
+    private Product cherry;
+    private CategoryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        apple = createProduct("Apple", "Zutat", "Frucht & Saft");
+        hops = createProduct("Hops", "Zutat");
+        cherry = createProduct("Cherry", "Frucht & Saft", "Zutat", "Komponente");
+        index = new CategoryIndex(List.of(apple, hops, cherry));
+    }
+
+    private static Product createProduct(String name, String... categories) {
+        Product product = new Product(name, ZERO_EURO);
+        for (String category : categories) {
+            product.add(category);
+        }
+        return product;
+    }
+
+    @Test
+    void getCategories_shouldReturnCategoriesInAlphabeticalOrder() {
+        assertEquals(List.of("Frucht & Saft", "Komponente", "Zutat"), index.getCategories());
+    }
+
+    @Test
+    void findBySingleCategory_shouldReturnProductsInIndexedOrder() {
+        assertEquals(List.of(apple, hops, cherry), index.findByCategories(List.of("Zutat")));
+    }
+
+    @Test
+    void findByMultipleCategories_shouldReturnIntersection() {
+        assertEquals(List.of(apple, cherry), index.findByCategories(List.of("Zutat", "Frucht & Saft")));
+        assertEquals(List.of(cherry), index.findByCategories(List.of("Komponente", "Zutat", "Frucht & Saft")));
+    }
+
+    @Test
+    void findByUnknownCategory_shouldReturnEmptyList() {
+        assertTrue(index.findByCategories(List.of("Zutat", "Unknown")).isEmpty());
+    }
+
+    @Test
+    void with_shouldUpdateCategoriesOfChangedProducts() {
+        Product malt = createProduct("Malt", "Zutat", "Komponente");
+        Product pear = createProduct("Pear", "Frucht & Saft");
+        CategoryIndex updated = index.with(List.of(apple, malt, cherry, pear), List.of(1, 3));
+
+        assertEquals(List.of(apple, malt, cherry), updated.findByCategories(List.of("Zutat")));
+        assertEquals(List.of(malt, cherry), updated.findByCategories(List.of("Komponente")));
+        assertEquals(List.of(apple, cherry, pear), updated.findByCategories(List.of("Frucht & Saft")));
+        assertEquals(List.of(apple, hops, cherry), index.findByCategories(List.of("Zutat")));
+    }
+
+    @Test
+    void withProductModifiedInPlace_shouldRemoveIndexedCategories() {
+        hops.remove("Zutat");
+        hops.add("Frucht & Saft");
+        CategoryIndex updated = index.with(List.of(apple, hops, cherry), List.of(1));
+
+        assertEquals(List.of(apple, cherry), updated.findByCategories(List.of("Zutat")));
+        assertEquals(List.of(apple, hops, cherry), updated.findByCategories(List.of("Frucht & Saft")));
+    }
+
+    @Test
+    void withCategoryAddedInPlace_shouldIndexCategory() {
+        hops.add("Hefe");
+        CategoryIndex updated = index.with(List.of(apple, hops, cherry), List.of(1));
+
+        assertEquals(List.of(hops), updated.findByCategories(List.of("Hefe")));
+        assertEquals(List.of(apple, hops, cherry), updated.findByCategories(List.of("Zutat")));
+    }
+
+    @Test
+    void withNewCategory_shouldIndexCategory() {
+        Product yeast = createProduct("Yeast", "Hefe");
+        CategoryIndex updated = index.with(List.of(apple, yeast, cherry), List.of(1));
+
+        assertEquals(List.of("Frucht & Saft", "Hefe", "Komponente", "Zutat"), updated.getCategories());
+        assertEquals(List.of(apple, cherry), updated.findByCategories(List.of("Zutat")));
+    }
+
+    @Test
+    void withUnusedCategory_shouldDropCategory() {
+        Product lemon = createProduct("Lemon", "Frucht & Saft");
+        CategoryIndex updated = index.with(List.of(apple, hops, lemon), List.of(2));
+
+        assertEquals(List.of("Frucht & Saft", "Zutat"), updated.getCategories());
+        assertTrue(updated.findByCategories(List.of("Komponente")).isEmpty());
+    }
+
+    @Test
+    void findByNoCategory_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> index.findByCategories(List.of()));
+    }
+}
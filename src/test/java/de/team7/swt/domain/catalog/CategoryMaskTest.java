@@ -0,0 +1,71 @@
+package de.team7.swt.domain.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+class CategoryMaskTest {
+
+    @Test
+    void maskOfSameCategories_shouldBeEqual() {
+        assertEquals(CategoryMask.of("Zutat", "Komponente"), CategoryMask.of(List.of("Komponente", "Zutat")));
+        assertEquals(CategoryMask.EMPTY, CategoryMask.of("Zutat").andNot(CategoryMask.of("Zutat")));
+    }
+
+    @Test
+    void intersects_shouldDetectCommonCategories() {
+        CategoryMask mask = CategoryMask.of("Zutat", "Frucht & Saft");
+
+        assertTrue(mask.intersects(CategoryMask.of("Frucht & Saft", "Flasche")));
+        assertFalse(mask.intersects(CategoryMask.of("Flasche")));
+        assertFalse(mask.intersects(CategoryMask.EMPTY));
+    }
+
+    @Test
+    void containsAll_shouldDetectSubsets() {
+        CategoryMask mask = CategoryMask.of("Zutat", "Frucht & Saft", "Komponente");
+
+        assertTrue(mask.containsAll(CategoryMask.of("Zutat", "Komponente")));
+        assertTrue(mask.containsAll(CategoryMask.EMPTY));
+        assertFalse(mask.containsAll(CategoryMask.of("Zutat", "Flasche")));
+        assertFalse(CategoryMask.EMPTY.containsAll(mask));
+    }
+
+    @Test
+    void maskOfManyCategories_shouldSpanMultipleWords() {
+        List<String> categories = IntStream.range(0, 200)
+            .mapToObj(i -> "Masked " + i)
+            .collect(Collectors.toList());
+        CategoryMask all = CategoryMask.of(categories);
+        CategoryMask last = CategoryMask.of(categories.get(199));
+
+        assertTrue(all.containsAll(last));
+        assertTrue(all.intersects(last));
+        assertFalse(CategoryMask.of(categories.subList(0, 199)).intersects(last));
+        assertEquals(all, CategoryMask.of(categories.subList(0, 100)).or(CategoryMask.of(categories.subList(100, 200))));
+        assertEquals(Set.copyOf(categories), all.getCategories());
+    }
+
+    @Test
+    void productMask_shouldFollowCategoryChanges() {
+        Product product = new Product("Masked", Currencies.ZERO_EURO);
+        product.add("Zutat");
+        assertEquals(CategoryMask.of("Zutat"), product.getCategoryMask());
+
+        product.add("Frucht & Saft");
+        assertEquals(CategoryMask.of("Zutat", "Frucht & Saft"), product.getCategoryMask());
+
+        product.remove("Zutat");
+        assertEquals(CategoryMask.of("Frucht & Saft"), product.getCategoryMask());
+    }
+}
@@ -0,0 +1,51 @@
+package de.team7.swt.domain.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark searching an index of a hundred thousand synthetic products by whole words and by prefixes. This class
+ * isn't part of the regular test run; execute it with {@code mvn test -Dtest=SearchIndexBenchmark}.
+ *
+ * @author Vincent Nadoll
+ */
+class SearchIndexBenchmark {
+
+    private static final int PRODUCTS = 100_000;
+    private static final int WARMUP = 10_000;
+    private static final int SEARCHES = 100_000;
+    private static final String[] STYLES = {"Märzen", "Kölsch", "Pils", "Weizen", "Würzig/Kräuteraroma"};
+    private static final String[] QUERIES = {"maerzen 4711", "kolsch", "würz krä 99", "pils 12345", "weiz 1"};
+
+    @Test
+    void search_shouldAnswerInMicroseconds() {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product(STYLES[i % STYLES.length] + " " + i, ZERO_EURO);
+            product.add("Kategorie " + i % 100);
+            products.add(product);
+        }
+
+        long start = System.nanoTime();
+        SearchIndex index = new SearchIndex(products);
+        System.out.printf("Indexed %d products in %d ms%n", PRODUCTS, (System.nanoTime() - start) / 1_000_000);
+        assertEquals("Märzen 4710", index.search("maerzen 4710", 10).get(0).getName());
+
+        for (int i = 0; i < WARMUP; i++) {
+            index.search(QUERIES[i % QUERIES.length], 20);
+        }
+        for (String query : QUERIES) {
+            start = System.nanoTime();
+            for (int i = 0; i < SEARCHES / QUERIES.length; i++) {
+                index.search(query, 20);
+            }
+            double micros = (System.nanoTime() - start) / 1e3 / (SEARCHES / QUERIES.length);
+            System.out.printf("Searched \"%s\": %.1f µs per search%n", query, micros);
+        }
+    }
+}
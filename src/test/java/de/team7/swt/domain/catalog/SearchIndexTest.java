@@ -0,0 +1,105 @@
+package de.team7.swt.domain.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+class SearchIndexTest {
+
+    private Product maerzen;
+    private Product koelsch;
+    private Product herbs;
+    private Product malt;
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        maerzen = createProduct("Märzen", "Biertyp");
+        koelsch = createProduct("Kölsch", "Biertyp");
+        herbs = createProduct("Würzig/Kräuteraroma", "Geschmack");
+        malt = createProduct("Malz", "Zutat", "Märzen");
+        index = new SearchIndex(List.of(maerzen, koelsch, herbs, malt));
+    }
+
+    private static Product createProduct(String name, String... categories) {
+        Product product = new Product(new Product.Id(UUID.randomUUID()), name, ZERO_EURO);
+        for (String category : categories) {
+            product.add(category);
+        }
+        return product;
+    }
+
+    @Test
+    void tokenize_shouldFoldCaseAndUmlauts() {
+        assertEquals(Set.of("wurzig", "krauteraroma"), SearchIndex.tokenize("Würzig/Kräuteraroma"));
+        assertEquals(Set.of("marzen", "kolsch", "strasse"), SearchIndex.tokenize("MAERZEN, Koelsch  Straße"));
+    }
+
+    @Test
+    void search_shouldMatchFoldedTokens() {
+        assertEquals(List.of(koelsch), index.search("kolsch", 10));
+        assertEquals(List.of(koelsch), index.search("KOELSCH", 10));
+        assertEquals(List.of(herbs), index.search("kraeuter", 10));
+    }
+
+    @Test
+    void search_shouldMatchPrefixesOfEachToken() {
+        assertEquals(List.of(koelsch, maerzen), index.search("bier", 10));
+        assertEquals(List.of(herbs), index.search("wü krä", 10));
+        assertTrue(index.search("wü bier", 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldRankNameAndWholeMatchesFirst() {
+        assertEquals(List.of(maerzen, malt), index.search("Märzen", 10));
+        assertEquals(List.of(malt, maerzen), index.search("Ma", 10));
+        assertEquals(List.of(malt), index.search("Ma", 1));
+    }
+
+    @Test
+    void searchWithSavedProducts_shouldReplaceProductsOfSameId() {
+        koelsch.setName("Alt");
+        Product pils = createProduct("Pils", "Biertyp");
+        SearchIndex saved = index.with(List.of(koelsch, pils));
+
+        assertTrue(saved.search("kolsch", 10).isEmpty());
+        assertEquals(List.of(koelsch), saved.search("alt", 10));
+        assertEquals(List.of(koelsch, maerzen, pils), saved.search("bier", 10));
+        assertEquals(List.of(maerzen, malt), saved.search("Märzen", 10));
+        assertEquals(List.of(koelsch, maerzen), saved.search("bier", 2));
+    }
+
+    @Test
+    void searchWithManySavedProducts_shouldFindAllProducts() {
+        List<Product> products = IntStream.range(0, 20)
+            .mapToObj(i -> createProduct("Pils " + i, "Biertyp"))
+            .collect(Collectors.toList());
+        SearchIndex saved = index.with(products);
+
+        assertEquals(22, saved.search("bier", 100).size());
+        assertEquals(List.of(koelsch), saved.search("kolsch", 10));
+    }
+
+    @Test
+    void searchWithoutTokens_shouldReturnEmptyList() {
+        assertTrue(index.search(" / ", 10).isEmpty());
+    }
+
+    @Test
+    void searchWithoutPositiveLimit_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("bier", 0));
+    }
+}
@@ -0,0 +1,114 @@
+package de.team7.swt.domain.infrastructure.outbox;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Cart;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.Reservations;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.reporting.infrastructure.OrderRecords;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Optional;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(properties = {
+    "dyob.outbox.enabled=true",
+    "dyob.outbox.relay-interval=3600000"
+})
+class OutboxRelayTest {
+
+    // @formatter:off
+    @Autowired private OutboxRelay relay;
+    @Autowired private OutboxMessages messages;
+    @Autowired private OrderRepository orders;
+    @Autowired private Reservations reservations;
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    @Autowired private OrderRecords records;
+    // @formatter:on
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = catalog.save(new Product("Outboxed " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(5)));
+    }
+
+    @Test
+    void savingCompletedOrder_shouldRecordMessageWithoutVerifying() {
+        Order order = completeOrder(3);
+
+        OutboxMessage message = getMessage(order);
+        assertEquals("OrderCompleted", message.getType());
+        assertNull(message.getPublishedAt());
+        assertEquals(product.from(5), getStock());
+        assertFalse(records.existsByOrderId(order.getId()));
+    }
+
+    @Test
+    void relay_shouldVerifyOrdersAndFailUnverifiableOnes() {
+        Order first = completeOrder(3);
+        Order second = completeOrder(3);
+
+        relay.relay();
+
+        assertEquals(product.from(2), getStock());
+        assertEquals(Order.Status.COMPLETED, orders.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(Order.Status.FAILED, orders.findById(second.getId()).orElseThrow().getStatus());
+        assertNotNull(getMessage(first).getPublishedAt());
+        assertNotNull(getMessage(second).getPublishedAt());
+        assertTrue(records.existsByOrderId(first.getId()));
+        assertFalse(records.existsByOrderId(second.getId()));
+    }
+
+    @Test
+    void relayUnverifiableOrder_shouldReleaseHoldsOfCheckedOutCart() {
+        Cart cart = new Cart(reservations);
+        cart.add(product, product.from(2));
+        Order order = new Order();
+        cart.addItemsTo(order, 6);
+        cart.checkOut();
+        order.complete();
+        order = orders.save(order);
+
+        relay.relay();
+
+        assertEquals(Order.Status.FAILED, orders.findById(order.getId()).orElseThrow().getStatus());
+        assertEquals(Optional.of(product.from(5)), reservations.getAvailableToPromise(product.getId()));
+    }
+
+    private Order completeOrder(int amount) {
+        Order order = new Order();
+        order.addItem(product, product.from(amount));
+        order.complete();
+        return orders.save(order);
+    }
+
+    private OutboxMessage getMessage(Order order) {
+        return messages.findAll().stream()
+            .filter(message -> message.getAggregateId().equals(order.getId().toString()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private Quantity getStock() {
+        return inventory.findQuantityByProductId(product.getId()).orElseThrow();
+    }
+}
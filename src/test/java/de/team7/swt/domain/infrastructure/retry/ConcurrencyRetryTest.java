@@ -0,0 +1,87 @@
+package de.team7.swt.domain.infrastructure.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.backoff.NoBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Vincent Nadoll
+ */
+class ConcurrencyRetryTest {
+
+    private MeterRegistry meterRegistry;
+    private ConcurrencyRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new SimpleRetryPolicy(3,
+            Map.of(OptimisticLockingFailureException.class, true), true));
+        retryTemplate.setBackOffPolicy(new NoBackOffPolicy());
+        retryTemplate.registerListener(new ConcurrencyRetryMetrics(meterRegistry));
+        retry = new ConcurrencyRetry(retryTemplate);
+    }
+
+    @Test
+    void conflictingWork_shouldBeRetriedUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute("test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(String.class, "id");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, meterRegistry.counter(ConcurrencyRetryMetrics.CONFLICTS,
+            "operation", "test", "entity", "String").count());
+        assertEquals(2, meterRegistry.counter(ConcurrencyRetryMetrics.RETRIES, "operation", "test").count());
+        assertNull(meterRegistry.find(ConcurrencyRetryMetrics.EXHAUSTED).counter());
+    }
+
+    @Test
+    void persistentConflict_shouldBeRethrownAfterLastAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> retry.execute("test", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflict");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(3, meterRegistry.counter(ConcurrencyRetryMetrics.CONFLICTS,
+            "operation", "test", "entity", "unknown").count());
+        assertEquals(2, meterRegistry.counter(ConcurrencyRetryMetrics.RETRIES, "operation", "test").count());
+        assertEquals(1, meterRegistry.counter(ConcurrencyRetryMetrics.EXHAUSTED, "operation", "test").count());
+    }
+
+    @Test
+    void otherFailure_shouldNotBeRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.execute("test", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(1, attempts.get());
+        assertNull(meterRegistry.find(ConcurrencyRetryMetrics.CONFLICTS).counter());
+    }
+}
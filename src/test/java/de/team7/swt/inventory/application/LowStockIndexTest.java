@@ -0,0 +1,134 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderCompletionFailure;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.StockLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+@RecordApplicationEvents
+class LowStockIndexTest {
+
+    // @formatter:off
+    @Autowired private LowStockIndex index;
+    @Autowired private OrderRepository orders;
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    @Autowired private ApplicationEvents events;
+    // @formatter:on
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = catalog.save(new Product("Scarce " + System.nanoTime(), ZERO_EURO));
+        InventoryItem item = new InventoryItem(product, product.from(5));
+        item.setReorderThreshold(product.from(3));
+        inventory.save(item);
+    }
+
+    @Test
+    void completedOrders_shouldListProductOnceThresholdIsReached() {
+        complete(1);
+        assertFalse(getLevel().isLow());
+        assertTrue(getLowStock().isEmpty());
+        assertTrue(getCrossings().isEmpty());
+
+        complete(2);
+        StockLevel level = getLevel();
+        assertEquals(product.from(2), level.getQuantity());
+        assertEquals(product.from(3), level.getReorderThreshold());
+        assertEquals(List.of(level), getLowStock());
+        assertEquals(List.of(StockThresholdCrossed.of(level)), getCrossings());
+    }
+
+    @Test
+    void failedOrder_shouldNotChangeIndex() {
+        complete(1);
+
+        assertThrows(OrderCompletionFailure.class, () -> complete(10));
+
+        assertEquals(product.from(4), getLevel().getQuantity());
+    }
+
+    @Test
+    void replenishment_shouldPublishCrossing() {
+        complete(3);
+        index.adjust(product.getId(), product.from(5));
+
+        List<StockThresholdCrossed> crossings = getCrossings();
+        assertEquals(2, crossings.size());
+        assertTrue(crossings.get(0).isLow());
+        assertFalse(crossings.get(1).isLow());
+        assertTrue(getLowStock().isEmpty());
+    }
+
+    @Test
+    void loweringThreshold_shouldPublishCrossing() {
+        complete(2);
+        index.setReorderThreshold(product.getId(), product.from(1));
+
+        assertEquals(product.from(1), getLevel().getReorderThreshold());
+        assertFalse(getLevel().isLow());
+        assertEquals(2, getCrossings().size());
+    }
+
+    @Test
+    void lowStock_shouldBeOrderedByHeadroom() {
+        Product other = catalog.save(new Product("Scarcer " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(other, other.from(0)));
+        complete(3);
+        index.adjust(other.getId(), other.from(0));
+
+        List<Product.Id> lowStock = index.getLowStock(Integer.MAX_VALUE).stream()
+            .map(StockLevel::getProductId)
+            .collect(Collectors.toList());
+        assertTrue(lowStock.indexOf(product.getId()) < lowStock.indexOf(other.getId()));
+        assertEquals(1, index.getLowStock(1).size());
+    }
+
+    private void complete(int amount) {
+        Order order = new Order();
+        order.addItem(product, product.from(amount));
+        order.complete();
+        orders.save(order);
+    }
+
+    private StockLevel getLevel() {
+        return index.getStockLevel(product.getId());
+    }
+
+    private List<StockLevel> getLowStock() {
+        return index.getLowStock(Integer.MAX_VALUE).stream()
+            .filter(level -> level.getProductId().equals(product.getId()))
+            .collect(Collectors.toList());
+    }
+
+    private List<StockThresholdCrossed> getCrossings() {
+        return events.stream(StockThresholdCrossed.class)
+            .filter(crossing -> crossing.getStockLevel().getProductId().equals(product.getId()))
+            .collect(Collectors.toList());
+    }
+}
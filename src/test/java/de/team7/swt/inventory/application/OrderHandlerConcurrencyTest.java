@@ -0,0 +1,103 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderCompletionFailure;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Stress test hammering a single inventory item with concurrent checkouts to ensure no item gets oversold.
+ *
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+class OrderHandlerConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int CHECKOUTS_PER_THREAD = 25;
+
+    // @formatter:off
+    @Autowired private OrderHandler handler;
+    @Autowired private Inventory inventory;
+    @Autowired private StockKeeper stockKeeper;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    @Test
+    void concurrentCheckouts_shouldNeverOversell() throws Exception {
+        assertNoOversell(50, 1);
+    }
+
+    @Test
+    void concurrentCheckoutsOfMultipleUnits_shouldNeverOversell() throws Exception {
+        assertNoOversell(100, 3);
+    }
+
+    private void assertNoOversell(int stock, int amountPerCheckout) throws Exception {
+        Product product = catalog.save(new Product("Stress Test " + stock, ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(stock)));
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(checkout(product, amountPerCheckout, start, succeeded, rejected)));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Quantity stockLeft = stockKeeper.getStock(Set.of(product.getId())).get(product.getId());
+        int expectedSuccesses = Math.min(THREADS * CHECKOUTS_PER_THREAD, stock / amountPerCheckout);
+
+        assertEquals(THREADS * CHECKOUTS_PER_THREAD, succeeded.get() + rejected.get());
+        assertEquals(expectedSuccesses, succeeded.get());
+        assertEquals(product.from(stock - (long) expectedSuccesses * amountPerCheckout), stockLeft);
+        assertFalse(stockLeft.isNegative());
+    }
+
+    private Callable<Void> checkout(Product product, int amount, CountDownLatch start,
+                                    AtomicInteger succeeded, AtomicInteger rejected) {
+        return () -> {
+            start.await();
+            for (int i = 0; i < CHECKOUTS_PER_THREAD; i++) {
+                Order order = new Order();
+                order.addItem(product, product.from(amount));
+                try {
+                    handler.verify(order);
+                    succeeded.incrementAndGet();
+                } catch (OrderCompletionFailure e) {
+                    rejected.incrementAndGet();
+                }
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.checkout.application.CompletionStatus;
+import de.team7.swt.checkout.application.LineItemCompletion;
+import de.team7.swt.checkout.model.LineItem;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderCompletionFailure;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Metric;
+import de.team7.swt.domain.quantity.MetricMismatchException;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static de.team7.swt.domain.catalog.Flavours.createCookie;
+import static de.team7.swt.domain.catalog.Ingredients.createClove;
+import static de.team7.swt.domain.catalog.Types.createLager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Vincent Nadoll
+ */
+class OrderHandlerTest {
+
+    private StockKeeper stockKeeper;
+    private LowStockIndex lowStockIndex;
+    private OrderHandler handler;
+
+    private Product lager;
+    private Product cookie;
+
+    @BeforeEach
+    void setUp() {
+        stockKeeper = mock(StockKeeper.class);
+        lowStockIndex = mock(LowStockIndex.class);
+        handler = new OrderHandler(stockKeeper, new StockReservations(stockKeeper, Duration.ofMinutes(30)),
+            lowStockIndex);
+
+        lager = createLager();
+        cookie = createCookie();
+        when(stockKeeper.getStock(anyCollection())).thenReturn(Map.of(
+            lager.getId(), lager.from(10),
+            cookie.getId(), cookie.from(10)
+        ));
+        when(stockKeeper.decrease(any(Product.Id.class), any(Quantity.class))).thenReturn(true);
+    }
+
+    @Test
+    void verifyOrder_shouldLookUpStockAtOnceAndDecreaseEachLineItem() {
+        Order order = new Order();
+        order.addItem(lager, lager.from(4));
+        order.addItem(cookie, cookie.from(6));
+
+        handler.verify(order);
+
+        verify(stockKeeper, times(1)).getStock(anyCollection());
+        verify(stockKeeper, times(1)).decrease(lager.getId(), lager.from(4));
+        verify(stockKeeper, times(1)).decrease(cookie.getId(), cookie.from(6));
+        verifyNoMoreInteractions(stockKeeper);
+        verify(lowStockIndex, times(1)).adjust(lager.getId(), lager.from(-4));
+        verify(lowStockIndex, times(1)).adjust(cookie.getId(), cookie.from(-6));
+    }
+
+    @Test
+    void verifyOrderWithUnknownProduct_shouldSkipLineItem() {
+        Product clove = createClove();
+        Order order = new Order();
+        order.addItem(lager, lager.from(1));
+        order.addItem(clove, clove.from(1));
+
+        handler.verify(order);
+
+        verify(stockKeeper, times(1)).decrease(lager.getId(), lager.from(1));
+        verify(stockKeeper, never()).decrease(eq(clove.getId()), any(Quantity.class));
+    }
+
+    @Test
+    void verifyOrderWithZeroQuantity_shouldNotDecreaseStock() {
+        Order order = new Order();
+        order.addItem(lager, lager.from(0));
+
+        handler.verify(order);
+
+        verify(stockKeeper, never()).decrease(any(Product.Id.class), any(Quantity.class));
+    }
+
+    @Test
+    void verifyOrderExceedingStock_shouldReportEachLineItemInOrder() {
+        when(stockKeeper.decrease(cookie.getId(), cookie.from(11))).thenReturn(false);
+
+        Order order = new Order();
+        order.addItem(lager, lager.from(4));
+        order.addItem(cookie, cookie.from(11));
+        order.addItem(lager, lager.from(-1));
+
+        OrderCompletionFailure failure = assertThrows(OrderCompletionFailure.class, () -> handler.verify(order));
+
+        List<LineItemCompletion> completions = failure.getReport().toList();
+        List<LineItem> lineItems = order.toList();
+        assertEquals(3, completions.size());
+        for (int i = 0; i < lineItems.size(); i++) {
+            assertSame(lineItems.get(i), completions.get(i).getItem());
+        }
+        assertEquals(CompletionStatus.SUCCEEDED, completions.get(0).getStatus());
+        assertEquals(CompletionStatus.FAILED, completions.get(1).getStatus());
+        assertEquals(CompletionStatus.FAILED, completions.get(2).getStatus());
+        verify(lowStockIndex, never()).adjust(eq(cookie.getId()), any(Quantity.class));
+    }
+
+    @Test
+    void verifyOrderWithMismatchingMetric_shouldThrowException() {
+        when(stockKeeper.getStock(anyCollection())).thenReturn(Map.of(lager.getId(), Quantity.of(10, Metric.LITER)));
+
+        Order order = new Order();
+        order.addItem(lager, lager.from(1));
+
+        assertThrows(MetricMismatchException.class, () -> handler.verify(order));
+        verify(stockKeeper, never()).decrease(any(Product.Id.class), any(Quantity.class));
+    }
+}
@@ -0,0 +1,96 @@
+package de.team7.swt.inventory.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.team7.swt.domain.web.RowWriter;
+import de.team7.swt.inventory.model.StockRow;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark exporting a million synthetic inventory items, asserting that the heap used while exporting doesn't grow
+ * with the number of rows exported. The items are kept in a file-based database, which is dropped afterwards, so they
+ * don't take up the heap themselves. This class isn't part of the regular test run; execute it with
+ * {@code mvn test -Pbenchmark}, which forks a JVM limited to a heap of 256 MiB.
+ *
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/stock-exporter-benchmark",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class StockExporterBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int SAMPLE_INTERVAL = 100_000;
+    private static final long MAX_HEAP = 256L * 1024 * 1024;
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+    private static final String NAME_PREFIX = "Synthetic ";
+
+    private static final List<RowWriter.Column<StockRow>> COLUMNS = List.of(
+        RowWriter.Column.of("product_id", row -> row.getProductId().toString()),
+        RowWriter.Column.of("product_name", StockRow::getProductName),
+        RowWriter.Column.of("quantity", row -> row.getQuantity().getAmount()));
+
+    // @formatter:off
+    @Autowired private StockExporter exporter;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+    // @formatter:on
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into product (dtype, id, version, metric, name, price) "
+            + "select 'Product', random_uuid(), 0, 'UNIT', concat(?, x), 'EUR 1.00' from system_range(1, ?)",
+            NAME_PREFIX, ROWS);
+        jdbcTemplate.update("insert into inventory_item "
+            + "(id, version, quantity_amount, quantity_metric, initial_amount, reorder_threshold, product_id) "
+            + "select random_uuid(), 0, 10, 1, 10, 0, id from product where name like ?", NAME_PREFIX + "%");
+    }
+
+    @Test
+    void exportingMillionRows_shouldUseConstantMemory() throws Exception {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        assertTrue(maxHeap <= MAX_HEAP, "Max heap is " + (maxHeap >> 20) + " MiB, run with -Xmx256m");
+        for (RowWriter.Format format : RowWriter.Format.values()) {
+            measure(format);
+        }
+    }
+
+    private void measure(RowWriter.Format format) throws Exception {
+        CountingOutputStream output = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+        RowWriter<StockRow> writer = RowWriter.create(format, COLUMNS, output, objectMapper);
+        long baseline = usedHeap();
+        long[] rows = {0};
+        long[] maxGrowth = {0};
+
+        long start = System.nanoTime();
+        exporter.export(row -> {
+            writer.accept(row);
+            if (++rows[0] % SAMPLE_INTERVAL == 0) {
+                maxGrowth[0] = Math.max(maxGrowth[0], usedHeap() - baseline);
+            }
+        });
+        writer.flush();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Exported %d rows as %s: %.0f rows/s, %d MiB, max heap growth %d MiB%n", rows[0], format,
+            rows[0] / seconds, output.getByteCount() >> 20, maxGrowth[0] >> 20);
+        assertTrue(rows[0] >= ROWS, "Exported " + rows[0] + " rows");
+        assertTrue(maxGrowth[0] < MAX_HEAP_GROWTH, "Heap grew by " + (maxGrowth[0] >> 20) + " MiB");
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
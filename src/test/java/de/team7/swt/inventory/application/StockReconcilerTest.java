@@ -0,0 +1,116 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.infrastructure.ManualAdjustments;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import de.team7.swt.inventory.model.DriftReport;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.ManualAdjustment;
+import de.team7.swt.inventory.model.StockDrift;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(properties = "dyob.inventory.reconciliation.partitions=3")
+class StockReconcilerTest {
+
+    // @formatter:off
+    @Autowired private StockReconciler reconciler;
+    @Autowired private Inventory inventory;
+    @Autowired private StockKeeper stockKeeper;
+    @Autowired private ManualAdjustments manualAdjustments;
+    @Autowired private OrderRepository orders;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = catalog.save(new Product("Reconciled " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(10)));
+
+        stockKeeper.adjust(product.getId(), product.from(5));
+        manualAdjustments.save(new ManualAdjustment(product.getId(), product.from(5)));
+        for (int i = 1; i <= 3; i++) {
+            Order order = new Order();
+            order.addItem(product, product.from(i));
+            order.complete();
+            orders.save(order);
+        }
+    }
+
+    @Test
+    void reconcileConsistentStock_shouldNotReportDrift() {
+        assertEquals(product.from(9), stockKeeper.getStock(List.of(product.getId())).get(product.getId()));
+
+        DriftReport report = reconciler.reconcile();
+
+        assertTrue(report.getItemCount() > 0);
+        assertTrue(findDrift(report).isEmpty(), report.toString());
+    }
+
+    @Test
+    void reconcileTamperedStock_shouldReportDrift() {
+        inventory.increase(product.getId(), product.from(2));
+
+        DriftReport report = reconciler.reconcile();
+        StockDrift drift = findDrift(report).orElseThrow();
+
+        assertNotNull(report.getRecheckedAt());
+        assertEquals(0, BigDecimal.valueOf(9).compareTo(drift.getExpected()));
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(drift.getActual()));
+        assertEquals(0, BigDecimal.valueOf(2).compareTo(drift.getDrift()));
+    }
+
+    @Test
+    void reconcileTransientDrift_shouldNotReportDrift() {
+        StockKeeper staleStockKeeper = mock(StockKeeper.class);
+        when(staleStockKeeper.getStock(anyCollection()))
+            .thenAnswer(invocation -> {
+                Map<Product.Id, Quantity> stock = new HashMap<>(stockKeeper.getStock(invocation.getArgument(0)));
+                stock.computeIfPresent(product.getId(), (id, quantity) -> product.from(8));
+                return stock;
+            })
+            .thenAnswer(invocation -> stockKeeper.getStock(invocation.getArgument(0)));
+        StockReconciler reconciler = new StockReconciler(inventory, manualAdjustments, orders, staleStockKeeper, 1, 1);
+
+        try {
+            DriftReport report = reconciler.reconcile();
+
+            assertNotNull(report.getRecheckedAt());
+            assertTrue(findDrift(report).isEmpty(), report.toString());
+        } finally {
+            reconciler.shutdown();
+        }
+    }
+
+    private Optional<StockDrift> findDrift(DriftReport report) {
+        return report.getDrifts().stream()
+            .filter(drift -> product.getId().equals(drift.getProductId()))
+            .findFirst();
+    }
+}
@@ -0,0 +1,176 @@
+package de.team7.swt.inventory.application;
+
+import de.team7.swt.checkout.model.Cart;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.ReservationFailure;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static de.team7.swt.domain.catalog.Flavours.createCookie;
+import static de.team7.swt.domain.catalog.Types.createLager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Vincent Nadoll
+ */
+class StockReservationsTest {
+
+    private StockKeeper stockKeeper;
+    private StockReservations reservations;
+
+    private Product lager;
+    private Product cookie;
+
+    @BeforeEach
+    void setUp() {
+        stockKeeper = mock(StockKeeper.class);
+        reservations = new StockReservations(stockKeeper, Duration.ofMinutes(30));
+
+        lager = createLager();
+        cookie = createCookie();
+        when(stockKeeper.getStock(anyCollection())).thenReturn(Map.of(lager.getId(), lager.from(10)));
+    }
+
+    @Test
+    void reserve_shouldHoldBackQuantityFromOtherCarts() {
+        Cart.Id first = new Cart.Id();
+        Cart.Id second = new Cart.Id();
+
+        assertTrue(reservations.reserve(first, lager.getId(), lager.from(6)));
+        assertEquals(Optional.of(lager.from(4)), reservations.getAvailableToPromise(lager.getId()));
+        assertFalse(reservations.reserve(second, lager.getId(), lager.from(5)));
+        assertTrue(reservations.reserve(second, lager.getId(), lager.from(4)));
+        assertEquals(Optional.of(lager.from(0)), reservations.getAvailableToPromise(lager.getId()));
+    }
+
+    @Test
+    void reserveAgain_shouldReplaceCartsHold() {
+        Cart.Id cartId = new Cart.Id();
+
+        assertTrue(reservations.reserve(cartId, lager.getId(), lager.from(6)));
+        assertTrue(reservations.reserve(cartId, lager.getId(), lager.from(10)));
+        assertTrue(reservations.reserve(cartId, lager.getId(), lager.from(2)));
+        assertEquals(Optional.of(lager.from(8)), reservations.getAvailableToPromise(lager.getId()));
+    }
+
+    @Test
+    void reserveUnstockedProduct_shouldNotHoldBack() {
+        assertTrue(reservations.reserve(new Cart.Id(), cookie.getId(), cookie.from(100)));
+        assertEquals(Optional.empty(), reservations.getAvailableToPromise(cookie.getId()));
+    }
+
+    @Test
+    void release_shouldReturnQuantity() {
+        Cart.Id cartId = new Cart.Id();
+        reservations.reserve(cartId, lager.getId(), lager.from(6));
+
+        reservations.release(cartId, lager.getId());
+        assertEquals(Optional.of(lager.from(10)), reservations.getAvailableToPromise(lager.getId()));
+
+        reservations.reserve(cartId, lager.getId(), lager.from(6));
+        reservations.release(cartId);
+        assertEquals(Optional.of(lager.from(10)), reservations.getAvailableToPromise(lager.getId()));
+    }
+
+    @Test
+    void expire_shouldReleaseElapsedHolds() {
+        reservations = new StockReservations(stockKeeper, Duration.ZERO);
+        Cart.Id cartId = new Cart.Id();
+        reservations.reserve(cartId, lager.getId(), lager.from(6));
+
+        reservations.expire();
+
+        assertEquals(Optional.of(lager.from(10)), reservations.getAvailableToPromise(lager.getId()));
+        assertTrue(reservations.reserve(new Cart.Id(), lager.getId(), lager.from(10)));
+    }
+
+    @Test
+    void cartAddingUnavailableQuantity_shouldThrowReservationFailure() {
+        Cart cart = new Cart(reservations);
+        cart.add(lager, lager.from(8));
+
+        assertThrows(ReservationFailure.class, () -> cart.add(lager, lager.from(3)));
+        assertEquals(lager.from(8), cart.stream().findFirst().orElseThrow().getQuantity());
+
+        cart.clear();
+        assertEquals(Optional.of(lager.from(10)), reservations.getAvailableToPromise(lager.getId()));
+    }
+
+    @Test
+    void consume_shouldNotTakeStockHeldForOtherCarts() {
+        when(stockKeeper.decrease(lager.getId(), lager.from(4))).thenReturn(true);
+        reservations.reserve(new Cart.Id(), lager.getId(), lager.from(6));
+
+        assertFalse(reservations.consume(null, lager.getId(), lager.from(5)));
+        assertTrue(reservations.consume(null, lager.getId(), lager.from(4)));
+        verify(stockKeeper, never()).decrease(lager.getId(), lager.from(5));
+    }
+
+    @Test
+    void consume_shouldConsumeCartsOwnHold() {
+        when(stockKeeper.decrease(lager.getId(), lager.from(6))).thenReturn(true);
+        Cart.Id cartId = new Cart.Id();
+        reservations.reserve(cartId, lager.getId(), lager.from(6));
+        reservations.reserve(new Cart.Id(), lager.getId(), lager.from(4));
+
+        assertTrue(reservations.consume(cartId, lager.getId(), lager.from(6)));
+        assertEquals(Optional.of(lager.from(6)), reservations.getAvailableToPromise(lager.getId()));
+    }
+
+    @Test
+    void cartCheckingOut_shouldHandReservationsOverToOrder() {
+        when(stockKeeper.decrease(lager.getId(), lager.from(6))).thenReturn(true);
+        Cart cart = new Cart(reservations);
+        cart.add(lager, lager.from(6));
+        Order order = new Order();
+        cart.addItemsTo(order);
+
+        cart.checkOut();
+        assertEquals(Optional.of(lager.from(4)), reservations.getAvailableToPromise(lager.getId()));
+        assertTrue(reservations.reserve(cart.getId(), lager.getId(), lager.from(4)));
+        assertTrue(reservations.consume(order.getCartId().orElseThrow(), lager.getId(), lager.from(6)));
+        reservations.releaseAfterCommit(order.getCartId().orElseThrow());
+        assertEquals(Optional.of(lager.from(6)), reservations.getAvailableToPromise(lager.getId()));
+    }
+
+    @Test
+    void cartCheckingOutGreaterAmount_shouldNotReserveAgain() {
+        Cart cart = new Cart(reservations);
+        cart.add(lager, lager.from(2));
+        reservations.reserve(new Cart.Id(), lager.getId(), lager.from(8));
+        Order order = new Order();
+
+        cart.addItemsTo(order, 6);
+
+        assertEquals(lager.from(6), order.stream().findFirst().orElseThrow().getQuantity());
+        assertEquals(Optional.of(lager.from(0)), reservations.getAvailableToPromise(lager.getId()));
+    }
+
+    @Test
+    void renew_shouldKeepHoldsFromExpiring() throws InterruptedException {
+        reservations = new StockReservations(stockKeeper, Duration.ofSeconds(1));
+        Cart.Id cartId = new Cart.Id();
+        reservations.reserve(cartId, lager.getId(), lager.from(6));
+
+        Thread.sleep(600);
+        reservations.renew(cartId);
+        Thread.sleep(600);
+        reservations.expire();
+
+        assertEquals(Optional.of(lager.from(4)), reservations.getAvailableToPromise(lager.getId()));
+    }
+}
@@ -0,0 +1,94 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.infrastructure.retry.ConcurrencyRetry;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import javax.persistence.EntityManager;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark comparing the throughput of many concurrent checkouts of a single product using the
+ * {@link DatabaseStockKeeper} and the {@link ShardedStockKeeper}. Each checkout decreases the stock within a
+ * transaction that holds its row lock for a short while, like persisting the order does. This class isn't part of the
+ * regular test run; execute it with {@code mvn test -Dtest=ShardedStockKeeperBenchmark}.
+ *
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+class ShardedStockKeeperBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int CHECKOUTS = 4_000;
+    private static final int SHARDS = 16;
+    private static final long TRANSACTION_WORK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    // @formatter:off
+    @Autowired private Inventory inventory;
+    @Autowired private StockShards shards;
+    @Autowired private EntityManager entityManager;
+    @Autowired private Catalog<Product> catalog;
+    @Autowired private ConcurrencyRetry retry;
+    @Autowired private PlatformTransactionManager transactionManager;
+    // @formatter:on
+
+    @Test
+    void checkoutsOfSingleProduct_shouldScaleWithShards() throws Exception {
+        measure("database", new DatabaseStockKeeper(inventory, retry));
+        ShardedStockKeeper shardedStockKeeper = new ShardedStockKeeper(inventory, shards, entityManager,
+            transactionManager, SHARDS);
+        measure("sharded", shardedStockKeeper);
+
+        double database = measure("database", new DatabaseStockKeeper(inventory, retry));
+        double sharded = measure("sharded", shardedStockKeeper);
+
+        System.out.printf("Single product checkout throughput: database %.0f/s, sharded (%d shards) %.0f/s%n",
+            database, SHARDS, sharded);
+    }
+
+    private double measure(String name, StockKeeper stockKeeper) throws Exception {
+        Product product = catalog.save(new Product(name + " " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(CHECKOUTS)));
+        stockKeeper.getStock(Set.of(product.getId()));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>(CHECKOUTS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            futures.add(executor.submit(() -> retry.execute("benchmark", () -> {
+                transactionTemplate.executeWithoutResult(status -> {
+                    assertTrue(stockKeeper.decrease(product.getId(), product.from(1)));
+                    LockSupport.parkNanos(TRANSACTION_WORK_NANOS);
+                });
+                return null;
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        assertEquals(product.from(0), stockKeeper.getStock(Set.of(product.getId())).get(product.getId()));
+        return CHECKOUTS / (elapsed / 1e9);
+    }
+}
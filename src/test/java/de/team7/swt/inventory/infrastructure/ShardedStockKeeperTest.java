@@ -0,0 +1,117 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.StockShard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+class ShardedStockKeeperTest {
+
+    private static final int SHARDS = 4;
+
+    // @formatter:off
+    @Autowired private Inventory inventory;
+    @Autowired private StockShards shards;
+    @Autowired private EntityManager entityManager;
+    @Autowired private Catalog<Product> catalog;
+    @Autowired private PlatformTransactionManager transactionManager;
+    // @formatter:on
+
+    private ShardedStockKeeper stockKeeper;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        stockKeeper = new ShardedStockKeeper(inventory, shards, entityManager, transactionManager, SHARDS);
+
+        product = catalog.save(new Product("Sharded " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(10)));
+    }
+
+    @Test
+    void readingStock_shouldSplitItemAcrossShards() {
+        assertEquals(product.from(10), getStock());
+
+        List<StockShard> productShards = shards.findByProductIdIn(Set.of(product.getId())).toList();
+        assertEquals(SHARDS, productShards.size());
+        assertEquals(Set.of(product.from(2), product.from(4)), productShards.stream()
+            .map(StockShard::getQuantity)
+            .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void decreaseExceedingEachShard_shouldTakeAcrossShards() {
+        getStock();
+
+        assertTrue(stockKeeper.decrease(product.getId(), product.from(7)));
+        assertEquals(product.from(3), getStock());
+        assertFalse(stockKeeper.decrease(product.getId(), product.from(4)));
+        assertTrue(stockKeeper.decrease(product.getId(), product.from(3)));
+        assertEquals(product.from(0), getStock());
+    }
+
+    @Test
+    void decreaseAcrossShardsLoadedEarlier_shouldTakeFromCurrentShards() {
+        getStock();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals(product.from(10), getStock());
+            assertTrue(stockKeeper.decrease(product.getId(), product.from(2)));
+            assertTrue(stockKeeper.decrease(product.getId(), product.from(7)));
+        });
+
+        assertEquals(product.from(1), getStock());
+    }
+
+    @Test
+    void adjust_shouldSpreadIncreasesAndRejectNegativeStock() {
+        assertTrue(stockKeeper.adjust(product.getId(), product.from(6)));
+        assertEquals(product.from(16), getStock());
+
+        assertFalse(stockKeeper.adjust(product.getId(), product.from(-17)));
+        assertTrue(stockKeeper.adjust(product.getId(), product.from(-16)));
+        assertEquals(product.from(0), getStock());
+    }
+
+    @Test
+    void adjustUnknownProduct_shouldThrowException() {
+        Product unknown = catalog.save(new Product("Unstocked " + System.nanoTime(), ZERO_EURO));
+
+        assertThrows(IllegalStateException.class, () -> stockKeeper.adjust(unknown.getId(), unknown.from(1)));
+    }
+
+    @Test
+    void synchronize_shouldWriteSumOfShardsToInventory() {
+        stockKeeper.decrease(product.getId(), product.from(3));
+
+        stockKeeper.synchronize();
+
+        assertEquals(product.from(7), inventory.findByProductId(product.getId()).orElseThrow().getQuantity());
+    }
+
+    private Quantity getStock() {
+        return stockKeeper.getStock(Set.of(product.getId())).get(product.getId());
+    }
+}
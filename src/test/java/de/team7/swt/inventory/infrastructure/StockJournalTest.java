@@ -0,0 +1,147 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.MetricMismatchException;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.StockMovement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static de.team7.swt.domain.quantity.Metric.LITER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+class StockJournalTest {
+
+    // @formatter:off
+    @Autowired private Inventory inventory;
+    @Autowired private StockMovements movements;
+    @Autowired private Catalog<Product> catalog;
+    @Autowired private PlatformTransactionManager transactionManager;
+    // @formatter:on
+
+    private StockJournal journal;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        journal = new StockJournal(inventory, movements, transactionManager);
+
+        product = catalog.save(new Product("Journaled " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(10)));
+    }
+
+    @Test
+    void decrease_shouldAppendMovementsWithoutUpdatingItem() {
+        assertTrue(journal.decrease(product.getId(), product.from(4)));
+        assertTrue(journal.decrease(product.getId(), product.from(6)));
+        assertFalse(journal.decrease(product.getId(), product.from(1)));
+
+        assertEquals(product.from(0), getStock());
+        assertEquals(product.from(10), getSnapshot());
+        assertEquals(Set.of(product.from(-4), product.from(-6)), getMovements().stream()
+            .map(StockMovement::getQuantity)
+            .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void adjust_shouldRecordAdjustmentsAndRejectNegativeStock() {
+        assertTrue(journal.adjust(product.getId(), product.from(5)));
+        assertFalse(journal.adjust(product.getId(), product.from(-16)));
+        assertTrue(journal.adjust(product.getId(), product.from(-15)));
+
+        assertEquals(product.from(0), getStock());
+        assertEquals(Set.of(StockMovement.Reason.ADJUSTMENT), getMovements().stream()
+            .map(StockMovement::getReason)
+            .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void adjustWithMismatchingMetric_shouldThrowException() {
+        assertThrows(MetricMismatchException.class, () -> journal.adjust(product.getId(), Quantity.of(1, LITER)));
+    }
+
+    @Test
+    void compact_shouldWriteSnapshotAndKeepMovements() {
+        journal.decrease(product.getId(), product.from(3));
+        journal.adjust(product.getId(), product.from(1));
+
+        journal.compact();
+
+        assertEquals(product.from(8), getSnapshot());
+        assertEquals(product.from(8), getStock());
+        assertEquals(2, getMovements().size());
+        assertTrue(getMovements().stream().allMatch(StockMovement::isCompacted));
+    }
+
+    @Test
+    void decreaseWithinRolledBackTransaction_shouldBeDiscarded() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(journal.decrease(product.getId(), product.from(4)));
+            assertEquals(product.from(6), getStock());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(product.from(10), getStock());
+        assertTrue(getMovements().isEmpty());
+    }
+
+    @Test
+    void concurrentDecreasesWithinTransactions_shouldNotOversell() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> decreases = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                decreases.add(executor.submit(() -> transactionTemplate.execute(status ->
+                    journal.decrease(product.getId(), product.from(2)))));
+            }
+
+            long decreased = 0;
+            for (Future<Boolean> decrease : decreases) {
+                decreased += decrease.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(5, decreased);
+            assertEquals(product.from(0), getStock());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Quantity getStock() {
+        return journal.getStock(Set.of(product.getId())).get(product.getId());
+    }
+
+    private Quantity getSnapshot() {
+        return inventory.findQuantityByProductId(product.getId()).orElseThrow();
+    }
+
+    private List<StockMovement> getMovements() {
+        return movements.findAll(Sort.by("recordedAt")).stream()
+            .filter(movement -> product.getId().equals(movement.getProductId()))
+            .collect(Collectors.toList());
+    }
+}
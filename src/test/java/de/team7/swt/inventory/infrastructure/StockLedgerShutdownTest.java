@@ -0,0 +1,66 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.Application;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.UUID;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+class StockLedgerShutdownTest {
+
+    @Test
+    void closingContext_shouldFlushPendingChanges() throws Exception {
+        String url = "jdbc:h2:mem:stock-ledger-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        Product.Id productId;
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class).run(
+            "--spring.datasource.url=" + url,
+            "--spring.jpa.hibernate.ddl-auto=update",
+            "--server.port=0",
+            "--dyob.inventory.stock-keeping=ledger",
+            "--dyob.inventory.ledger.flush-interval=600000")) {
+            @SuppressWarnings("unchecked")
+            Catalog<Product> catalog = context.getBean(Catalog.class);
+            Inventory inventory = context.getBean(Inventory.class);
+            StockKeeper stockKeeper = context.getBean(StockKeeper.class);
+
+            Product product = catalog.save(new Product("Ledger " + System.nanoTime(), ZERO_EURO));
+            inventory.save(new InventoryItem(product, product.from(10)));
+            productId = product.getId();
+
+            assertTrue(stockKeeper.decrease(productId, product.from(3)));
+            assertTrue(stockKeeper instanceof StockLedger);
+            assertEquals(0, BigDecimal.TEN.compareTo(persistedAmount(url, productId)));
+        }
+
+        assertEquals(0, BigDecimal.valueOf(7).compareTo(persistedAmount(url, productId)));
+    }
+
+    private static BigDecimal persistedAmount(String url, Product.Id productId) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement statement = connection.prepareStatement(
+                 "select quantity_amount from inventory_item where product_id = ?")) {
+            statement.setObject(1, UUID.fromString(productId.toString()));
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getBigDecimal(1);
+            }
+        }
+    }
+}
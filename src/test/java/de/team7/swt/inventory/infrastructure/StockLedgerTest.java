@@ -0,0 +1,154 @@
+package de.team7.swt.inventory.infrastructure;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.quantity.Quantity;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.team7.swt.domain.catalog.Flavours.createCookie;
+import static de.team7.swt.domain.catalog.Ingredients.createClove;
+import static de.team7.swt.domain.catalog.Types.createLager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Vincent Nadoll
+ */
+class StockLedgerTest {
+
+    private Inventory inventory;
+    private StockLedger ledger;
+
+    private Product lager;
+    private Product cookie;
+
+    @BeforeEach
+    void setUp() {
+        inventory = mock(Inventory.class);
+        ledger = new StockLedger(inventory, mock(PlatformTransactionManager.class));
+
+        lager = createLager();
+        cookie = createCookie();
+        when(inventory.findAll()).thenReturn(List.of(new InventoryItem(lager, lager.from(10))));
+        when(inventory.findByProductId(cookie.getId()))
+            .thenReturn(Optional.of(new InventoryItem(cookie, cookie.from(5))));
+
+        ledger.seed();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void seededStock_shouldBeServedFromMemory() {
+        Map<Product.Id, Quantity> stock = ledger.getStock(List.of(lager.getId()));
+
+        assertEquals(Map.of(lager.getId(), lager.from(10)), stock);
+        verify(inventory, never()).findByProductIdIn(anyCollection());
+    }
+
+    @Test
+    void untrackedProduct_shouldBeLoadedLazily() {
+        assertTrue(ledger.decrease(cookie.getId(), cookie.from(2)));
+        assertTrue(ledger.decrease(cookie.getId(), cookie.from(2)));
+
+        assertEquals(Map.of(cookie.getId(), cookie.from(1)), ledger.getStock(List.of(cookie.getId())));
+        verify(inventory, times(1)).findByProductId(cookie.getId());
+    }
+
+    @Test
+    void decreaseExceedingStock_shouldBeRejected() {
+        assertFalse(ledger.decrease(lager.getId(), lager.from(11)));
+        assertTrue(ledger.decrease(lager.getId(), lager.from(10)));
+        assertFalse(ledger.decrease(lager.getId(), lager.from(1)));
+    }
+
+    @Test
+    void adjustBelowZero_shouldBeRejected() {
+        assertFalse(ledger.adjust(lager.getId(), lager.from(-11)));
+        assertTrue(ledger.adjust(lager.getId(), lager.from(-10)));
+        assertTrue(ledger.adjust(lager.getId(), lager.from(3)));
+
+        assertEquals(Map.of(lager.getId(), lager.from(3)), ledger.getStock(List.of(lager.getId())));
+    }
+
+    @Test
+    void adjustUnknownProduct_shouldThrowException() {
+        Product unknown = createClove();
+
+        assertThrows(IllegalStateException.class, () -> ledger.adjust(unknown.getId(), unknown.from(1)));
+    }
+
+    @Test
+    void concurrentDecreases_shouldNeverOversell() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(executor.submit(() -> {
+                if (ledger.decrease(lager.getId(), lager.from(1))) {
+                    succeeded.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(10, succeeded.get());
+        assertEquals(Map.of(lager.getId(), lager.from(0)), ledger.getStock(List.of(lager.getId())));
+    }
+
+    @Test
+    void rolledBackDecrease_shouldBeCompensated() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(ledger.decrease(lager.getId(), lager.from(4)));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(Map.of(lager.getId(), lager.from(10)), ledger.getStock(List.of(lager.getId())));
+    }
+
+    @Test
+    void flush_shouldWritePendingChangesBehindOnce() {
+        ledger.decrease(lager.getId(), lager.from(4));
+        ledger.adjust(lager.getId(), lager.from(1));
+
+        ledger.flush();
+        ledger.flush();
+
+        verify(inventory, times(1)).increase(lager.getId(), lager.from(-3));
+        verify(inventory, times(1)).increase(any(Product.Id.class), any(Quantity.class));
+    }
+}
@@ -0,0 +1,157 @@
+package de.team7.swt.inventory.presentation;
+
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.application.LowStockIndex;
+import de.team7.swt.inventory.application.StockOverview;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.infrastructure.ManualAdjustments;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.inventory.model.StockRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "MANAGER")
+class InventoryControllerTest {
+
+    // @formatter:off
+    @Autowired private MockMvc mockMvc;
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private String prefix;
+    private List<InventoryItem> items;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "Stocked " + System.nanoTime();
+        items = List.of(createItem("C", 3, "Pilsner"), createItem("A", 1, "Pilsner"), createItem("B", 2, "Stout"));
+    }
+
+    private InventoryItem createItem(String name, int amount, String category) {
+        Product product = new Product(prefix + " " + name, ZERO_EURO);
+        product.add(category);
+        product = catalog.save(product);
+        return inventory.save(new InventoryItem(product, product.from(amount)));
+    }
+
+    @Test
+    void stock_shouldListPageOfItemsFilteredByName() throws Exception {
+        Page<StockRow> first = getPage("/stock?name={name}&size=2", prefix.toLowerCase());
+        assertEquals(3, first.getTotalElements());
+        assertEquals(List.of(prefix + " A", prefix + " B"), getNames(first));
+
+        Page<StockRow> second = getPage("/stock?name={name}&size=2&page=1", prefix);
+        assertEquals(List.of(prefix + " C"), getNames(second));
+    }
+
+    @Test
+    void stock_shouldFilterByCategoryAndSortByQuantity() throws Exception {
+        Page<StockRow> page = getPage("/stock?name={name}&category=Pilsner&sort=quantity&direction=desc", prefix);
+        assertEquals(List.of(prefix + " C", prefix + " A"), getNames(page));
+    }
+
+    @Test
+    void editItem_shouldEvictCachedPagesAndKeepFilters() throws Exception {
+        assertFalse(getPage("/stock?name={name}", prefix).getContent().get(0).isLow());
+        InventoryItem item = items.get(1);
+
+        mockMvc.perform(post("/stock?name={name}&size=2", prefix)
+                .param("itemId", item.getId().toString())
+                .param("itemQuantityAmountOffset", "1")
+                .param("itemReorderThreshold", "2")
+                .with(csrf()))
+            .andExpect(status().is3xxRedirection())
+            .andExpect(redirectedUrl(String.format("/stock?name=%s&size=2&item_id=%s&success",
+                prefix.replace(" ", "%20"), item.getId())));
+
+        StockRow row = getPage("/stock?name={name}", prefix).getContent().get(0);
+        assertEquals(item.getProduct().from(2), row.getQuantity());
+        assertEquals(item.getProduct().from(2), row.getReorderThreshold());
+        assertTrue(row.isLow());
+    }
+
+    @Test
+    void editItemWithInsufficientStock_shouldNotUpdateReorderThreshold() throws Exception {
+        InventoryItem item = items.get(1);
+
+        mockMvc.perform(post("/stock?name={name}", prefix)
+                .param("itemId", item.getId().toString())
+                .param("itemQuantityAmountOffset", "-2")
+                .param("itemReorderThreshold", "5")
+                .with(csrf()))
+            .andExpect(status().is3xxRedirection())
+            .andExpect(redirectedUrl(String.format("/stock?name=%s&item_id=%s&insufficient_stock",
+                prefix.replace(" ", "%20"), item.getId())));
+
+        StockRow row = getPage("/stock?name={name}", prefix).getContent().get(0);
+        assertEquals(item.getProduct().from(1), row.getQuantity());
+        assertEquals(item.getProduct().from(0), row.getReorderThreshold());
+    }
+
+    @Test
+    void stockKeptInMemory_shouldNotSortByQuantity() {
+        StockOverview stockOverview = mock(StockOverview.class);
+        when(stockOverview.getPage(isNull(), isNull(), any())).thenReturn(new PageImpl<>(List.of()));
+        InventoryController controller = new InventoryController(inventory, mock(StockKeeper.class),
+            mock(LowStockIndex.class), stockOverview, mock(ManualAdjustments.class), "ledger");
+        ExtendedModelMap model = new ExtendedModelMap();
+
+        controller.stock(null, null, null, 0, 10, "quantity", "desc", model);
+
+        verify(stockOverview).getPage(null, null,
+            PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "product.name").and(Sort.by("id"))));
+        assertEquals("name", ((Map<?, ?>) model.getAttribute("filter")).get("sort"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Page<StockRow> getPage(String uriTemplate, Object... uriVariables) throws Exception {
+        MvcResult result = mockMvc.perform(get(uriTemplate, uriVariables))
+            .andExpect(status().isOk())
+            .andReturn();
+        return (Page<StockRow>) result.getModelAndView().getModel().get("inventory");
+    }
+
+    private static List<String> getNames(Page<StockRow> page) {
+        return page.stream()
+            .map(StockRow::getProductName)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,157 @@
+package de.team7.swt.inventory.presentation;
+
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.application.LowStockIndex;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.restdocs.RestDocumentationContextProvider;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.headers.HeaderDocumentation.responseHeaders;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ExtendWith({RestDocumentationExtension.class, SpringExtension.class})
+class LowStockControllerTest {
+
+    private static final URI BASE_URI = URI.create("/api/v1/inventory/low-stock");
+    private static final String STATUS = "Status";
+
+    private MockMvc mockMvc;
+
+    // @formatter:off
+    @Autowired private LowStockIndex index;
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product product;
+
+    @BeforeEach
+    void setUp(WebApplicationContext context, RestDocumentationContextProvider restDocumentation) {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .apply(documentationConfiguration(restDocumentation)
+                .operationPreprocessors()
+                .withRequestDefaults(prettyPrint())
+                .withResponseDefaults(prettyPrint()))
+            .apply(springSecurity())
+            .build();
+
+        product = catalog.save(new Product("Running low " + System.nanoTime(), ZERO_EURO));
+        InventoryItem item = new InventoryItem(product, product.from(5));
+        item.setReorderThreshold(product.from(2));
+        inventory.save(item);
+        index.adjust(product.getId(), product.from(0));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void lowStock_shouldListProductsBelowThreshold() throws Exception {
+        mockMvc.perform(get(BASE_URI))
+            .andExpect(jsonPath("$._embedded[*].product_id", not(hasItem(product.getId().toString()))));
+
+        index.adjust(product.getId(), product.from(-4));
+
+        mockMvc.perform(get(BASE_URI + "?limit={limit}", 100))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+            .andExpect(jsonPath("$._embedded[*].product_id", hasItem(product.getId().toString())))
+            .andDo(document(
+                "inventory/low-stock",
+                requestParameters(
+                    parameterWithName("limit").description("The maximum number of products, 20 by default").optional()
+                ),
+                responseHeaders(
+                    headerWithName(CONTENT_TYPE).description(APPLICATION_JSON),
+                    headerWithName(STATUS).description(OK).optional()
+                ),
+                responseFields(
+                    fieldWithPath("_embedded[]").description("Collection of stock levels, lowest headroom first"),
+                    fieldWithPath("_embedded[].product_id").description("The product's ID"),
+                    fieldWithPath("_embedded[].product_name").description("The product's name"),
+                    fieldWithPath("_embedded[].quantity.amount").description("The amount of products in stock"),
+                    fieldWithPath("_embedded[].quantity.metric").description("The metric of the amount"),
+                    fieldWithPath("_embedded[].reorder_threshold.amount").description("The amount at which the product is considered low on stock"),
+                    fieldWithPath("_embedded[].reorder_threshold.metric").description("The metric of the amount")
+                )
+            ));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void lowStockWithInvalidLimit_shouldBeRejected() throws Exception {
+        mockMvc.perform(get(BASE_URI + "?limit={limit}", 0))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void events_shouldStreamThresholdCrossings() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URI + "/events").accept(TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        index.adjust(product.getId(), product.from(-3));
+        index.adjust(product.getId(), product.from(1));
+
+        String replenished = "event:replenished\ndata:{\"product_id\":\"" + product.getId();
+        String stream = awaitStream(result, replenished);
+        assertTrue(stream.contains("event:low-stock\ndata:{\"product_id\":\"" + product.getId()), stream);
+        assertTrue(stream.indexOf("event:low-stock") < stream.indexOf(replenished), stream);
+    }
+
+    @Test
+    void lowStockWithoutManager_shouldBeRejected() throws Exception {
+        mockMvc.perform(get(BASE_URI))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    private static String awaitStream(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        String stream = result.getResponse().getContentAsString();
+        while (!stream.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            stream = result.getResponse().getContentAsString();
+        }
+        return stream;
+    }
+}
@@ -0,0 +1,110 @@
+package de.team7.swt.inventory.presentation;
+
+import com.jayway.jsonpath.JsonPath;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.restdocs.RestDocumentationContextProvider;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.post;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessResponse;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+@ExtendWith({RestDocumentationExtension.class, SpringExtension.class})
+class ReconciliationControllerTest {
+
+    private static final URI BASE_URI = URI.create("/api/v1/inventory/reconciliation");
+
+    private MockMvc mockMvc;
+
+    // @formatter:off
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product product;
+
+    @BeforeEach
+    void setUp(WebApplicationContext context, RestDocumentationContextProvider restDocumentation) {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .apply(documentationConfiguration(restDocumentation))
+            .apply(springSecurity())
+            .build();
+
+        product = catalog.save(new Product("Drifted " + System.nanoTime(), ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(10)));
+        inventory.increase(product.getId(), product.from(-1));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void reconcile_shouldReportDriftedItems() throws Exception {
+        String report = mockMvc.perform(post(BASE_URI))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+            .andDo(document(
+                "inventory/reconciliation",
+                preprocessResponse(prettyPrint()),
+                responseFields(
+                    fieldWithPath("reconciled_at").description("The instant the stock has been reconciled at, completed orders created and manual adjustments recorded before are included"),
+                    fieldWithPath("rechecked_at").description("The instant the drifted items have been read again at, completed orders created and manual adjustments recorded before are included").optional(),
+                    fieldWithPath("item_count").description("The number of reconciled inventory items"),
+                    fieldWithPath("drifts[]").description("The items whose actual stock differs from the expected one"),
+                    fieldWithPath("drifts[].product_id").description("The product's ID"),
+                    fieldWithPath("drifts[].product_name").description("The product's name"),
+                    fieldWithPath("drifts[].expected").description("The initial stock plus manual adjustments minus completed orders"),
+                    fieldWithPath("drifts[].actual").description("The actual stock"),
+                    fieldWithPath("drifts[].drift").description("The difference between the actual and the expected stock")
+                )
+            ))
+            .andReturn().getResponse().getContentAsString();
+
+        List<Map<String, Object>> drifts = JsonPath.read(report, "$.drifts[?(@.product_id == '" + product.getId() + "')]");
+        assertEquals(1, drifts.size(), report);
+        assertAmount(10, drifts.get(0).get("expected"));
+        assertAmount(9, drifts.get(0).get("actual"));
+        assertAmount(-1, drifts.get(0).get("drift"));
+    }
+
+    @Test
+    void reconcileWithoutManager_shouldBeRejected() throws Exception {
+        mockMvc.perform(post(BASE_URI))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    private static void assertAmount(long expected, Object actual) {
+        assertEquals(0, BigDecimal.valueOf(expected).compareTo(new BigDecimal(String.valueOf(actual))),
+            String.valueOf(actual));
+    }
+}
@@ -0,0 +1,135 @@
+package de.team7.swt.inventory.presentation;
+
+import com.jayway.jsonpath.JsonPath;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.restdocs.RestDocumentationContextProvider;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.net.URI;
+import java.util.List;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
+import static org.springframework.restdocs.headers.HeaderDocumentation.responseHeaders;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+@ExtendWith({RestDocumentationExtension.class, SpringExtension.class})
+class StockExportControllerTest {
+
+    private static final URI BASE_URI = URI.create("/api/v1/inventory/export");
+    private static final String STATUS = "Status";
+
+    private MockMvc mockMvc;
+
+    // @formatter:off
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product product;
+
+    @BeforeEach
+    void setUp(WebApplicationContext context, RestDocumentationContextProvider restDocumentation) {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .apply(documentationConfiguration(restDocumentation))
+            .apply(springSecurity())
+            .build();
+
+        product = catalog.save(new Product("Exported, \"quoted\" " + System.nanoTime(), ZERO_EURO));
+        InventoryItem item = new InventoryItem(product, product.from(7));
+        item.setReorderThreshold(product.from(2));
+        inventory.save(item);
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void export_shouldStreamStockOfAllItemsAsNdjson() throws Exception {
+        String ndjson = export(APPLICATION_NDJSON.toString(), APPLICATION_NDJSON.toString());
+
+        String line = List.of(ndjson.split("\\n")).stream()
+            .filter(candidate -> candidate.contains(product.getId().toString()))
+            .findFirst().orElseThrow();
+        assertEquals(product.getName(), JsonPath.read(line, "$.product_name"));
+        assertEquals(7.0, JsonPath.<Number>read(line, "$.quantity").doubleValue());
+        assertEquals(2.0, JsonPath.<Number>read(line, "$.reorder_threshold").doubleValue());
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void export_shouldStreamStockOfAllItemsAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URI).header(ACCEPT, "text/csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andDo(document(
+                "inventory/export",
+                requestHeaders(
+                    headerWithName(ACCEPT).description("text/csv or " + APPLICATION_NDJSON + ", the latter by default").optional()
+                ),
+                responseHeaders(
+                    headerWithName(CONTENT_TYPE).description("text/csv or " + APPLICATION_NDJSON),
+                    headerWithName(STATUS).description(OK).optional()
+                )
+            ))
+            .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = List.of(csv.split("\\n"));
+        assertEquals("item_id,product_id,product_name,price,currency,quantity,metric,reorder_threshold", lines.get(0));
+        String line = lines.stream()
+            .filter(candidate -> candidate.contains(product.getId().toString()))
+            .findFirst().orElseThrow();
+        assertTrue(line.contains("," + product.getId() + ",\"" + product.getName().replace("\"", "\"\"")
+            + "\",0,EUR,"), line);
+        assertTrue(line.matches(".*,7(\\.0+)?,UNIT,2(\\.0+)?"), line);
+    }
+
+    @Test
+    void exportWithoutManager_shouldBeRejected() throws Exception {
+        mockMvc.perform(get(BASE_URI))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    private String export(String accept, String contentType) throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URI).header(ACCEPT, accept))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(contentType))
+            .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,162 @@
+package de.team7.swt.inventory.presentation;
+
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.infrastructure.StockKeeper;
+import de.team7.swt.inventory.model.InventoryItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.restdocs.RestDocumentationContextProvider;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
+import static org.springframework.restdocs.headers.HeaderDocumentation.responseHeaders;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.post;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(properties = "dyob.inventory.import.batch-size=2")
+@ExtendWith({RestDocumentationExtension.class, SpringExtension.class})
+class StockImportControllerTest {
+
+    private static final URI BASE_URI = URI.create("/api/v1/inventory/adjustments");
+    private static final String STATUS = "Status";
+
+    private MockMvc mockMvc;
+
+    // @formatter:off
+    @Autowired private Inventory inventory;
+    @Autowired private StockKeeper stockKeeper;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product stout;
+    private Product pilsner;
+
+    @BeforeEach
+    void setUp(WebApplicationContext context, RestDocumentationContextProvider restDocumentation) {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .apply(documentationConfiguration(restDocumentation))
+            .apply(springSecurity())
+            .build();
+
+        long suffix = System.nanoTime();
+        stout = createProduct("Imported Stout " + suffix, 5);
+        pilsner = createProduct("Imported Pilsner " + suffix, 5);
+    }
+
+    private Product createProduct(String name, int amount) {
+        Product product = catalog.save(new Product(name, ZERO_EURO));
+        inventory.save(new InventoryItem(product, product.from(amount)));
+        return product;
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void csv_shouldAdjustStockAndReportEachRow() throws Exception {
+        String csv = String.join("\n",
+            "product,offset",
+            stout.getId() + ",10",
+            "\"" + pilsner.getName() + "\",-2",
+            "Unknown " + System.nanoTime() + ",1",
+            stout.getId() + ",-100",
+            pilsner.getName() + ",many");
+
+        String report = importAdjustments(csv, "text/csv")
+            .andDo(document(
+                "inventory/adjustments",
+                requestHeaders(
+                    headerWithName(CONTENT_TYPE).description("text/csv or " + APPLICATION_NDJSON)
+                ),
+                responseHeaders(
+                    headerWithName(CONTENT_TYPE).description(APPLICATION_NDJSON),
+                    headerWithName(STATUS).description(OK).optional()
+                )
+            ))
+            .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = List.of(report.split("\n"));
+        assertEquals(5, lines.size(), report);
+        assertEquals("{\"row\":2,\"product\":\"" + stout.getId() + "\",\"product_id\":\"" + stout.getId()
+            + "\",\"status\":\"ADJUSTED\"}", lines.get(0));
+        assertEquals("{\"row\":3,\"product\":\"" + pilsner.getName() + "\",\"product_id\":\"" + pilsner.getId()
+            + "\",\"status\":\"ADJUSTED\"}", lines.get(1));
+        assertStatus("UNKNOWN_PRODUCT", lines.get(2));
+        assertStatus("INSUFFICIENT_STOCK", lines.get(3));
+        assertStatus("INVALID", lines.get(4));
+
+        assertEquals(Map.of(stout.getId(), stout.from(15), pilsner.getId(), pilsner.from(3)),
+            stockKeeper.getStock(List.of(stout.getId(), pilsner.getId())));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void ndjson_shouldAdjustStockAndReportEachRow() throws Exception {
+        String ndjson = String.join("\n",
+            "{\"product\":\"" + pilsner.getName() + "\",\"offset\":2.0}",
+            "",
+            "{\"product\":\"" + stout.getId() + "\"}",
+            "not json");
+
+        String report = importAdjustments(ndjson, APPLICATION_NDJSON.toString())
+            .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = List.of(report.split("\n"));
+        assertEquals(3, lines.size(), report);
+        assertStatus("ADJUSTED", lines.get(0));
+        assertEquals("{\"row\":3,\"product\":\"" + stout.getId()
+            + "\",\"status\":\"INVALID\",\"message\":\"Offset must not be empty\"}", lines.get(1));
+        assertEquals("{\"row\":4,\"status\":\"INVALID\",\"message\":\"Malformed JSON\"}", lines.get(2));
+
+        assertEquals(Map.of(pilsner.getId(), pilsner.from(7)), stockKeeper.getStock(List.of(pilsner.getId())));
+    }
+
+    @Test
+    void importWithoutManager_shouldBeRejected() throws Exception {
+        mockMvc.perform(post(BASE_URI).contentType("text/csv").content(stout.getId() + ",1"))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    private ResultActions importAdjustments(String body, String contentType) throws Exception {
+        MvcResult result = mockMvc.perform(post(BASE_URI).contentType(contentType).content(body))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_NDJSON));
+    }
+
+    private static void assertStatus(String expected, String line) {
+        assertTrue(line.contains("\"status\":\"" + expected + "\""), line);
+    }
+}
@@ -0,0 +1,115 @@
+package de.team7.swt.reporting.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.checkout.model.OrderCompletionFailure;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.inventory.infrastructure.Inventory;
+import de.team7.swt.inventory.model.InventoryItem;
+import de.team7.swt.reporting.infrastructure.OrderRecords;
+import de.team7.swt.reporting.model.OrderRecord;
+import de.team7.swt.reporting.model.Revenue;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+
+import static de.team7.swt.domain.catalog.Currencies.EURO;
+import static de.team7.swt.domain.quantity.Metric.LITER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+class OrderHistoryProjectorTest {
+
+    // @formatter:off
+    @Autowired private OrderHistoryProjector projector;
+    @Autowired private OrderRecords records;
+    @Autowired private OrderRepository orders;
+    @Autowired private Inventory inventory;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product product;
+    private Instant start;
+
+    @BeforeEach
+    void setUp() {
+        product = catalog.save(new Product("Recorded " + System.nanoTime(), Money.of(1.25, EURO)));
+        inventory.save(new InventoryItem(product, product.from(5)));
+        start = Instant.now();
+    }
+
+    @Test
+    void completedOrder_shouldBeRecorded() {
+        Order order = complete(3);
+
+        OrderRecord record = getRecords().get(0);
+        assertEquals(order.getId(), record.getOrderId());
+        assertEquals(order.getCreatedAt(), record.getPlacedAt());
+        assertEquals(1, record.getLineItemCount());
+        assertEquals(375, record.getTotalMinor());
+        assertEquals("EUR", record.getCurrency());
+        assertEquals(List.of(product.getId().toString()), record.getProductIdList());
+    }
+
+    @Test
+    void completedOrderOfFractionalQuantity_shouldBeRecordedRounded() {
+        Product beer = catalog.save(new Product("Recorded " + System.nanoTime(), Money.of(1.25, EURO), LITER));
+        inventory.save(new InventoryItem(beer, beer.from(5)));
+        Order order = new Order();
+        order.addItem(beer, beer.from(0.333));
+        order.complete();
+        orders.save(order);
+
+        OrderRecord record = records.findPlacedBetween(start, Instant.now(), beer.getId(), Pageable.unpaged()).get(0);
+        assertEquals(42, record.getTotalMinor());
+    }
+
+    @Test
+    void failedOrder_shouldNotBeRecorded() {
+        complete(3);
+        assertThrows(OrderCompletionFailure.class, () -> complete(3));
+
+        assertEquals(1, getRecords().size());
+        assertEquals(List.of(new Revenue("EUR", 375, 1)), records.sumRevenueBetween(start, Instant.now()));
+    }
+
+    @Test
+    void rebuild_shouldReplayCompletedOrders() {
+        Order first = complete(1);
+        Order second = complete(2);
+        Order open = new Order();
+        open.addItem(product, product.from(1));
+        orders.save(open);
+
+        assertTrue(projector.rebuild() >= 2);
+
+        assertTrue(records.existsByOrderId(first.getId()));
+        assertTrue(records.existsByOrderId(second.getId()));
+        assertFalse(records.existsByOrderId(open.getId()));
+        assertEquals(List.of(new Revenue("EUR", 375, 2)), records.sumRevenueBetween(start, Instant.now()));
+    }
+
+    private Order complete(int amount) {
+        Order order = new Order();
+        order.addItem(product, product.from(amount));
+        order.complete();
+        return orders.save(order);
+    }
+
+    private List<OrderRecord> getRecords() {
+        return records.findPlacedBetween(start, Instant.now(), product.getId(), Pageable.unpaged());
+    }
+}
@@ -0,0 +1,88 @@
+package de.team7.swt.reporting.application;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.domain.web.ValidationException;
+import de.team7.swt.reporting.infrastructure.SalesCounts;
+import de.team7.swt.reporting.model.ProductSales;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+
+import static de.team7.swt.domain.catalog.Currencies.ZERO_EURO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(properties = {
+    "dyob.reporting.sales.top-k=2",
+    "dyob.reporting.sales.refresh-interval=3600000",
+    "dyob.reporting.sales.persist-interval=3600000"
+})
+class SalesCountersTest {
+
+    private static final Duration WINDOW = Duration.ofHours(1);
+
+    // @formatter:off
+    @Autowired private SalesCounters salesCounters;
+    @Autowired private SalesCounts counts;
+    @Autowired private OrderRepository orders;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product first;
+    private Product second;
+
+    @BeforeEach
+    void setUp() {
+        first = catalog.save(new Product("Best seller " + System.nanoTime(), ZERO_EURO));
+        second = catalog.save(new Product("Runner-up " + System.nanoTime(), ZERO_EURO));
+    }
+
+    @Test
+    void completedOrders_shouldBeCountedAsTopProducts() {
+        complete(first, 1_000_000);
+        complete(second, 500_000);
+        complete(first, 1);
+        salesCounters.refresh();
+
+        assertEquals(List.of(
+            ProductSales.of(first.getId(), first.getName(), 1_000_001),
+            ProductSales.of(second.getId(), second.getName(), 500_000)
+        ), salesCounters.getTopProducts(WINDOW, 2));
+        assertEquals(1, salesCounters.getTopProducts(WINDOW, 1).size());
+    }
+
+    @Test
+    void persist_shouldSnapshotCounters() {
+        complete(first, 1);
+
+        salesCounters.persist();
+
+        assertTrue(counts.findAll().stream().anyMatch(count -> first.getId().equals(count.getProductId())));
+    }
+
+    @Test
+    void unknownWindowOrExceedingLimit_shouldThrowException() {
+        salesCounters.refresh();
+
+        assertThrows(ValidationException.class, () -> salesCounters.getTopProducts(Duration.ofMinutes(7), 1));
+        assertThrows(ValidationException.class, () -> salesCounters.getTopProducts(WINDOW, 3));
+    }
+
+    private void complete(Product product, int amount) {
+        Order order = new Order();
+        order.addItem(product, product.from(amount));
+        order.complete();
+        orders.save(order);
+    }
+}
@@ -0,0 +1,68 @@
+package de.team7.swt.reporting.application;
+
+import de.team7.swt.domain.catalog.Product;
+import de.team7.swt.reporting.model.SalesCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Vincent Nadoll
+ */
+class SalesRingTest {
+
+    private static final Instant NOW = Instant.parse("2021-06-01T12:30:00Z");
+
+    private SalesRing ring;
+    private Product.Id productId;
+
+    @BeforeEach
+    void setUp() {
+        ring = new SalesRing(SalesCount.Granularity.MINUTE);
+        productId = new Product.Id(UUID.randomUUID());
+    }
+
+    @Test
+    void sum_shouldOnlyIncludeBucketsWithinWindow() {
+        ring.add(NOW, productId, 1);
+        ring.add(NOW.minusSeconds(60 * 10), productId, 2);
+        ring.add(NOW.minusSeconds(60 * 30), productId, 4);
+
+        assertEquals(Map.of(productId, 1d), ring.sum(NOW, Duration.ofMinutes(1)));
+        assertEquals(Map.of(productId, 3d), ring.sum(NOW, Duration.ofMinutes(15)));
+        assertEquals(Map.of(productId, 7d), ring.sum(NOW, Duration.ofHours(1)));
+    }
+
+    @Test
+    void add_shouldReuseSlotsOfExpiredBuckets() {
+        ring.add(NOW.minus(Duration.ofHours(1)), productId, 1);
+        ring.add(NOW, productId, 2);
+        ring.add(NOW.minus(Duration.ofHours(1)), productId, 4);
+
+        assertEquals(Map.of(productId, 2d), ring.sum(NOW, Duration.ofHours(1)));
+    }
+
+    @Test
+    void snapshot_shouldRestoreUnexpiredCounters() {
+        ring.add(NOW, productId, 1);
+        ring.add(NOW.minusSeconds(60 * 10), productId, 2);
+
+        List<SalesCount> snapshot = new ArrayList<>();
+        ring.snapshot(NOW, Map.of(productId, "Product"), snapshot::add);
+        SalesRing restored = new SalesRing(SalesCount.Granularity.MINUTE);
+        snapshot.forEach(restored::restore);
+
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.stream().allMatch(count -> "Product".equals(count.getProductName())));
+        assertEquals(ring.sum(NOW, Duration.ofHours(1)), restored.sum(NOW, Duration.ofHours(1)));
+    }
+}
@@ -0,0 +1,149 @@
+package de.team7.swt.reporting.presentation;
+
+import de.team7.swt.checkout.infrastructure.OrderRepository;
+import de.team7.swt.checkout.model.Order;
+import de.team7.swt.domain.catalog.Catalog;
+import de.team7.swt.domain.catalog.Product;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.restdocs.RestDocumentationContextProvider;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.net.URI;
+import java.time.Instant;
+
+import static de.team7.swt.domain.catalog.Currencies.EURO;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.headers.HeaderDocumentation.responseHeaders;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ExtendWith({RestDocumentationExtension.class, SpringExtension.class})
+class ReportControllerTest {
+
+    private static final URI BASE_URI = URI.create("/api/v1/reports");
+    private static final String STATUS = "Status";
+
+    private MockMvc mockMvc;
+
+    // @formatter:off
+    @Autowired private OrderRepository orders;
+    @Autowired private Catalog<Product> catalog;
+    // @formatter:on
+
+    private Product product;
+    private Instant start;
+
+    @BeforeEach
+    void setUp(WebApplicationContext context, RestDocumentationContextProvider restDocumentation) {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .apply(documentationConfiguration(restDocumentation)
+                .operationPreprocessors()
+                .withRequestDefaults(prettyPrint())
+                .withResponseDefaults(prettyPrint()))
+            .apply(springSecurity())
+            .build();
+
+        product = catalog.save(new Product("Reported " + System.nanoTime(), Money.of(2, EURO)));
+        start = Instant.now();
+        for (int i = 1; i <= 2; i++) {
+            Order order = new Order();
+            order.addItem(product, product.from(i));
+            order.complete();
+            orders.save(order);
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void history_shouldListRecordsOfProduct() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/orders?product_id={product_id}", product.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+            .andExpect(jsonPath("$._embedded", hasSize(2)))
+            .andDo(document(
+                "reports/orders",
+                requestParameters(
+                    parameterWithName("from").description("The inclusive start of the period").optional(),
+                    parameterWithName("to").description("The exclusive end of the period, now by default").optional(),
+                    parameterWithName("product_id").description("The product ID one of the order's line items must refer to").optional(),
+                    parameterWithName("page").description("The zero-based page number").optional(),
+                    parameterWithName("size").description("The maximum number of records per page, 100 by default").optional()
+                ),
+                responseHeaders(
+                    headerWithName(CONTENT_TYPE).description(APPLICATION_JSON),
+                    headerWithName(STATUS).description(OK).optional()
+                ),
+                responseFields(
+                    fieldWithPath("_embedded[]").description("Collection of order records, newest first"),
+                    fieldWithPath("_embedded[].id").description("The record's ID"),
+                    fieldWithPath("_embedded[].order_id").description("The recorded order's ID"),
+                    fieldWithPath("_embedded[].placed_at").description("The order's creation timestamp"),
+                    fieldWithPath("_embedded[].line_item_count").description("The number of the order's line items"),
+                    fieldWithPath("_embedded[].product_ids").description("The IDs of the products the order refers to"),
+                    fieldWithPath("_embedded[].total").description("The order's total cost"),
+                    fieldWithPath("_embedded[].total.amount").description("The amount of the order's price"),
+                    fieldWithPath("_embedded[].total.currency").description("The currency of the order's price"),
+                    fieldWithPath("_embedded[].total.formatted").ignored()
+                )
+            ));
+    }
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void revenue_shouldSumUpTotalsPerCurrency() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/revenue?from={from}", start))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded", hasSize(1)))
+            .andExpect(jsonPath("$._embedded[0].total.amount").value(6))
+            .andExpect(jsonPath("$._embedded[0].orders").value(2))
+            .andDo(document(
+                "reports/revenue",
+                requestParameters(
+                    parameterWithName("from").description("The inclusive start of the period").optional(),
+                    parameterWithName("to").description("The exclusive end of the period, now by default").optional()
+                ),
+                responseFields(
+                    fieldWithPath("_embedded[]").description("Collection of revenues per currency"),
+                    fieldWithPath("_embedded[].orders").description("The number of orders"),
+                    fieldWithPath("_embedded[].total").description("The orders' total revenue"),
+                    fieldWithPath("_embedded[].total.amount").description("The amount of the revenue"),
+                    fieldWithPath("_embedded[].total.currency").description("The currency of the revenue"),
+                    fieldWithPath("_embedded[].total.formatted").ignored()
+                )
+            ));
+    }
+
+    @Test
+    void revenueWithoutManager_shouldBeRejected() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/revenue"))
+            .andExpect(status().is3xxRedirection());
+    }
+}
@@ -0,0 +1,42 @@
+package de.team7.swt.reporting.presentation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author Vincent Nadoll
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatsControllerTest {
+
+    private static final URI BASE_URI = URI.create("/api/v1/stats");
+
+    // @formatter:off
+    @Autowired private MockMvc mockMvc;
+    // @formatter:on
+
+    @Test
+    @WithMockUser(roles = "MANAGER")
+    void topProducts_shouldListProductSales() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/top-products").param("window", "1h").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded").isArray());
+    }
+
+    @Test
+    void topProductsWithoutManager_shouldBeRejected() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/top-products"))
+            .andExpect(status().is3xxRedirection());
+    }
+}